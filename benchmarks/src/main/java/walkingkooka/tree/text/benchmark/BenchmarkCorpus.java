@@ -0,0 +1,166 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text.benchmark;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.color.Color;
+import walkingkooka.tree.text.BorderStyle;
+import walkingkooka.tree.text.FontFamily;
+import walkingkooka.tree.text.FontSize;
+import walkingkooka.tree.text.FontStyle;
+import walkingkooka.tree.text.FontWeight;
+import walkingkooka.tree.text.Length;
+import walkingkooka.tree.text.TextAlign;
+import walkingkooka.tree.text.TextNode;
+import walkingkooka.tree.text.TextStyle;
+import walkingkooka.tree.text.TextStylePropertyName;
+import walkingkooka.tree.text.VerticalAlign;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds deterministic corpora of {@link TextStyle} and {@link TextNode} shaped like spreadsheet cell formatting.
+ */
+final class BenchmarkCorpus {
+
+    /**
+     * The same seed is used by every benchmark so runs before and after a change measure identical inputs.
+     */
+    private final static long SEED = 20191231;
+
+    private final static FontFamily[] FONT_FAMILIES = new FontFamily[]{
+            FontFamily.with("Arial"),
+            FontFamily.with("Calibri"),
+            FontFamily.with("Courier New"),
+            FontFamily.with("Times New Roman"),
+            FontFamily.with("Verdana")
+    };
+
+    /**
+     * Creates count styles each holding between 4 and 16 properties.
+     */
+    static List<TextStyle> styles(final int count) {
+        final Random random = new Random(SEED);
+        final List<TextStyle> styles = Lists.array();
+
+        for (int i = 0; i < count; i++) {
+            styles.add(style(random, 4 + random.nextInt(13)));
+        }
+
+        return styles;
+    }
+
+    /**
+     * Creates a single style with the given number of properties, picking from those commonly found on cells.
+     */
+    static TextStyle style(final Random random, final int propertyCount) {
+        TextStyle style = TextStyle.EMPTY;
+
+        for (int i = 0; i < propertyCount; i++) {
+            switch (i) {
+                case 0:
+                    style = style.set(TextStylePropertyName.FONT_FAMILY, FONT_FAMILIES[random.nextInt(FONT_FAMILIES.length)]);
+                    break;
+                case 1:
+                    style = style.set(TextStylePropertyName.FONT_SIZE, FontSize.with(8 + random.nextInt(12)));
+                    break;
+                case 2:
+                    style = style.set(TextStylePropertyName.COLOR, Color.fromRgb(random.nextInt(0xffffff)));
+                    break;
+                case 3:
+                    style = style.set(TextStylePropertyName.TEXT_ALIGN, TextAlign.values()[random.nextInt(TextAlign.values().length)]);
+                    break;
+                case 4:
+                    style = style.set(TextStylePropertyName.BACKGROUND_COLOR, Color.fromRgb(random.nextInt(0xffffff)));
+                    break;
+                case 5:
+                    style = style.set(TextStylePropertyName.FONT_WEIGHT, random.nextBoolean() ? FontWeight.BOLD : FontWeight.NORMAL);
+                    break;
+                case 6:
+                    style = style.set(TextStylePropertyName.FONT_STYLE, random.nextBoolean() ? FontStyle.ITALIC : FontStyle.NORMAL);
+                    break;
+                case 7:
+                    style = style.set(TextStylePropertyName.VERTICAL_ALIGN, VerticalAlign.values()[random.nextInt(VerticalAlign.values().length)]);
+                    break;
+                case 8:
+                    style = style.set(TextStylePropertyName.BORDER_BOTTOM_STYLE, BorderStyle.SOLID);
+                    break;
+                case 9:
+                    style = style.set(TextStylePropertyName.BORDER_BOTTOM_WIDTH, Length.pixel(1.0 + random.nextInt(3)));
+                    break;
+                case 10:
+                    style = style.set(TextStylePropertyName.BORDER_BOTTOM_COLOR, Color.fromRgb(random.nextInt(0xffffff)));
+                    break;
+                case 11:
+                    style = style.set(TextStylePropertyName.PADDING_LEFT, Length.pixel((double) random.nextInt(8)));
+                    break;
+                case 12:
+                    style = style.set(TextStylePropertyName.PADDING_RIGHT, Length.pixel((double) random.nextInt(8)));
+                    break;
+                case 13:
+                    style = style.set(TextStylePropertyName.PADDING_TOP, Length.pixel((double) random.nextInt(4)));
+                    break;
+                case 14:
+                    style = style.set(TextStylePropertyName.PADDING_BOTTOM, Length.pixel((double) random.nextInt(4)));
+                    break;
+                default:
+                    style = style.set(TextStylePropertyName.WIDTH, Length.pixel(50.0 + random.nextInt(200)));
+                    break;
+            }
+        }
+
+        return style;
+    }
+
+    /**
+     * Creates a style node with count {@link TextNode#text(String)} children.
+     */
+    static TextNode wide(final int count) {
+        final List<TextNode> children = Lists.array();
+        for (int i = 0; i < count; i++) {
+            children.add(TextNode.text("cell-" + i));
+        }
+        return TextNode.style(children);
+    }
+
+    /**
+     * Creates a chain of styled nodes depth levels deep, each level holding a text sibling and the next level.
+     */
+    static TextNode deep(final int depth) {
+        final Random random = new Random(SEED);
+
+        TextNode node = TextNode.text("leaf");
+        for (int i = 0; i < depth; i++) {
+            node = style(random, 3).setChildren(
+                    Lists.of(
+                            TextNode.text("level-" + i),
+                            node
+                    )
+            );
+        }
+        return node;
+    }
+
+    /**
+     * Stop creation
+     */
+    private BenchmarkCorpus() {
+        throw new UnsupportedOperationException();
+    }
+}
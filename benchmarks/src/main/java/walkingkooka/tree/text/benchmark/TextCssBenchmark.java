@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.text.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+import walkingkooka.tree.json.marshall.JsonNodeUnmarshallContext;
+import walkingkooka.tree.json.marshall.JsonNodeUnmarshallContexts;
+import walkingkooka.tree.text.TextStyle;
+
+import java.math.MathContext;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link TextStyle#parseCss(CharSequence, JsonNodeUnmarshallContext)} and {@link TextStyle#toCss()} over a batch of styles. As the css
+ * of a style is cached after the first {@link TextStyle#toCss()}, {@link #parseCssToCss(Blackhole)} measures building
+ * the css of freshly parsed styles.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextCssBenchmark {
+
+    /**
+     * The number of styles in the batch.
+     */
+    @Param({"1000"})
+    public int styleCount;
+
+    private JsonNodeUnmarshallContext unmarshallContext;
+
+    private List<TextStyle> styles;
+
+    private List<String> css;
+
+    @Setup
+    public void setup() {
+        this.unmarshallContext = JsonNodeUnmarshallContexts.basic(
+                ExpressionNumberKind.DEFAULT,
+                MathContext.DECIMAL32
+        );
+
+        final List<TextStyle> styles = BenchmarkCorpus.styles(this.styleCount);
+        this.styles = styles;
+
+        final List<String> css = Lists.array();
+        for (final TextStyle style : styles) {
+            css.add(style.toCss());
+        }
+        this.css = css;
+    }
+
+    @Benchmark
+    public void parseCss(final Blackhole blackhole) {
+        final JsonNodeUnmarshallContext context = this.unmarshallContext;
+        for (final String css : this.css) {
+            blackhole.consume(TextStyle.parseCss(css, context));
+        }
+    }
+
+    @Benchmark
+    public void toCssCached(final Blackhole blackhole) {
+        for (final TextStyle style : this.styles) {
+            blackhole.consume(style.toCss());
+        }
+    }
+
+    @Benchmark
+    public void parseCssToCss(final Blackhole blackhole) {
+        final JsonNodeUnmarshallContext context = this.unmarshallContext;
+        for (final String css : this.css) {
+            blackhole.consume(TextStyle.parseCss(css, context).toCss());
+        }
+    }
+}
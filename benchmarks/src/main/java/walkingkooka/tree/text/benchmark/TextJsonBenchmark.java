@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+import walkingkooka.tree.json.JsonNode;
+import walkingkooka.tree.json.marshall.JsonNodeMarshallContext;
+import walkingkooka.tree.json.marshall.JsonNodeMarshallContexts;
+import walkingkooka.tree.json.marshall.JsonNodeUnmarshallContext;
+import walkingkooka.tree.json.marshall.JsonNodeUnmarshallContexts;
+import walkingkooka.tree.text.TextNode;
+import walkingkooka.tree.text.TextStyle;
+
+import java.math.MathContext;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures json marshalling and unmarshalling of {@link TextStyle} and {@link TextNode}, which land on
+ * <code>TextStyleNonEmpty.marshall</code>, <code>TextStyle.unmarshall</code> and the {@link TextNode} registered handlers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextJsonBenchmark {
+
+    /**
+     * The number of styles in the corpus, also the number of styled cells in the document.
+     */
+    @Param({"1000"})
+    public int styleCount;
+
+    private JsonNodeMarshallContext marshallContext;
+
+    private JsonNodeUnmarshallContext unmarshallContext;
+
+    private List<TextStyle> styles;
+
+    private List<JsonNode> stylesJson;
+
+    private TextNode document;
+
+    private JsonNode documentJson;
+
+    @Setup
+    public void setup() {
+        this.marshallContext = JsonNodeMarshallContexts.basic();
+        this.unmarshallContext = JsonNodeUnmarshallContexts.basic(
+                ExpressionNumberKind.DEFAULT,
+                MathContext.DECIMAL32
+        );
+
+        final List<TextStyle> styles = BenchmarkCorpus.styles(this.styleCount);
+        this.styles = styles;
+
+        final List<JsonNode> stylesJson = Lists.array();
+        final List<TextNode> cells = Lists.array();
+        int i = 0;
+        for (final TextStyle style : styles) {
+            stylesJson.add(this.marshallContext.marshall(style));
+            cells.add(style.setChildren(Lists.of(TextNode.text("cell-" + i))));
+            i++;
+        }
+        this.stylesJson = stylesJson;
+
+        this.document = TextNode.style(cells);
+        this.documentJson = this.marshallContext.marshallWithType(this.document);
+    }
+
+    @Benchmark
+    public void marshallTextStyle(final Blackhole blackhole) {
+        final JsonNodeMarshallContext context = this.marshallContext;
+        for (final TextStyle style : this.styles) {
+            blackhole.consume(context.marshall(style));
+        }
+    }
+
+    @Benchmark
+    public void unmarshallTextStyle(final Blackhole blackhole) {
+        final JsonNodeUnmarshallContext context = this.unmarshallContext;
+        for (final JsonNode json : this.stylesJson) {
+            blackhole.consume(context.unmarshall(json, TextStyle.class));
+        }
+    }
+
+    @Benchmark
+    public JsonNode marshallDocument() {
+        return this.marshallContext.marshallWithType(this.document);
+    }
+
+    @Benchmark
+    public TextNode unmarshallDocument() {
+        return this.unmarshallContext.unmarshallWithType(this.documentJson);
+    }
+
+    @Benchmark
+    public String marshallDocumentToString() {
+        return this.marshallContext.marshallWithType(this.document).toString();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import walkingkooka.tree.text.TextNode;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building and reading {@link TextNode} trees, covering <code>TextParentNode.appendChild</code> on wide and
+ * deep trees and the recursive {@link TextNode#text()} and {@link TextNode#textLength()}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextNodeBenchmark {
+
+    /**
+     * The number of children under a single parent for the wide tree.
+     */
+    @Param({"100", "1000"})
+    public int width;
+
+    /**
+     * The number of nested style nodes for the deep tree.
+     */
+    @Param({"50"})
+    public int depth;
+
+    private TextNode wide;
+
+    private TextNode deep;
+
+    @Setup
+    public void setup() {
+        this.wide = BenchmarkCorpus.wide(this.width);
+        this.deep = BenchmarkCorpus.deep(this.depth);
+    }
+
+    @Benchmark
+    public TextNode appendChildWide() {
+        return this.wide.appendChild(TextNode.text("appended"));
+    }
+
+    @Benchmark
+    public TextNode appendChildDeep() {
+        TextNode node = this.deep;
+        while (node.children().size() > 1) {
+            node = node.children().get(1);
+        }
+        return node.isText() ?
+                node.parentOrFail().appendChild(TextNode.text("appended")) :
+                node.appendChild(TextNode.text("appended"));
+    }
+
+    @Benchmark
+    public String textWide() {
+        return this.wide.text();
+    }
+
+    @Benchmark
+    public int textLengthWide() {
+        return this.wide.textLength();
+    }
+
+    @Benchmark
+    public String textDeep() {
+        return this.deep.text();
+    }
+
+    @Benchmark
+    public int textLengthDeep() {
+        return this.deep.textLength();
+    }
+}
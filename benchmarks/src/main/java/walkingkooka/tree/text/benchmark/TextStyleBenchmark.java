@@ -0,0 +1,145 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import walkingkooka.color.Color;
+import walkingkooka.tree.text.FontWeight;
+import walkingkooka.tree.text.TextStyle;
+import walkingkooka.tree.text.TextStylePropertyName;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link TextStyle} get, set, remove and merge operations, which internally land on
+ * <code>TextStyleNonEmpty.get0/set0/remove0/merge1</code>.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextStyleBenchmark {
+
+    /**
+     * The number of styles in the corpus, each operation is applied to every style.
+     */
+    @Param({"1000"})
+    public int styleCount;
+
+    private TextStyle[] styles;
+
+    @Setup
+    public void setup() {
+        final List<TextStyle> styles = BenchmarkCorpus.styles(this.styleCount);
+        this.styles = styles.toArray(new TextStyle[styles.size()]);
+    }
+
+    @Benchmark
+    public void getPresent(final Blackhole blackhole) {
+        for (final TextStyle style : this.styles) {
+            final Optional<?> value = style.get(TextStylePropertyName.FONT_FAMILY);
+            blackhole.consume(value);
+        }
+    }
+
+    @Benchmark
+    public void getAbsent(final Blackhole blackhole) {
+        for (final TextStyle style : this.styles) {
+            final Optional<?> value = style.get(TextStylePropertyName.WRITING_MODE);
+            blackhole.consume(value);
+        }
+    }
+
+    @Benchmark
+    public void setNew(final Blackhole blackhole) {
+        for (final TextStyle style : this.styles) {
+            blackhole.consume(style.set(TextStylePropertyName.OUTLINE_COLOR, Color.BLACK));
+        }
+    }
+
+    @Benchmark
+    public void setReplace(final Blackhole blackhole) {
+        for (final TextStyle style : this.styles) {
+            blackhole.consume(style.set(TextStylePropertyName.FONT_WEIGHT, FontWeight.with(600)));
+        }
+    }
+
+    @Benchmark
+    public void setChain(final Blackhole blackhole) {
+        for (final TextStyle style : this.styles) {
+            blackhole.consume(
+                    TextStyle.EMPTY
+                            .set(TextStylePropertyName.FONT_FAMILY, style.getOrFail(TextStylePropertyName.FONT_FAMILY))
+                            .set(TextStylePropertyName.FONT_SIZE, style.getOrFail(TextStylePropertyName.FONT_SIZE))
+                            .set(TextStylePropertyName.COLOR, style.getOrFail(TextStylePropertyName.COLOR))
+                            .set(TextStylePropertyName.TEXT_ALIGN, style.getOrFail(TextStylePropertyName.TEXT_ALIGN))
+            );
+        }
+    }
+
+    @Benchmark
+    public void remove(final Blackhole blackhole) {
+        for (final TextStyle style : this.styles) {
+            blackhole.consume(style.remove(TextStylePropertyName.COLOR));
+        }
+    }
+
+    @Benchmark
+    public void merge(final Blackhole blackhole) {
+        final TextStyle[] styles = this.styles;
+        final int count = styles.length;
+
+        for (int i = 0; i < count; i++) {
+            blackhole.consume(styles[i].merge(styles[(i + 1) % count]));
+        }
+    }
+
+    @Benchmark
+    public void mergeSame(final Blackhole blackhole) {
+        for (final TextStyle style : this.styles) {
+            blackhole.consume(style.merge(style));
+        }
+    }
+
+    @Benchmark
+    public void hashCodeAndEquals(final Blackhole blackhole) {
+        final TextStyle[] styles = this.styles;
+        final int count = styles.length;
+
+        for (int i = 0; i < count; i++) {
+            final TextStyle style = styles[i];
+            blackhole.consume(style.hashCode());
+            blackhole.consume(style.equals(styles[(i + 1) % count]));
+        }
+    }
+}
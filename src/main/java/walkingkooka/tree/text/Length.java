@@ -249,7 +249,10 @@ public abstract class Length<V> {
         return factory.apply(node.stringOrFail());
     }
 
-    final JsonNode marshall(final JsonNodeMarshallContext context) {
+    /**
+     * Lengths without a value such as {@link NoneLength} and {@link NormalLength} return a shared {@link JsonNode}.
+     */
+    JsonNode marshall(final JsonNodeMarshallContext context) {
         return JsonNode.string(this.toString());
     }
 
@@ -19,6 +19,8 @@ package walkingkooka.tree.text;
 
 import walkingkooka.Value;
 import walkingkooka.text.CharSequences;
+import walkingkooka.tree.json.JsonNode;
+import walkingkooka.tree.json.marshall.JsonNodeMarshallContext;
 
 import java.util.Optional;
 
@@ -85,6 +87,15 @@ public final class NoneLength extends Length<Void> implements Value<Void> {
         this.numberFail0();
     }
 
+    // JsonNodeContext..................................................................................................
+
+    @Override
+    JsonNode marshall(final JsonNodeMarshallContext context) {
+        return JSON;
+    }
+
+    private final static JsonNode JSON = JsonNode.string(TEXT);
+
     // LengthVisitor....................................................................................................
 
     @Override
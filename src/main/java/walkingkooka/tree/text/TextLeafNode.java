@@ -93,6 +93,20 @@ abstract class TextLeafNode<V> extends TextNode implements Value<V> {
         return NeverError.unexpectedMethodCall(this, "setChild", newChild, index);
     }
 
+    // HasTextOffset....................................................................................................
+
+    @Override
+    final TextNode leafAt0(final int offset) {
+        return this;
+    }
+
+    @Override
+    final void leavesInRange0(final int start,
+                              final int end,
+                              final List<TextNode> leaves) {
+        leaves.add(this);
+    }
+
     // attributes.......................................................................................................
 
     @Override
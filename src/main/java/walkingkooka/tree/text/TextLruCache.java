@@ -0,0 +1,143 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * A bounded least recently used cache that counts hits and misses, shared by the caches within this package. Memory is
+ * bounded by the maximum number of entries, as soft and weak references are not available in all environments. All
+ * methods are thread safe.
+ */
+final class TextLruCache<K, V> {
+
+    /**
+     * Creates a new {@link TextLruCache} that holds at most the given number of entries.
+     */
+    static <K, V> TextLruCache<K, V> with(final int maxSize) {
+        return with(maxSize, TextLruCache::ignoreEvicted);
+    }
+
+    private static <K, V> void ignoreEvicted(final K key,
+                                             final V value) {
+    }
+
+    /**
+     * Creates a new {@link TextLruCache} that holds at most the given number of entries, calling the given
+     * {@link BiConsumer} with each least recently used entry as it is evicted.
+     */
+    static <K, V> TextLruCache<K, V> with(final int maxSize,
+                                          final BiConsumer<K, V> evicted) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Invalid max size " + maxSize + " <= 0");
+        }
+        return new TextLruCache<>(maxSize, evicted);
+    }
+
+    private TextLruCache(final int maxSize,
+                         final BiConsumer<K, V> evicted) {
+        super();
+        this.maxSize = maxSize;
+        this.evicted = evicted;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                final boolean remove = this.size() > TextLruCache.this.maxSize;
+                if (remove) {
+                    TextLruCache.this.evicted.accept(eldest.getKey(), eldest.getValue());
+                }
+                return remove;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value or null, counting a hit or miss.
+     */
+    synchronized V get(final K key) {
+        final V value = this.cache.get(key);
+        if (null == value) {
+            this.misses++;
+        } else {
+            this.hits++;
+        }
+        return value;
+    }
+
+    /**
+     * Adds or replaces the value, returning the previous value if one was present.
+     */
+    synchronized V put(final K key,
+                       final V value) {
+        return this.cache.put(key, value);
+    }
+
+    /**
+     * Removes the value returning it if one was present, the evicted {@link BiConsumer} is not called.
+     */
+    synchronized V remove(final K key) {
+        return this.cache.remove(key);
+    }
+
+    /**
+     * The number of gets that found a value.
+     */
+    synchronized long hits() {
+        return this.hits;
+    }
+
+    /**
+     * The number of gets that did not find a value.
+     */
+    synchronized long misses() {
+        return this.misses;
+    }
+
+    /**
+     * The number of cached entries.
+     */
+    synchronized int size() {
+        return this.cache.size();
+    }
+
+    /**
+     * Removes all entries and resets the hit and miss counters.
+     */
+    synchronized void clear() {
+        this.cache.clear();
+        this.hits = 0;
+        this.misses = 0;
+    }
+
+    private final int maxSize;
+
+    private final BiConsumer<K, V> evicted;
+
+    private final Map<K, V> cache;
+
+    private long hits;
+
+    private long misses;
+
+    @Override
+    public synchronized String toString() {
+        return "size: " + this.cache.size() + "/" + this.maxSize + " hits: " + this.hits + " misses: " + this.misses;
+    }
+}
@@ -18,11 +18,13 @@
 package walkingkooka.tree.text;
 
 import walkingkooka.Cast;
+import walkingkooka.NeverError;
 import walkingkooka.ToStringBuilder;
 import walkingkooka.ToStringBuilderOption;
 import walkingkooka.UsesToStringBuilder;
 import walkingkooka.collect.list.Lists;
 import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.Sets;
 import walkingkooka.text.HasText;
 import walkingkooka.text.printer.TreePrintable;
 import walkingkooka.tree.Node;
@@ -36,7 +38,9 @@ import walkingkooka.tree.select.parser.NodeSelectorExpressionParserToken;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Predicate;
 
 /**
@@ -163,6 +167,79 @@ public abstract class TextNode implements Node<TextNode, TextNodeName, TextStyle
      */
     abstract TextNode replace(final int index);
 
+    // HasTextOffset....................................................................................................
+
+    /**
+     * Returns the offset of this node within its root, using the cached child offsets of each ancestor so only the
+     * parent chain is walked.
+     */
+    @Override
+    public final int textOffset() {
+        final Optional<TextNode> parent = this.parent();
+        return parent.isPresent() ?
+                parent.get().childTextOffset(this.index) :
+                0;
+    }
+
+    /**
+     * Returns the offset of the child at the given index within the root.
+     */
+    int childTextOffset(final int index) {
+        return NeverError.unexpectedMethodCall(this, "childTextOffset", index);
+    }
+
+    /**
+     * Returns the leaf containing the character at the given offset, which is relative to the start of this node.
+     * Leaves without any text are never returned. Each parent along the path binary searches its cached child offsets
+     * and only the nodes along the path are given parents, so once those offsets are cached a lookup costs
+     * O(depth x log fan-out).
+     */
+    public final Optional<TextNode> leafAt(final int offset) {
+        checkOffset(offset, "offset");
+
+        return offset < this.textLength() ?
+                Optional.of(this.leafAt0(offset)) :
+                Optional.empty();
+    }
+
+    /**
+     * Only called with an offset within this node.
+     */
+    abstract TextNode leafAt0(final int offset);
+
+    /**
+     * Returns all leaves with text that overlaps the given start inclusive and end exclusive offsets, which are
+     * relative to the start of this node.
+     */
+    public final List<TextNode> leavesInRange(final int start,
+                                              final int end) {
+        checkOffset(start, "start");
+        if (end < start) {
+            throw new IllegalArgumentException("Invalid end " + end + " < " + start);
+        }
+
+        final List<TextNode> leaves = Lists.array();
+        final int textLength = this.textLength();
+        if (start < end && start < textLength) {
+            this.leavesInRange0(start, Math.min(end, textLength), leaves);
+        }
+        return Lists.readOnly(leaves);
+    }
+
+    /**
+     * Only called with a non empty range within this node.
+     */
+    abstract void leavesInRange0(final int start,
+                                 final int end,
+                                 final List<TextNode> leaves);
+
+    private static void checkOffset(final int offset,
+                                    final String label) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Invalid " + label + " " + offset + " < 0");
+        }
+    }
+
     // setAttributes....................................................................................................
 
     /**
@@ -201,6 +278,114 @@ public abstract class TextNode implements Node<TextNode, TextNodeName, TextStyle
      */
     public abstract TextStyle textStyle();
 
+    // computedStyle....................................................................................................
+
+    /**
+     * Returns the effective {@link TextStyle} of this node, its own {@link #textStyle()} merged with the
+     * {@link TextStylePropertyName#isInherited() inherited} properties of the computed style of its parent, following
+     * CSS. Nodes are immutable so each caches its result, and computing the style of every node visits each once.
+     */
+    public final TextStyle computedStyle() {
+        TextStyle computedStyle = this.computedStyle;
+
+        if (null == computedStyle) {
+            final Optional<TextNode> parent = this.parent();
+            computedStyle = parent.isPresent() ?
+                    this.textStyle().merge(parent.get().inheritedStyle()) :
+                    this.textStyle();
+            this.computedStyle = computedStyle;
+        }
+
+        return computedStyle;
+    }
+
+    private TextStyle computedStyle;
+
+    /**
+     * The inherited properties of {@link #computedStyle()} given to each child.
+     */
+    private TextStyle inheritedStyle() {
+        TextStyle inheritedStyle = this.inheritedStyle;
+
+        if (null == inheritedStyle) {
+            inheritedStyle = this.computedStyle().inherited();
+            this.inheritedStyle = inheritedStyle;
+        }
+
+        return inheritedStyle;
+    }
+
+    private TextStyle inheritedStyle;
+
+    // placeholders.....................................................................................................
+
+    /**
+     * Returns the names of all {@link TextPlaceholderNode placeholders} within this node in the order they first appear.
+     */
+    public final Set<TextPlaceholderName> placeholders() {
+        return Sets.readOnly(this.placeholderIndex().paths.keySet());
+    }
+
+    /**
+     * Returns every {@link TextPlaceholderNode} with the given name within this node, in the order they appear.
+     * Each is found by following its index path from this node rather than searching the whole tree.
+     */
+    public final List<TextPlaceholderNode> occurrences(final TextPlaceholderName name) {
+        Objects.requireNonNull(name, "name");
+
+        final List<int[]> paths = this.placeholderIndex().paths.get(name);
+        final List<TextPlaceholderNode> occurrences = Lists.array();
+
+        if (null != paths) {
+            for (final int[] path : paths) {
+                TextNode node = this;
+                for (final int index : path) {
+                    node = node.children().get(index);
+                }
+                occurrences.add((TextPlaceholderNode) node);
+            }
+        }
+
+        return Lists.readOnly(occurrences);
+    }
+
+    /**
+     * Replaces every {@link TextPlaceholderNode} that has a value in the given {@link Map}, rebuilding each changed
+     * ancestor exactly once. Placeholders without a value are left as is.
+     */
+    public final TextNode replacePlaceholders(final Map<TextPlaceholderName, TextNode> values) {
+        Objects.requireNonNull(values, "values");
+
+        final TextNodeEditor editor = TextNodeEditor.with(this);
+
+        for (final Map.Entry<TextPlaceholderName, List<int[]>> nameAndPaths : this.placeholderIndex().paths.entrySet()) {
+            final TextNode value = values.get(nameAndPaths.getKey());
+            if (null != value) {
+                for (final int[] path : nameAndPaths.getValue()) {
+                    editor.replace(path, value);
+                }
+            }
+        }
+
+        return editor.build();
+    }
+
+    /**
+     * Lazily builds and caches the index of placeholders, as nodes are immutable this never changes.
+     */
+    private TextNodePlaceholderIndex placeholderIndex() {
+        TextNodePlaceholderIndex placeholderIndex = this.placeholderIndex;
+
+        if (null == placeholderIndex) {
+            placeholderIndex = TextNodePlaceholderIndex.with(this);
+            this.placeholderIndex = placeholderIndex;
+        }
+
+        return placeholderIndex;
+    }
+
+    private TextNodePlaceholderIndex placeholderIndex;
+
     // is...............................................................................................................
 
     /**
@@ -353,23 +538,31 @@ public abstract class TextNode implements Node<TextNode, TextNodeName, TextStyle
 
     // JsonNode.........................................................................................................
 
+    /**
+     * The type names for each {@link TextNode} sub class, used by json with type.
+     */
+    final static String TEXT_JSON_TYPE = "text";
+    final static String PLACEHOLDER_JSON_TYPE = "text-placeholder";
+    final static String STYLE_JSON_TYPE = "text-style-node";
+    final static String STYLE_NAME_JSON_TYPE = "text-styleName";
+
     static {
-        JsonNodeContext.register("text",
+        JsonNodeContext.register(TEXT_JSON_TYPE,
                 Text::unmarshallText,
                 Text::marshall,
                 Text.class);
 
-        JsonNodeContext.register("text-placeholder",
+        JsonNodeContext.register(PLACEHOLDER_JSON_TYPE,
                 TextPlaceholderNode::unmarshallTextPlaceholderNode,
                 TextPlaceholderNode::marshall,
                 TextPlaceholderNode.class);
 
-        JsonNodeContext.register("text-style-node",
+        JsonNodeContext.register(STYLE_JSON_TYPE,
                 TextStyleNode::unmarshallTextStyleNode,
                 TextStyleNode::marshall,
                 TextStyleNode.class);
 
-        JsonNodeContext.register("text-styleName",
+        JsonNodeContext.register(STYLE_NAME_JSON_TYPE,
                 TextStyleNameNode::unmarshallTextStyleNameNode,
                 TextStyleNameNode::marshall,
                 TextStyleNameNode.class);
@@ -0,0 +1,417 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.text.CharSequences;
+import walkingkooka.tree.json.JsonNode;
+import walkingkooka.tree.json.marshall.JsonNodeUnmarshallContext;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Reads {@link TextNode} and {@link TextStyle} written by a {@link TextNodeBinaryWriter}. Reads may start at any
+ * offset within a byte array so a slice of a larger buffer may be read without copying.
+ * <br>
+ * Invalid or truncated input, or bytes written by a build with different properties or enums fail with a
+ * {@link TextNodeException} including the offending offset.
+ * Instances hold the state of the bytes being read and are not thread safe.
+ */
+public final class TextNodeBinaryReader {
+
+    /**
+     * Creates a new {@link TextNodeBinaryReader} that uses the given {@link JsonNodeUnmarshallContext} for values
+     * without a compact form.
+     */
+    public static TextNodeBinaryReader with(final JsonNodeUnmarshallContext context) {
+        Objects.requireNonNull(context, "context");
+
+        return new TextNodeBinaryReader(context);
+    }
+
+    private TextNodeBinaryReader(final JsonNodeUnmarshallContext context) {
+        super();
+        this.context = context;
+    }
+
+    /**
+     * Reads a {@link TextNode} from all the given bytes.
+     */
+    public TextNode readTextNode(final byte[] bytes) {
+        Objects.requireNonNull(bytes, "bytes");
+
+        return this.readTextNode(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Reads a {@link TextNode} from the given range of bytes.
+     */
+    public TextNode readTextNode(final byte[] bytes,
+                                 final int offset,
+                                 final int length) {
+        this.start(bytes, offset, length, TextNodeBinaryWriter.KIND_NODE);
+
+        final TextNode node = this.readNode();
+        this.end();
+        return node;
+    }
+
+    /**
+     * Reads a {@link TextStyle} from all the given bytes.
+     */
+    public TextStyle readTextStyle(final byte[] bytes) {
+        Objects.requireNonNull(bytes, "bytes");
+
+        return this.readTextStyle(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Reads a {@link TextStyle} from the given range of bytes.
+     */
+    public TextStyle readTextStyle(final byte[] bytes,
+                                   final int offset,
+                                   final int length) {
+        this.start(bytes, offset, length, TextNodeBinaryWriter.KIND_STYLE);
+
+        final TextStyle textStyle = this.readTextStyle();
+        this.end();
+        return textStyle;
+    }
+
+    // header...........................................................................................................
+
+    private void start(final byte[] bytes,
+                       final int offset,
+                       final int length,
+                       final byte kind) {
+        Objects.requireNonNull(bytes, "bytes");
+        if (offset < 0 || length < 0 || offset + length > bytes.length) {
+            throw new IllegalArgumentException("Invalid offset " + offset + " length " + length + " for " + bytes.length + " bytes");
+        }
+
+        this.bytes = bytes;
+        this.position = offset;
+        this.start = offset;
+        this.end = offset + length;
+
+        if (TextNodeBinaryWriter.MAGIC0 != this.readByte() || TextNodeBinaryWriter.MAGIC1 != this.readByte()) {
+            this.fail("Invalid header");
+        }
+        final byte version = this.readByte();
+        if (TextNodeBinaryWriter.VERSION != version) {
+            this.fail("Unsupported version " + version);
+        }
+        if (kind != this.readByte()) {
+            this.fail(TextNodeBinaryWriter.KIND_NODE == kind ?
+                    "Expected TextNode" :
+                    "Expected TextStyle");
+        }
+        int tables = 0;
+        for (int i = 0; i < 4; i++) {
+            tables = (tables << 8) | (this.readByte() & 0xFF);
+        }
+        if (TextNodeBinaryWriter.TABLES != tables) {
+            this.fail("Incompatible properties or enums");
+        }
+
+        this.readStrings();
+    }
+
+    private void readStrings() {
+        final int count = this.readCount();
+        final String[] strings = new String[count];
+
+        for (int i = 0; i < count; i++) {
+            final int length = this.readCount();
+            strings[i] = new String(this.bytes, this.position, length, StandardCharsets.UTF_8);
+            this.position += length;
+        }
+
+        this.strings = strings;
+    }
+
+    /**
+     * Verifies all bytes were consumed and releases the input.
+     */
+    private void end() {
+        if (this.position != this.end) {
+            this.fail("Unexpected trailing bytes");
+        }
+        this.bytes = null;
+        this.strings = null;
+    }
+
+    // nodes............................................................................................................
+
+    private TextNode readNode() {
+        final byte tag = this.readByte();
+        final TextNode node;
+
+        switch (tag) {
+            case TextNodeBinaryWriter.NODE_TEXT:
+                node = Text.with(this.readString());
+                break;
+            case TextNodeBinaryWriter.NODE_PLACEHOLDER:
+                node = TextNode.placeholder(this.readString(TextPlaceholderName::with, "placeholder"));
+                break;
+            case TextNodeBinaryWriter.NODE_STYLE:
+                final TextStyle textStyle = this.readTextStyle();
+                node = textStyle.setChildren(this.readChildren());
+                break;
+            case TextNodeBinaryWriter.NODE_STYLE_NAME:
+                final TextStyleName styleName = this.readString(TextStyleName::with, "style name");
+                node = TextNode.styleName(styleName)
+                        .setChildren(this.readChildren());
+                break;
+            default:
+                node = this.fail("Unknown node " + tag);
+                break;
+        }
+
+        return node;
+    }
+
+    private List<TextNode> readChildren() {
+        final int count = this.readCount();
+        final List<TextNode> children = Lists.array();
+
+        for (int i = 0; i < count; i++) {
+            children.add(this.readNode());
+        }
+
+        return children;
+    }
+
+    // styles...........................................................................................................
+
+    private TextStyle readTextStyle() {
+        final TextStyleBuilder builder = TextStyleBuilder.create();
+
+        final int knownCount = this.readCount();
+        for (int i = 0; i < knownCount; i++) {
+            final int ordinal = this.readVarInt();
+            if (ordinal < 0 || ordinal >= TextStylePropertyName.ORDINALS.length) {
+                this.fail("Unknown property " + ordinal);
+            }
+
+            final TextStylePropertyName<?> name = TextStylePropertyName.ORDINALS[ordinal];
+            builder.set0(name, this.readValue(name));
+        }
+
+        final int unknownCount = this.readCount();
+        for (int i = 0; i < unknownCount; i++) {
+            final TextStylePropertyName<?> name = this.readString(TextStylePropertyName::with, "property");
+            builder.set0(name, this.readValue(name));
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Reads a value, reporting a value rejected by its type or handler as a {@link TextNodeException} at the offset
+     * of the value.
+     */
+    private Object readValue(final TextStylePropertyName<?> name) {
+        final int position = this.position;
+        try {
+            return this.readValue0(name);
+        } catch (final TextNodeException cause) {
+            throw cause;
+        } catch (final RuntimeException cause) {
+            return this.fail("Invalid value for " + name.inQuotes(), position, cause);
+        }
+    }
+
+    private Object readValue0(final TextStylePropertyName<?> name) {
+        final byte tag = this.readByte();
+        final Object value;
+
+        switch (tag) {
+            case TextNodeBinaryWriter.VALUE_ENUM:
+                value = this.readEnum(name);
+                break;
+            case TextNodeBinaryWriter.VALUE_NONE_LENGTH:
+                value = Length.none();
+                break;
+            case TextNodeBinaryWriter.VALUE_NORMAL_LENGTH:
+                value = Length.normal();
+                break;
+            case TextNodeBinaryWriter.VALUE_PIXEL_LENGTH:
+                value = Length.pixel(this.readDouble());
+                break;
+            case TextNodeBinaryWriter.VALUE_NUMBER_LENGTH:
+                value = Length.number(this.readVarLong());
+                break;
+            case TextNodeBinaryWriter.VALUE_FONT_FAMILY:
+                value = FontFamily.with(this.readString());
+                break;
+            case TextNodeBinaryWriter.VALUE_FONT_SIZE:
+                value = FontSize.with(this.readVarInt());
+                break;
+            case TextNodeBinaryWriter.VALUE_FONT_WEIGHT:
+                value = FontWeight.with(this.readVarInt());
+                break;
+            case TextNodeBinaryWriter.VALUE_OPACITY:
+                value = Opacity.with(this.readDouble());
+                break;
+            case TextNodeBinaryWriter.VALUE_TEXT_OVERFLOW_CLIP:
+                value = TextOverflow.CLIP;
+                break;
+            case TextNodeBinaryWriter.VALUE_TEXT_OVERFLOW_ELLIPSIS:
+                value = TextOverflow.ELLIPSIS;
+                break;
+            case TextNodeBinaryWriter.VALUE_TEXT_OVERFLOW_STRING:
+                value = TextOverflow.string(this.readString());
+                break;
+            case TextNodeBinaryWriter.VALUE_STRING:
+                value = this.readString();
+                break;
+            case TextNodeBinaryWriter.VALUE_JSON:
+                value = name.handler.unmarshall(JsonNode.parse(this.readString()), name, this.context);
+                break;
+            default:
+                value = this.fail("Unknown value " + tag + " for " + name);
+                break;
+        }
+
+        return value;
+    }
+
+    private Enum<?> readEnum(final TextStylePropertyName<?> name) {
+        final int ordinal = this.readVarInt();
+
+        final Optional<Class<Enum<?>>> enumType = name.handler.enumType();
+        if (!enumType.isPresent()) {
+            this.fail("Property " + name + " is not an enum");
+        }
+
+        final Enum<?>[] constants = enumType.get().getEnumConstants();
+        if (ordinal < 0 || ordinal >= constants.length) {
+            this.fail("Invalid " + name + " ordinal " + ordinal);
+        }
+        return constants[ordinal];
+    }
+
+    // primitives.......................................................................................................
+
+    /**
+     * Reads a string and creates a value such as a name from it, reporting a rejected string as a
+     * {@link TextNodeException} at the offset of the string.
+     */
+    private <T> T readString(final Function<String, T> factory,
+                             final String label) {
+        final int position = this.position;
+        final String string = this.readString();
+        try {
+            return factory.apply(string);
+        } catch (final RuntimeException cause) {
+            return this.fail("Invalid " + label + " " + CharSequences.quoteAndEscape(string), position, cause);
+        }
+    }
+
+    private String readString() {
+        final int index = this.readVarInt();
+        final String[] strings = this.strings;
+
+        if (index < 0 || index >= strings.length) {
+            this.fail("Invalid string " + index);
+        }
+        return strings[index];
+    }
+
+    private double readDouble() {
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits = (bits << 8) | (this.readByte() & 0xFF);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    /**
+     * Reads a count or length, which may not exceed the remaining bytes.
+     */
+    private int readCount() {
+        final int count = this.readVarInt();
+        if (count < 0 || count > this.end - this.position) {
+            this.fail("Invalid count " + count);
+        }
+        return count;
+    }
+
+    private int readVarInt() {
+        final long value = this.readVarLong();
+        if (value > 0xFFFFFFFFL) {
+            this.fail("Invalid varint");
+        }
+        return (int) value;
+    }
+
+    private long readVarLong() {
+        long value = 0;
+
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = this.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (0 == (b & 0x80)) {
+                return value;
+            }
+        }
+
+        return this.fail("Invalid varint");
+    }
+
+    private byte readByte() {
+        if (this.position >= this.end) {
+            this.fail("Unexpected end");
+        }
+        return this.bytes[this.position++];
+    }
+
+    private byte[] bytes;
+
+    private int start;
+
+    private int position;
+
+    private int end;
+
+    private String[] strings;
+
+    private final JsonNodeUnmarshallContext context;
+
+    // errors...........................................................................................................
+
+    private <T> T fail(final String message) {
+        throw new TextNodeException(message + " at " + (this.position - this.start));
+    }
+
+    private <T> T fail(final String message,
+                       final int position,
+                       final RuntimeException cause) {
+        throw new TextNodeException(message + " at " + (position - this.start), cause);
+    }
+
+    @Override
+    public String toString() {
+        return this.context.toString();
+    }
+}
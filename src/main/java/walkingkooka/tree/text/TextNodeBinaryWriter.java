@@ -0,0 +1,367 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+import walkingkooka.Cast;
+import walkingkooka.NeverError;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.tree.json.marshall.JsonNodeMarshallContext;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Writes {@link TextNode} and {@link TextStyle} in a compact versioned binary form, which may be read back using a
+ * {@link TextNodeBinaryReader}. Known properties are written as the varint ordinal of their {@link TextStylePropertyName},
+ * enums as their ordinal, lengths, sizes and weights as numbers and all other strings such as {@link Text} values,
+ * {@link FontFamily}, {@link TextStyleName} and {@link TextPlaceholderName} once in a string table. Values without a
+ * compact form, such as colors, are written as their json text in the string table.
+ * <br>
+ * As properties and enums are written as ordinals, the header includes a checksum of the property and enum constant
+ * names, and bytes written by a build with different properties or enums fail to read rather than decoding to the
+ * wrong values.
+ * <br>
+ * Instances hold the state of the document being written and are not thread safe.
+ */
+public final class TextNodeBinaryWriter {
+
+    /**
+     * Creates a new {@link TextNodeBinaryWriter} that uses the given {@link JsonNodeMarshallContext} for values
+     * without a compact form.
+     */
+    public static TextNodeBinaryWriter with(final JsonNodeMarshallContext context) {
+        Objects.requireNonNull(context, "context");
+
+        return new TextNodeBinaryWriter(context);
+    }
+
+    private TextNodeBinaryWriter(final JsonNodeMarshallContext context) {
+        super();
+        this.context = context;
+    }
+
+    /**
+     * Writes the given {@link TextNode} and all its descendants.
+     */
+    public byte[] write(final TextNode node) {
+        Objects.requireNonNull(node, "node");
+
+        this.reset();
+        this.writeNode(node);
+        return this.finish(KIND_NODE);
+    }
+
+    /**
+     * Writes the given {@link TextStyle}.
+     */
+    public byte[] write(final TextStyle textStyle) {
+        Objects.requireNonNull(textStyle, "textStyle");
+
+        this.reset();
+        this.writeStyles(textStyle.textStyleMap().entries);
+        return this.finish(KIND_STYLE);
+    }
+
+    // format...........................................................................................................
+
+    final static byte MAGIC0 = 'T';
+    final static byte MAGIC1 = 'N';
+
+    /**
+     * The version of the format, bumped for any incompatible change.
+     */
+    final static byte VERSION = 2;
+
+    final static byte KIND_NODE = 1;
+    final static byte KIND_STYLE = 2;
+
+    /**
+     * A checksum of the names of all {@link TextStylePropertyName} constants in ordinal order, each followed by the
+     * names of its enum constants if any, which is written in the header and verified by the reader.
+     */
+    final static int TABLES = tables();
+
+    private static int tables() {
+        int checksum = 0;
+
+        for (final TextStylePropertyName<?> name : TextStylePropertyName.ORDINALS) {
+            checksum = 31 * checksum + name.value().hashCode();
+
+            final Optional<Class<Enum<?>>> enumType = name.handler.enumType();
+            if (enumType.isPresent()) {
+                for (final Enum<?> constant : enumType.get().getEnumConstants()) {
+                    checksum = 31 * checksum + constant.name().hashCode();
+                }
+            }
+        }
+
+        return checksum;
+    }
+
+    final static int HEADER_LENGTH = 8;
+
+    final static byte NODE_TEXT = 0;
+    final static byte NODE_PLACEHOLDER = 1;
+    final static byte NODE_STYLE = 2;
+    final static byte NODE_STYLE_NAME = 3;
+
+    final static byte VALUE_ENUM = 0;
+    final static byte VALUE_NONE_LENGTH = 1;
+    final static byte VALUE_NORMAL_LENGTH = 2;
+    final static byte VALUE_PIXEL_LENGTH = 3;
+    final static byte VALUE_NUMBER_LENGTH = 4;
+    final static byte VALUE_FONT_FAMILY = 5;
+    final static byte VALUE_FONT_SIZE = 6;
+    final static byte VALUE_FONT_WEIGHT = 7;
+    final static byte VALUE_OPACITY = 8;
+    final static byte VALUE_TEXT_OVERFLOW_CLIP = 9;
+    final static byte VALUE_TEXT_OVERFLOW_ELLIPSIS = 10;
+    final static byte VALUE_TEXT_OVERFLOW_STRING = 11;
+    final static byte VALUE_STRING = 12;
+    final static byte VALUE_JSON = 13;
+
+    // nodes............................................................................................................
+
+    private void writeNode(final TextNode node) {
+        if (node instanceof Text) {
+            this.writeByte(NODE_TEXT);
+            this.writeString(((Text) node).value());
+        } else if (node instanceof TextPlaceholderNode) {
+            this.writeByte(NODE_PLACEHOLDER);
+            this.writeString(((TextPlaceholderNode) node).value().value());
+        } else if (node instanceof TextStyleNode) {
+            final TextStyleNode styleNode = (TextStyleNode) node;
+            this.writeByte(NODE_STYLE);
+            this.writeStyles(styleNode.attributes.entries);
+            this.writeChildren(styleNode.children);
+        } else if (node instanceof TextStyleNameNode) {
+            final TextStyleNameNode styleNameNode = (TextStyleNameNode) node;
+            this.writeByte(NODE_STYLE_NAME);
+            this.writeString(styleNameNode.styleName().value());
+            this.writeChildren(styleNameNode.children);
+        } else {
+            NeverError.unhandledCase(node);
+        }
+    }
+
+    private void writeChildren(final List<TextNode> children) {
+        this.writeVarInt(children.size());
+
+        for (final TextNode child : children) {
+            this.writeNode(child);
+        }
+    }
+
+    // styles...........................................................................................................
+
+    /**
+     * Writes the count and ordinal and value of each known property followed by the count, name and value of each unknown.
+     */
+    private void writeStyles(final TextNodeMapEntrySet entries) {
+        final Object[] values = entries.values;
+        final long[] present = entries.present;
+
+        this.writeVarInt(values.length);
+
+        int ordinal = 0;
+        for (final Object value : values) {
+            ordinal = TextNodeMapEntrySet.nextOrdinal(present, ordinal);
+            this.writeVarInt(ordinal);
+            this.writeValue(TextStylePropertyName.ORDINALS[ordinal], value);
+            ordinal++;
+        }
+
+        final List<Entry<TextStylePropertyName<?>, Object>> unknowns = entries.unknowns;
+        this.writeVarInt(unknowns.size());
+
+        for (final Entry<TextStylePropertyName<?>, Object> unknown : unknowns) {
+            final TextStylePropertyName<?> name = unknown.getKey();
+            this.writeString(name.value());
+            this.writeValue(name, unknown.getValue());
+        }
+    }
+
+    private void writeValue(final TextStylePropertyName<?> name,
+                            final Object value) {
+        if (value instanceof Enum && name.handler.enumType().isPresent()) {
+            this.writeByte(VALUE_ENUM);
+            this.writeVarInt(((Enum<?>) value).ordinal());
+        } else if (value instanceof Length) {
+            this.writeLength((Length<?>) value);
+        } else if (value instanceof FontFamily) {
+            this.writeByte(VALUE_FONT_FAMILY);
+            this.writeString(((FontFamily) value).value());
+        } else if (value instanceof FontSize) {
+            this.writeByte(VALUE_FONT_SIZE);
+            this.writeVarInt(((FontSize) value).value());
+        } else if (value instanceof FontWeight) {
+            this.writeByte(VALUE_FONT_WEIGHT);
+            this.writeVarInt(((FontWeight) value).value());
+        } else if (value instanceof Opacity) {
+            this.writeByte(VALUE_OPACITY);
+            this.writeDouble(((Opacity) value).value());
+        } else if (value instanceof TextOverflow) {
+            this.writeTextOverflow((TextOverflow) value);
+        } else if (value instanceof String) {
+            this.writeByte(VALUE_STRING);
+            this.writeString((String) value);
+        } else {
+            this.writeByte(VALUE_JSON);
+            this.writeString(name.handler.marshall(Cast.to(value), this.context).toString());
+        }
+    }
+
+    private void writeLength(final Length<?> length) {
+        if (length.isNone()) {
+            this.writeByte(VALUE_NONE_LENGTH);
+        } else if (length.isNormal()) {
+            this.writeByte(VALUE_NORMAL_LENGTH);
+        } else if (length.isPixel()) {
+            this.writeByte(VALUE_PIXEL_LENGTH);
+            this.writeDouble(((PixelLength) length).value());
+        } else {
+            this.writeByte(VALUE_NUMBER_LENGTH);
+            this.writeVarLong(((NumberLength) length).value());
+        }
+    }
+
+    private void writeTextOverflow(final TextOverflow textOverflow) {
+        if (TextOverflow.CLIP.equals(textOverflow)) {
+            this.writeByte(VALUE_TEXT_OVERFLOW_CLIP);
+        } else if (TextOverflow.ELLIPSIS.equals(textOverflow)) {
+            this.writeByte(VALUE_TEXT_OVERFLOW_ELLIPSIS);
+        } else {
+            this.writeByte(VALUE_TEXT_OVERFLOW_STRING);
+            this.writeString(textOverflow.value().get());
+        }
+    }
+
+    // primitives.......................................................................................................
+
+    /**
+     * Strings are written as their index in the string table.
+     */
+    private void writeString(final String string) {
+        final Map<String, Integer> strings = this.strings;
+
+        Integer index = strings.get(string);
+        if (null == index) {
+            index = strings.size();
+            strings.put(string, index);
+        }
+        this.writeVarInt(index);
+    }
+
+    private void writeDouble(final double value) {
+        final long bits = Double.doubleToLongBits(value);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            this.writeByte((byte) (bits >>> shift));
+        }
+    }
+
+    private void writeVarInt(final int value) {
+        this.writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    private void writeVarLong(final long value) {
+        long v = value;
+        while (0 != (v & ~0x7FL)) {
+            this.writeByte((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        this.writeByte((byte) v);
+    }
+
+    private void writeByte(final byte value) {
+        this.ensureCapacity(1);
+        this.bytes[this.length++] = value;
+    }
+
+    private void writeBytes(final byte[] bytes) {
+        this.ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, this.bytes, this.length, bytes.length);
+        this.length += bytes.length;
+    }
+
+    private void ensureCapacity(final int count) {
+        final int required = this.length + count;
+        if (required > this.bytes.length) {
+            this.bytes = Arrays.copyOf(this.bytes, Math.max(required, this.bytes.length * 2));
+        }
+    }
+
+    private void reset() {
+        this.length = 0;
+        this.strings.clear();
+    }
+
+    /**
+     * The string table is only complete after the body has been written, it is written after the body and then both
+     * are copied after the header with the table first so the reader may decode strings before the body.
+     */
+    private byte[] finish(final byte kind) {
+        final int bodyLength = this.length;
+
+        final Map<String, Integer> strings = this.strings;
+        this.writeVarInt(strings.size());
+        for (final String string : strings.keySet()) {
+            final byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+            this.writeVarInt(utf8.length);
+            this.writeBytes(utf8);
+        }
+
+        final int tableLength = this.length - bodyLength;
+        final byte[] bytes = this.bytes;
+        final byte[] result = new byte[HEADER_LENGTH + this.length];
+
+        result[0] = MAGIC0;
+        result[1] = MAGIC1;
+        result[2] = VERSION;
+        result[3] = kind;
+        result[4] = (byte) (TABLES >>> 24);
+        result[5] = (byte) (TABLES >>> 16);
+        result[6] = (byte) (TABLES >>> 8);
+        result[7] = (byte) TABLES;
+        System.arraycopy(bytes, bodyLength, result, HEADER_LENGTH, tableLength);
+        System.arraycopy(bytes, 0, result, HEADER_LENGTH + tableLength, bodyLength);
+
+        this.reset();
+        return result;
+    }
+
+    private byte[] bytes = new byte[256];
+
+    private int length;
+
+    /**
+     * Each unique string and its index in the string table, in insertion order.
+     */
+    private final Map<String, Integer> strings = Maps.ordered();
+
+    private final JsonNodeMarshallContext context;
+
+    @Override
+    public String toString() {
+        return this.context.toString();
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+import walkingkooka.collect.list.Lists;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Records many edits against nodes within a root {@link TextNode} and then produces a new root in a single bottom up
+ * rebuild, where each changed ancestor is created exactly once. Nodes must be found by navigating from the root
+ * given to {@link #with(TextNode)}, and edits are recorded against their index path, not the node instance.
+ * <pre>
+ * final TextNodeEditor editor = TextNodeEditor.with(root);
+ * for (final Text text : texts) {
+ *     editor.setText(text, text.text().toUpperCase());
+ * }
+ * final TextNode updated = editor.build();
+ * </pre>
+ * Once a node has been replaced or removed its descendants may not be edited.
+ */
+public final class TextNodeEditor {
+
+    /**
+     * Creates a new {@link TextNodeEditor} for the given root.
+     */
+    public static TextNodeEditor with(final TextNode root) {
+        Objects.requireNonNull(root, "root");
+
+        return new TextNodeEditor(root);
+    }
+
+    private TextNodeEditor(final TextNode root) {
+        super();
+        this.root = root;
+    }
+
+    /**
+     * Replaces the given node with another, the parent of the replacement is ignored.
+     */
+    public TextNodeEditor replace(final TextNode node,
+                                  final TextNode replacement) {
+        Objects.requireNonNull(replacement, "replacement");
+
+        this.edit(node).replace(replacement);
+        return this;
+    }
+
+    /**
+     * Replaces the node at the given child index path from the root, used when paths are already known such as by
+     * {@link TextNode#replacePlaceholders(Map)}.
+     */
+    TextNodeEditor replace(final int[] path,
+                           final TextNode replacement) {
+        TextNodeEditorEdit edit = this.edits;
+        for (final int index : path) {
+            edit = edit.child(index);
+        }
+        edit.replace(replacement);
+        return this;
+    }
+
+    /**
+     * Removes the given node from its parent, the root may not be removed.
+     */
+    public TextNodeEditor remove(final TextNode node) {
+        final TextNodeEditorEdit edit = this.edit(node);
+        if (edit == this.edits) {
+            throw new IllegalArgumentException("Root cannot be removed");
+        }
+        edit.remove();
+        return this;
+    }
+
+    /**
+     * Replaces the given {@link Text} with one holding the new text.
+     */
+    public TextNodeEditor setText(final Text text,
+                                  final String value) {
+        Objects.requireNonNull(value, "value");
+
+        return this.replace(text, Text.with(value));
+    }
+
+    /**
+     * Sets the attributes for the given node, following the same rules as {@link TextNode#setAttributes(Map)}, so
+     * nodes other than {@link TextStyleNode} are wrapped when the attributes are not empty.
+     */
+    public TextNodeEditor setAttributes(final TextNode node,
+                                        final Map<TextStylePropertyName<?>, Object> attributes) {
+        final TextNodeMap map = TextNodeMap.with(attributes);
+        final TextNodeEditorEdit edit = this.edit(node);
+
+        edit.replace(
+                node.isStyle() ?
+                        node.removeParent().setAttributes(map) :
+                        map.isEmpty() ?
+                                node :
+                                TextStyleNode.with(Lists.of(node), map)
+        );
+        return this;
+    }
+
+    /**
+     * Locates or creates the {@link TextNodeEditorEdit} for the given node, by following its index path from the root.
+     */
+    private TextNodeEditorEdit edit(final TextNode node) {
+        Objects.requireNonNull(node, "node");
+
+        final TextNode root = this.root;
+        final List<Integer> path = Lists.array();
+
+        TextNode ancestor = node;
+        while (root != ancestor) {
+            final Optional<TextNode> parent = ancestor.parent();
+            if (!parent.isPresent()) {
+                throw new IllegalArgumentException("Node not within root " + node);
+            }
+            path.add(ancestor.index());
+            ancestor = parent.get();
+        }
+
+        TextNodeEditorEdit edit = this.edits;
+        for (int i = path.size() - 1; i >= 0; i--) {
+            if (edit.isReplacedOrRemoved()) {
+                throw new IllegalStateException("Ancestor of " + node + " already replaced or removed");
+            }
+            edit = edit.child(path.get(i));
+        }
+
+        return edit;
+    }
+
+    /**
+     * Applies all recorded edits returning the new root, or the original root if nothing was recorded. If the
+     * original root had a parent, the equivalent node within the new parent is returned.
+     */
+    public TextNode build() {
+        final TextNode root = this.root;
+        final TextNodeEditorEdit edits = this.edits;
+
+        return edits.isEmpty() ?
+                root :
+                edits.apply(root.removeParent())
+                        .removeParent()
+                        .replaceChild(root.parent(), root.index());
+    }
+
+    /**
+     * The original root.
+     */
+    private final TextNode root;
+
+    /**
+     * Edits recorded for the root, including its descendants.
+     */
+    private final TextNodeEditorEdit edits = TextNodeEditorEdit.empty();
+
+    @Override
+    public String toString() {
+        return this.edits.toString();
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * The edits recorded by a {@link TextNodeEditor} for a single node, either a replacement, a removal or edits for some
+ * of its children keyed by their index.
+ */
+final class TextNodeEditorEdit {
+
+    static TextNodeEditorEdit empty() {
+        return new TextNodeEditorEdit();
+    }
+
+    private TextNodeEditorEdit() {
+        super();
+    }
+
+    /**
+     * Returns the edit for the child at the given index, creating it if necessary.
+     */
+    TextNodeEditorEdit child(final int index) {
+        Map<Integer, TextNodeEditorEdit> children = this.children;
+        if (null == children) {
+            children = Maps.sorted();
+            this.children = children;
+        }
+
+        TextNodeEditorEdit child = children.get(index);
+        if (null == child) {
+            child = empty();
+            children.put(index, child);
+        }
+        return child;
+    }
+
+    /**
+     * Replacing a node also discards any edits previously recorded for its children.
+     */
+    void replace(final TextNode replacement) {
+        this.replacement = replacement;
+        this.removed = false;
+        this.children = null;
+    }
+
+    void remove() {
+        this.replacement = null;
+        this.removed = true;
+        this.children = null;
+    }
+
+    boolean isReplacedOrRemoved() {
+        return null != this.replacement || this.removed;
+    }
+
+    boolean isEmpty() {
+        return !this.isReplacedOrRemoved() && null == this.children;
+    }
+
+    /**
+     * Applies this edit to the given node which has no parent, returning a node without a parent. Only nodes with
+     * changed descendants are recreated, and each exactly once.
+     */
+    TextNode apply(final TextNode node) {
+        final TextNode replacement = this.replacement;
+
+        return null != replacement ?
+                replacement :
+                null == this.children ?
+                        node :
+                        this.applyChildren((TextParentNode) node);
+    }
+
+    private TextNode applyChildren(final TextParentNode parent) {
+        final List<TextNode> children = parent.children;
+        final Map<Integer, TextNodeEditorEdit> edits = this.children;
+        final List<TextNode> newChildren = Lists.array();
+
+        final int count = children.size();
+        for (int i = 0; i < count; i++) {
+            final TextNode child = children.get(i);
+            final TextNodeEditorEdit edit = edits.get(i);
+
+            if (null == edit) {
+                newChildren.add(child);
+            } else {
+                if (!edit.removed) {
+                    newChildren.add(edit.apply(child));
+                }
+            }
+        }
+
+        return parent.replace0(TextNode.NO_INDEX, newChildren);
+    }
+
+    /**
+     * A replacement node or null.
+     */
+    private TextNode replacement;
+
+    private boolean removed;
+
+    /**
+     * Edits for children by index, null if none.
+     */
+    private Map<Integer, TextNodeEditorEdit> children;
+
+    @Override
+    public String toString() {
+        final StringBuilder b = new StringBuilder();
+
+        if (this.removed) {
+            b.append("remove");
+        } else {
+            if (null != this.replacement) {
+                b.append("replace ").append(this.replacement);
+            } else {
+                final Map<Integer, TextNodeEditorEdit> children = this.children;
+                if (null != children) {
+                    b.append('{');
+                    String separator = "";
+                    for (final Entry<Integer, TextNodeEditorEdit> indexAndEdit : children.entrySet()) {
+                        b.append(separator)
+                                .append(indexAndEdit.getKey())
+                                .append('=')
+                                .append(indexAndEdit.getValue());
+                        separator = ", ";
+                    }
+                    b.append('}');
+                }
+            }
+        }
+
+        return b.toString();
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.text;
+
+import walkingkooka.collect.map.Maps;
+import walkingkooka.text.CharSequences;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+
+/**
+ * Assigns generated css class names to the styles written by a {@link TextNodeHtmlWriter}, so spans refer to a class
+ * rather than repeating inline css, and then writes a single stylesheet with a rule for each class.
+ * <br>
+ * Classes are assigned the first time a style is written, so the same instance may be shared by the writers of a
+ * batch of trees, with the stylesheet written after all of them. Equal styles share one class. In atomic mode each
+ * distinct property and value is its own class, and a span lists the classes of all its properties, which produces
+ * fewer and smaller rules when many styles differ in only a few properties.
+ * <br>
+ * All methods are thread safe.
+ */
+public final class TextNodeHtmlStyleClasses {
+
+    /**
+     * Creates a {@link TextNodeHtmlStyleClasses} that assigns one class to each distinct style, named with the given
+     * prefix followed by a number.
+     */
+    public static TextNodeHtmlStyleClasses with(final String prefix) {
+        return new TextNodeHtmlStyleClasses(checkPrefix(prefix), false);
+    }
+
+    /**
+     * Creates a {@link TextNodeHtmlStyleClasses} that assigns one class to each distinct property and value, named with
+     * the given prefix followed by a number.
+     */
+    public static TextNodeHtmlStyleClasses atomic(final String prefix) {
+        return new TextNodeHtmlStyleClasses(checkPrefix(prefix), true);
+    }
+
+    /**
+     * The prefix must be a css identifier so generated names never need escaping.
+     */
+    private static String checkPrefix(final String prefix) {
+        Objects.requireNonNull(prefix, "prefix");
+
+        final int length = prefix.length();
+        if (0 == length) {
+            throw new IllegalArgumentException("Empty prefix");
+        }
+
+        for (int i = 0; i < length; i++) {
+            final char c = prefix.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || '_' == c || '-' == c || i > 0 && c >= '0' && c <= '9')) {
+                throw new IllegalArgumentException("Invalid character " + CharSequences.quoteIfChars(c) + " at " + i + " in prefix " + CharSequences.quoteAndEscape(prefix));
+            }
+        }
+
+        return prefix;
+    }
+
+    private TextNodeHtmlStyleClasses(final String prefix,
+                                     final boolean atomic) {
+        super();
+        this.prefix = prefix;
+        this.atomic = atomic;
+    }
+
+    /**
+     * Returns the value of the class attribute for the given non empty properties, assigning new classes as required.
+     */
+    synchronized String classes(final TextNodeMap properties) {
+        String classes = this.styleToClasses.get(properties);
+
+        if (null == classes) {
+            if (this.atomic) {
+                final StringBuilder b = new StringBuilder();
+                String separator = "";
+
+                for (final Entry<TextStylePropertyName<?>, Object> nameAndValue : properties.entrySet()) {
+                    b.append(separator)
+                            .append(this.className(TextStyleCss.declaration(nameAndValue.getKey(), nameAndValue.getValue())));
+                    separator = " ";
+                }
+                classes = b.toString();
+            } else {
+                classes = this.className(properties.css());
+            }
+
+            this.styleToClasses.put(properties, classes);
+        }
+
+        return classes;
+    }
+
+    /**
+     * Returns the class for the given css declarations, assigning the next class name the first time.
+     */
+    private String className(final String declarations) {
+        String className = this.declarationsToClass.get(declarations);
+        if (null == className) {
+            className = this.prefix + this.declarationsToClass.size();
+            this.declarationsToClass.put(declarations, className);
+        }
+        return className;
+    }
+
+    /**
+     * Writes a stylesheet with a rule for every class assigned so far, in the order they were assigned. Any
+     * <code>&lt;</code> within values is escaped so the stylesheet cannot end the surrounding style element.
+     */
+    public synchronized void writeStyleSheet(final Appendable output) throws IOException {
+        Objects.requireNonNull(output, "output");
+
+        output.append("<style>\n");
+
+        for (final Entry<String, String> declarationsAndClass : this.declarationsToClass.entrySet()) {
+            output.append('.')
+                    .append(declarationsAndClass.getValue())
+                    .append(" {");
+
+            final String declarations = declarationsAndClass.getKey();
+            final int length = declarations.length();
+            int start = 0;
+            for (int i = 0; i < length; i++) {
+                if ('<' == declarations.charAt(i)) {
+                    output.append(declarations, start, i)
+                            .append("\\3c ");
+                    start = i + 1;
+                }
+            }
+            output.append(declarations, start, length)
+                    .append("}\n");
+        }
+
+        output.append("</style>");
+    }
+
+    /**
+     * The number of classes assigned so far.
+     */
+    public synchronized int size() {
+        return this.declarationsToClass.size();
+    }
+
+    private final String prefix;
+
+    private final boolean atomic;
+
+    /**
+     * The class attribute value for each distinct style already written.
+     */
+    private final Map<TextNodeMap, String> styleToClasses = Maps.hash();
+
+    /**
+     * The class for each distinct declarations, in the order they were assigned.
+     */
+    private final Map<String, String> declarationsToClass = Maps.ordered();
+
+    @Override
+    public synchronized String toString() {
+        return (this.atomic ? "atomic " : "") + this.prefix + " " + this.declarationsToClass.size();
+    }
+}
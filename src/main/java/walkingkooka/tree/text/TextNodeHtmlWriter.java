@@ -0,0 +1,225 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.text;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Writes {@link TextNode} as html directly to an {@link Appendable} such as a {@link java.io.Writer} or
+ * {@link StringBuilder} in a single pass, without building any intermediate text for each node.
+ * <ul>
+ * <li>{@link Text} is written with <code>&amp;</code>, <code>&lt;</code> and <code>&gt;</code> escaped</li>
+ * <li>{@link TextStyleNode} with a non empty style is written as a span with an inline css style</li>
+ * <li>{@link TextPlaceholderNode} is written as the {@link TextNode} returned by the placeholder hook, or nothing</li>
+ * <li>{@link TextStyleNameNode} is written as a span with the inline css of the {@link TextStyle} returned by the style
+ * name hook, or a span with the name as its class</li>
+ * </ul>
+ * The css of each style is built once and cached with its properties, so a style shared by many nodes is only
+ * converted once. A {@link TextStyleSheet} may be used as the style name hook via <code>TextStyleSheet::style</code>.
+ * <br>
+ * With {@link TextNodeHtmlStyleClasses} spans refer to a generated class instead of inline css, and the classes
+ * write a single stylesheet once all nodes have been written.
+ */
+public final class TextNodeHtmlWriter {
+
+    /**
+     * Creates a new {@link TextNodeHtmlWriter} with the given placeholder and style name hooks.
+     */
+    public static TextNodeHtmlWriter with(final Function<TextPlaceholderName, Optional<TextNode>> placeholders,
+                                          final Function<TextStyleName, Optional<TextStyle>> styleNames) {
+        Objects.requireNonNull(placeholders, "placeholders");
+        Objects.requireNonNull(styleNames, "styleNames");
+
+        return new TextNodeHtmlWriter(placeholders, styleNames, NO_STYLE_CLASSES);
+    }
+
+    private final static Optional<TextNodeHtmlStyleClasses> NO_STYLE_CLASSES = Optional.empty();
+
+    private TextNodeHtmlWriter(final Function<TextPlaceholderName, Optional<TextNode>> placeholders,
+                               final Function<TextStyleName, Optional<TextStyle>> styleNames,
+                               final Optional<TextNodeHtmlStyleClasses> styleClasses) {
+        super();
+        this.placeholders = placeholders;
+        this.styleNames = styleNames;
+        this.styleClasses = styleClasses;
+    }
+
+    /**
+     * Returns the {@link TextNodeHtmlStyleClasses} used instead of inline css, if any.
+     */
+    public Optional<TextNodeHtmlStyleClasses> styleClasses() {
+        return this.styleClasses;
+    }
+
+    /**
+     * Would be setter that returns a {@link TextNodeHtmlWriter} that writes styles as classes, or inline css when empty.
+     */
+    public TextNodeHtmlWriter setStyleClasses(final Optional<TextNodeHtmlStyleClasses> styleClasses) {
+        Objects.requireNonNull(styleClasses, "styleClasses");
+
+        return this.styleClasses.equals(styleClasses) ?
+                this :
+                new TextNodeHtmlWriter(this.placeholders, this.styleNames, styleClasses);
+    }
+
+    private final Optional<TextNodeHtmlStyleClasses> styleClasses;
+
+    /**
+     * Writes the given {@link TextNode} as html.
+     */
+    public void write(final TextNode node,
+                      final Appendable output) throws IOException {
+        Objects.requireNonNull(node, "node");
+        Objects.requireNonNull(output, "output");
+
+        this.writeNode(node, output);
+    }
+
+    private void writeNode(final TextNode node,
+                           final Appendable output) throws IOException {
+        if (node instanceof Text) {
+            writeEscaped(node.text(), output);
+        } else if (node instanceof TextStyleNode) {
+            final TextStyleNode styleNode = (TextStyleNode) node;
+            this.writeStyled(styleNode.attributes, styleNode.children, output);
+        } else if (node instanceof TextStyleNameNode) {
+            this.writeStyleNameNode((TextStyleNameNode) node, output);
+        } else {
+            this.writePlaceholderNode((TextPlaceholderNode) node, output);
+        }
+    }
+
+    private void writeStyleNameNode(final TextStyleNameNode node,
+                                    final Appendable output) throws IOException {
+        final TextStyleName name = node.styleName();
+        final Optional<TextStyle> style = this.styleNames.apply(name);
+
+        if (style.isPresent()) {
+            this.writeStyled(style.get().textStyleMap(), node.children, output);
+        } else {
+            output.append("<span class=\"");
+            writeEscaped(name.value(), output);
+            output.append("\">");
+            this.writeChildren(node.children, output);
+            output.append(SPAN_CLOSE);
+        }
+    }
+
+    private void writePlaceholderNode(final TextPlaceholderNode node,
+                                      final Appendable output) throws IOException {
+        final Optional<TextNode> value = this.placeholders.apply(node.value());
+        if (value.isPresent()) {
+            this.writeNode(value.get(), output);
+        }
+    }
+
+    /**
+     * Writes the children inside a span with the css or classes of the given properties, or only the children if
+     * there are none.
+     */
+    private void writeStyled(final TextNodeMap properties,
+                             final List<TextNode> children,
+                             final Appendable output) throws IOException {
+        if (properties.isEmpty()) {
+            this.writeChildren(children, output);
+        } else {
+            final Optional<TextNodeHtmlStyleClasses> styleClasses = this.styleClasses;
+            if (styleClasses.isPresent()) {
+                output.append("<span class=\"")
+                        .append(styleClasses.get().classes(properties));
+            } else {
+                output.append("<span style=\"");
+                writeEscaped(properties.css(), output);
+            }
+            output.append("\">");
+            this.writeChildren(children, output);
+            output.append(SPAN_CLOSE);
+        }
+    }
+
+    private void writeChildren(final List<TextNode> children,
+                               final Appendable output) throws IOException {
+        for (final TextNode child : children) {
+            this.writeNode(child, output);
+        }
+    }
+
+    private final static String SPAN_CLOSE = "</span>";
+
+    /**
+     * Writes the text escaping characters that are special in html text and attribute values, appending runs of
+     * other characters without copying them.
+     */
+    private static void writeEscaped(final CharSequence text,
+                                     final Appendable output) throws IOException {
+        final int length = text.length();
+        int start = 0;
+
+        for (int i = 0; i < length; i++) {
+            final String entity;
+
+            switch (text.charAt(i)) {
+                case '&':
+                    entity = "&amp;";
+                    break;
+                case '<':
+                    entity = "&lt;";
+                    break;
+                case '>':
+                    entity = "&gt;";
+                    break;
+                case '"':
+                    entity = "&quot;";
+                    break;
+                default:
+                    entity = null;
+                    break;
+            }
+
+            if (null != entity) {
+                output.append(text, start, i)
+                        .append(entity);
+                start = i + 1;
+            }
+        }
+
+        output.append(text, start, length);
+    }
+
+    private final Function<TextPlaceholderName, Optional<TextNode>> placeholders;
+
+    private final Function<TextStyleName, Optional<TextStyle>> styleNames;
+
+    @Override
+    public String toString() {
+        final StringBuilder b = new StringBuilder();
+        b.append(this.placeholders)
+                .append(' ')
+                .append(this.styleNames);
+
+        final Optional<TextNodeHtmlStyleClasses> styleClasses = this.styleClasses;
+        if (styleClasses.isPresent()) {
+            b.append(' ')
+                    .append(styleClasses.get());
+        }
+        return b.toString();
+    }
+}
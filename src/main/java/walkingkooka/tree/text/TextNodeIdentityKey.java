@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+/**
+ * The key within a {@link TextNodeJsonCache} or {@link TextStyleSheet} comparing a {@link TextParentNode} by identity.
+ */
+final class TextNodeIdentityKey {
+
+    static TextNodeIdentityKey with(final TextParentNode node) {
+        final TextNodeIdentityKey key = new TextNodeIdentityKey();
+        key.set(node);
+        return key;
+    }
+
+    private TextNodeIdentityKey() {
+        super();
+    }
+
+    /**
+     * Only the probe key within each cache is ever updated after creation.
+     */
+    void set(final TextParentNode node) {
+        this.node = node;
+        this.hashCode = System.identityHashCode(node);
+    }
+
+    private TextParentNode node;
+
+    private int hashCode;
+
+    @Override
+    public int hashCode() {
+        return this.hashCode;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other ||
+                other instanceof TextNodeIdentityKey &&
+                        this.node == ((TextNodeIdentityKey) other).node;
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(this.node);
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+import walkingkooka.NeverError;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.tree.json.JsonArray;
+import walkingkooka.tree.json.JsonNode;
+import walkingkooka.tree.json.JsonObject;
+import walkingkooka.tree.json.JsonPropertyName;
+import walkingkooka.tree.json.JsonString;
+import walkingkooka.tree.json.marshall.JsonNodeMarshallContext;
+import walkingkooka.tree.json.marshall.JsonNodeUnmarshallContext;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Helpers shared by the json forms such as {@link TextNodeJsonStyleDictionary}, {@link TextNodeJsonStyleDelta},
+ * {@link TextNodeJsonCache} and {@link TextNodeJsonReader} that write {@link TextParentNode} within the same type and
+ * value object as {@link JsonNodeMarshallContext#marshallWithType(Object)}, while each form marshalls styles its own way.
+ */
+final class TextNodeJson {
+
+    // marshall.........................................................................................................
+
+    /**
+     * Wraps the value in an object with its type, the same as {@link JsonNodeMarshallContext#marshallWithType(Object)}.
+     */
+    static JsonObject withType(final JsonString type,
+                               final JsonNode value) {
+        return JsonNode.object()
+                .set(TYPE_PROPERTY, type)
+                .set(VALUE_PROPERTY, value);
+    }
+
+    /**
+     * Marshalls the {@link TextStyleNameNode} with each child marshalled by the given {@link Function}.
+     */
+    static JsonObject marshallStyleNameNode(final TextStyleNameNode node,
+                                            final Function<TextNode, JsonNode> child,
+                                            final JsonNodeMarshallContext context) {
+        return withType(STYLE_NAME_TYPE,
+                marshallChildren(
+                        JsonNode.object()
+                                .set(STYLE_NAME_PROPERTY, context.marshall(node.styleName())),
+                        node.children,
+                        child
+                )
+        );
+    }
+
+    /**
+     * Adds the children property to the given value if any children are present.
+     */
+    static JsonObject marshallChildren(final JsonObject value,
+                                       final List<TextNode> children,
+                                       final Function<TextNode, JsonNode> child) {
+        JsonObject json = value;
+
+        if (!children.isEmpty()) {
+            JsonArray array = JsonNode.array();
+            for (final TextNode node : children) {
+                array = array.appendChild(child.apply(node));
+            }
+            json = json.set(TextParentNode.CHILDREN_PROPERTY, array);
+        }
+
+        return json;
+    }
+
+    // unmarshall.......................................................................................................
+
+    /**
+     * Reads the type and value of the given object, passing the value of a {@link TextStyleNode} or
+     * {@link TextStyleNameNode} to the matching {@link Function}, while all other nodes are unmarshalled by
+     * {@link JsonNodeUnmarshallContext#unmarshallWithType(JsonNode)}.
+     */
+    static TextNode unmarshallNode(final JsonNode json,
+                                   final Function<JsonNode, TextNode> style,
+                                   final Function<JsonNode, TextNode> styleName,
+                                   final JsonNodeUnmarshallContext context) {
+        String type = null;
+        JsonNode value = null;
+
+        for (final JsonNode child : json.objectOrFail().children()) {
+            switch (child.name().value()) {
+                case TYPE:
+                    type = child.stringOrFail();
+                    break;
+                case VALUE:
+                    value = child;
+                    break;
+                default:
+                    NeverError.unhandledCase(child, TYPE_PROPERTY, VALUE_PROPERTY);
+            }
+        }
+
+        if (null == type) {
+            JsonNodeUnmarshallContext.requiredPropertyMissing(TYPE_PROPERTY, json);
+        }
+        if (null == value) {
+            JsonNodeUnmarshallContext.requiredPropertyMissing(VALUE_PROPERTY, json);
+        }
+
+        final TextNode node;
+        switch (type) {
+            case TextNode.STYLE_JSON_TYPE:
+                node = style.apply(value);
+                break;
+            case TextNode.STYLE_NAME_JSON_TYPE:
+                node = styleName.apply(value);
+                break;
+            default:
+                node = context.unmarshallWithType(json);
+                break;
+        }
+
+        return node;
+    }
+
+    /**
+     * Unmarshalls the value of a {@link TextStyleNameNode} with each child unmarshalled by the given {@link Function}.
+     */
+    static TextNode unmarshallStyleNameNode(final JsonNode json,
+                                            final Function<JsonNode, TextNode> child,
+                                            final JsonNodeUnmarshallContext context) {
+        TextStyleName styleName = null;
+        List<TextNode> children = TextNode.NO_CHILDREN;
+
+        for (final JsonNode property : json.objectOrFail().children()) {
+            switch (property.name().value()) {
+                case TextStyleNameNode.STYLE_NAME:
+                    styleName = context.unmarshall(property, TextStyleName.class);
+                    break;
+                case TextParentNode.CHILDREN:
+                    children = unmarshallChildren(property, child);
+                    break;
+                default:
+                    NeverError.unhandledCase(property, STYLE_NAME_PROPERTY, TextParentNode.CHILDREN_PROPERTY);
+            }
+        }
+
+        if (null == styleName) {
+            JsonNodeUnmarshallContext.requiredPropertyMissing(STYLE_NAME_PROPERTY, json);
+        }
+
+        return TextNode.styleName(styleName)
+                .setChildren(children);
+    }
+
+    /**
+     * Unmarshalls each child with the given {@link Function}, a missing children property gives no children.
+     */
+    static List<TextNode> unmarshallChildren(final JsonNode json,
+                                             final Function<JsonNode, TextNode> child) {
+        final List<TextNode> children;
+
+        if (null == json) {
+            children = TextNode.NO_CHILDREN;
+        } else {
+            children = Lists.array();
+
+            for (final JsonNode node : json.children()) {
+                children.add(child.apply(node));
+            }
+        }
+
+        return children;
+    }
+
+    // properties.......................................................................................................
+
+    final static String TYPE = "type";
+    final static JsonPropertyName TYPE_PROPERTY = JsonPropertyName.with(TYPE);
+
+    final static String VALUE = "value";
+    final static JsonPropertyName VALUE_PROPERTY = JsonPropertyName.with(VALUE);
+
+    final static JsonPropertyName STYLES_PROPERTY = JsonPropertyName.with(TextStyleNode.STYLES);
+
+    final static JsonPropertyName STYLE_NAME_PROPERTY = JsonPropertyName.with(TextStyleNameNode.STYLE_NAME);
+
+    final static JsonString STYLE_TYPE = JsonNode.string(TextNode.STYLE_JSON_TYPE);
+
+    final static JsonString STYLE_NAME_TYPE = JsonNode.string(TextNode.STYLE_NAME_JSON_TYPE);
+
+    /**
+     * Private ctor
+     */
+    private TextNodeJson() {
+        super();
+    }
+}
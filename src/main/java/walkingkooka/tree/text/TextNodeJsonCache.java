@@ -0,0 +1,205 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+import walkingkooka.tree.json.JsonNode;
+import walkingkooka.tree.json.JsonObject;
+import walkingkooka.tree.json.marshall.JsonNodeMarshallContext;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * An opt in bounded least recently used cache of the marshalled json of {@link TextStyle} and {@link TextParentNode}
+ * subtrees, bound to a single {@link JsonNodeMarshallContext}. Both are immutable so their json never changes.
+ * <br>
+ * Styles are keyed on their properties, so equal styles share a single entry, while parent nodes are keyed on their
+ * identity. A parent that misses is assembled from the cached json of its children and styles, so a document that
+ * changed in one place only marshalls the path to that change again. Leaf nodes are never cached as marshalling them
+ * is cheap.
+ * <br>
+ * Memory is bounded by the maximum number of entries and {@link #clear()}, as soft and weak references are not
+ * available in all environments. All methods are thread safe, marshalling itself happens outside the lock.
+ */
+public final class TextNodeJsonCache {
+
+    /**
+     * Creates a new {@link TextNodeJsonCache} that holds at most the given number of json values marshalled with the
+     * given {@link JsonNodeMarshallContext}.
+     */
+    public static TextNodeJsonCache with(final JsonNodeMarshallContext context,
+                                         final int maxSize) {
+        Objects.requireNonNull(context, "context");
+
+        return new TextNodeJsonCache(context, TextLruCache.with(maxSize));
+    }
+
+    private TextNodeJsonCache(final JsonNodeMarshallContext context,
+                              final TextLruCache<Object, JsonNode> cache) {
+        super();
+        this.context = context;
+        this.cache = cache;
+    }
+
+    /**
+     * Returns true if json marshalled by the given {@link JsonNodeMarshallContext} may be answered by this cache,
+     * which is only true for the same context this cache was created with.
+     */
+    public boolean isCompatible(final JsonNodeMarshallContext context) {
+        return this.context == context;
+    }
+
+    /**
+     * Returns the json of the given {@link TextStyle}, equivalent to {@link JsonNodeMarshallContext#marshall(Object)}.
+     */
+    public JsonNode marshall(final TextStyle textStyle) {
+        Objects.requireNonNull(textStyle, "textStyle");
+
+        return this.marshallStyles(textStyle.textStyleMap());
+    }
+
+    /**
+     * Returns the json of the given {@link TextNode}, equivalent to {@link JsonNodeMarshallContext#marshallWithType(Object)}.
+     */
+    public JsonNode marshallWithType(final TextNode node) {
+        Objects.requireNonNull(node, "node");
+
+        return this.marshallNode(node);
+    }
+
+    private JsonNode marshallStyles(final TextNodeMap styles) {
+        JsonNode json;
+
+        if (styles.isEmpty()) {
+            json = styles.toJson(this.context);
+        } else {
+            json = this.get(styles);
+            if (null == json) {
+                json = styles.toJson(this.context);
+                this.put(styles, json);
+            }
+        }
+
+        return json;
+    }
+
+    private JsonNode marshallNode(final TextNode node) {
+        JsonNode json;
+
+        if (node instanceof TextParentNode) {
+            final TextParentNode parent = (TextParentNode) node;
+
+            json = this.get(parent);
+            if (null == json) {
+                json = this.marshallParent(parent);
+                this.put(TextNodeIdentityKey.with(parent), json);
+            }
+        } else {
+            json = this.context.marshallWithType(node);
+        }
+
+        return json;
+    }
+
+    private JsonNode marshallParent(final TextParentNode node) {
+        final Function<TextNode, JsonNode> child = this::marshallNode;
+
+        final JsonNode json;
+        if (node instanceof TextStyleNode) {
+            JsonObject value = JsonNode.object();
+
+            final TextNodeMap attributes = ((TextStyleNode) node).attributes;
+            if (!attributes.isEmpty()) {
+                value = value.set(TextNodeJson.STYLES_PROPERTY, this.marshallStyles(attributes));
+            }
+
+            json = TextNodeJson.withType(TextNodeJson.STYLE_TYPE,
+                    TextNodeJson.marshallChildren(value, node.children, child));
+        } else {
+            json = TextNodeJson.marshallStyleNameNode((TextStyleNameNode) node, child, this.context);
+        }
+
+        return json;
+    }
+
+    private final JsonNodeMarshallContext context;
+
+    // cache............................................................................................................
+
+    private JsonNode get(final TextNodeMap styles) {
+        return this.cache.get(styles);
+    }
+
+    private synchronized JsonNode get(final TextParentNode node) {
+        final TextNodeIdentityKey probe = this.probe;
+        probe.set(node);
+
+        final JsonNode json = this.cache.get(probe);
+        probe.set(null);
+
+        return json;
+    }
+
+    private void put(final Object key,
+                     final JsonNode json) {
+        this.cache.put(key, json);
+    }
+
+    /**
+     * The number of json values answered from the cache.
+     */
+    public long hits() {
+        return this.cache.hits();
+    }
+
+    /**
+     * The number of json values that were marshalled and added to the cache.
+     */
+    public long misses() {
+        return this.cache.misses();
+    }
+
+    /**
+     * The number of cached json values.
+     */
+    public int size() {
+        return this.cache.size();
+    }
+
+    /**
+     * Removes all cached json and resets the hit and miss counters.
+     */
+    public void clear() {
+        this.cache.clear();
+    }
+
+    /**
+     * Holds both {@link TextNodeMap} and {@link TextNodeIdentityKey} keys.
+     */
+    private final TextLruCache<Object, JsonNode> cache;
+
+    /**
+     * A key reused for lookups so hits do not allocate, only used while holding the lock.
+     */
+    private final TextNodeIdentityKey probe = TextNodeIdentityKey.with(null);
+
+    @Override
+    public String toString() {
+        return this.cache.toString();
+    }
+}
@@ -0,0 +1,546 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.text.CharSequences;
+import walkingkooka.tree.json.JsonNode;
+import walkingkooka.tree.json.marshall.JsonNodeUnmarshallContext;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A pull parser that reads the json text written by {@link TextNodeJsonWriter} or the {@link JsonNode} marshallers
+ * and builds {@link TextNode} and {@link TextStyle} directly, without first building a {@link JsonNode} tree for the
+ * whole document. Only individual style property values are parsed into tiny {@link JsonNode} so they may be given
+ * to their {@link TextStylePropertyValueHandler}.
+ * <br>
+ * Malformed json or unknown type names fail with a {@link TextNodeException} including the offending offset.
+ * Instances hold the state of a single parse and are not thread safe.
+ */
+public final class TextNodeJsonReader {
+
+    /**
+     * Creates a new {@link TextNodeJsonReader} reading the given json text.
+     */
+    public static TextNodeJsonReader with(final Reader reader,
+                                          final JsonNodeUnmarshallContext context) {
+        Objects.requireNonNull(reader, "reader");
+        Objects.requireNonNull(context, "context");
+
+        return new TextNodeJsonReader(reader, 0, context);
+    }
+
+    /**
+     * Creates a new {@link TextNodeJsonReader} reading the given json text.
+     */
+    public static TextNodeJsonReader with(final CharSequence json,
+                                          final JsonNodeUnmarshallContext context) {
+        Objects.requireNonNull(json, "json");
+
+        return with(new StringReader(json.toString()), context);
+    }
+
+    private TextNodeJsonReader(final Reader reader,
+                               final int offset,
+                               final JsonNodeUnmarshallContext context) {
+        super();
+        this.reader = reader;
+        this.offset = offset;
+        this.context = context;
+    }
+
+    /**
+     * Reads a {@link TextNode} that was written with its type, the equivalent of
+     * {@link JsonNodeUnmarshallContext#unmarshallWithType(JsonNode)}.
+     */
+    public TextNode readWithType() throws IOException {
+        final TextNode node = this.nodeWithType();
+        this.end();
+        return node;
+    }
+
+    /**
+     * Reads a {@link TextStyle} written as a json object.
+     */
+    public TextStyle readTextStyle() throws IOException {
+        final TextStyle textStyle = TextStyle.withTextStyleMap(TextNodeMap.with1(this.styles()));
+        this.end();
+        return textStyle;
+    }
+
+    // nodes............................................................................................................
+
+    /**
+     * Reads an object with a type and value, the type is expected first, but if the value appears first it is
+     * captured as text and read once the type is known, starting at the offset of the value so errors report the
+     * position within the original text.
+     */
+    private TextNode nodeWithType() throws IOException {
+        this.expect('{');
+
+        String type = null;
+        String valueText = null;
+        int valueOffset = 0;
+        TextNode node = null;
+
+        boolean more = !this.tryConsume('}');
+        while (more) {
+            final String property = this.propertyName();
+
+            switch (property) {
+                case TextNodeJson.TYPE:
+                    type = this.string();
+                    break;
+                case TextNodeJson.VALUE:
+                    if (null == type) {
+                        final StringBuilder capture = new StringBuilder();
+                        this.skipWhitespaceAndPeek();
+                        valueOffset = this.offset;
+                        this.skipValue(capture);
+                        valueText = capture.toString();
+                    } else {
+                        node = this.node(type);
+                    }
+                    break;
+                default:
+                    this.fail("Unknown property " + CharSequences.quoteAndEscape(property));
+            }
+
+            more = this.nextProperty();
+        }
+
+        if (null == type) {
+            this.fail("Missing " + CharSequences.quoteAndEscape(TextNodeJson.TYPE));
+        }
+        if (null != valueText) {
+            node = new TextNodeJsonReader(new StringReader(valueText), valueOffset, this.context)
+                    .node(type);
+        }
+        if (null == node) {
+            this.fail("Missing " + CharSequences.quoteAndEscape(TextNodeJson.VALUE));
+        }
+        return node;
+    }
+
+    private TextNode node(final String type) throws IOException {
+        final TextNode node;
+
+        switch (type) {
+            case TextNode.TEXT_JSON_TYPE:
+                node = Text.with(this.string());
+                break;
+            case TextNode.PLACEHOLDER_JSON_TYPE:
+                node = TextNode.placeholder(TextPlaceholderName.with(this.string()));
+                break;
+            case TextNode.STYLE_JSON_TYPE:
+                node = this.styleNode();
+                break;
+            case TextNode.STYLE_NAME_JSON_TYPE:
+                node = this.styleNameNode();
+                break;
+            default:
+                node = this.fail("Unknown type " + CharSequences.quoteAndEscape(type));
+                break;
+        }
+
+        return node;
+    }
+
+    private TextNode styleNode() throws IOException {
+        this.expect('{');
+
+        TextNodeMapEntrySet styles = TextNodeMapEntrySet.EMPTY;
+        List<TextNode> children = TextNode.NO_CHILDREN;
+
+        boolean more = !this.tryConsume('}');
+        while (more) {
+            final String property = this.propertyName();
+
+            switch (property) {
+                case TextStyleNode.STYLES:
+                    styles = this.styles();
+                    break;
+                case TextParentNode.CHILDREN:
+                    children = this.children();
+                    break;
+                default:
+                    this.fail("Unknown property " + CharSequences.quoteAndEscape(property));
+            }
+
+            more = this.nextProperty();
+        }
+
+        return TextStyle.withTextStyleMap(TextNodeMap.with1(styles))
+                .setChildren(children);
+    }
+
+    private TextNode styleNameNode() throws IOException {
+        this.expect('{');
+
+        TextStyleName styleName = null;
+        List<TextNode> children = TextNode.NO_CHILDREN;
+
+        boolean more = !this.tryConsume('}');
+        while (more) {
+            final String property = this.propertyName();
+
+            switch (property) {
+                case TextStyleNameNode.STYLE_NAME:
+                    styleName = TextStyleName.with(this.string());
+                    break;
+                case TextParentNode.CHILDREN:
+                    children = this.children();
+                    break;
+                default:
+                    this.fail("Unknown property " + CharSequences.quoteAndEscape(property));
+            }
+
+            more = this.nextProperty();
+        }
+
+        if (null == styleName) {
+            this.fail("Missing " + CharSequences.quoteAndEscape(TextStyleNameNode.STYLE_NAME));
+        }
+
+        return TextNode.styleName(styleName)
+                .setChildren(children);
+    }
+
+    private List<TextNode> children() throws IOException {
+        this.expect('[');
+
+        final List<TextNode> children = Lists.array();
+        if (!this.tryConsume(']')) {
+            do {
+                children.add(this.nodeWithType());
+            } while (this.nextElement());
+        }
+
+        return children;
+    }
+
+    /**
+     * Reads an object of style properties, only the value of each property is captured and parsed into a
+     * {@link JsonNode} for its {@link TextStylePropertyValueHandler}.
+     */
+    private TextNodeMapEntrySet styles() throws IOException {
+        this.expect('{');
+
+        final TextStyleBuilder builder = TextStyleBuilder.create();
+
+        boolean more = !this.tryConsume('}');
+        if (more) {
+            final StringBuilder capture = this.capture;
+            final JsonNodeUnmarshallContext context = this.context;
+
+            while (more) {
+                final TextStylePropertyName<?> name = TextStylePropertyName.with(this.propertyName());
+
+                capture.setLength(0);
+                this.skipValue(capture);
+
+                builder.set0(name,
+                        name.handler.unmarshall(JsonNode.parse(capture.toString()), name, context));
+
+                more = this.nextProperty();
+            }
+        }
+
+        return builder.buildEntrySet();
+    }
+
+    /**
+     * A buffer reused to capture property values.
+     */
+    private final StringBuilder capture = new StringBuilder();
+
+    // json.............................................................................................................
+
+    /**
+     * Reads a property name and the following colon.
+     */
+    private String propertyName() throws IOException {
+        final String name = this.string();
+        this.expect(':');
+        return name;
+    }
+
+    /**
+     * Consumes a comma returning true or the closing brace returning false.
+     */
+    private boolean nextProperty() throws IOException {
+        return this.next(',', '}');
+    }
+
+    /**
+     * Consumes a comma returning true or the closing bracket returning false.
+     */
+    private boolean nextElement() throws IOException {
+        return this.next(',', ']');
+    }
+
+    private boolean next(final char more,
+                         final char close) throws IOException {
+        final int c = this.skipWhitespaceAndPeek();
+        if (more != c && close != c) {
+            this.failInvalidCharacter(c);
+        }
+        this.read();
+        return more == c;
+    }
+
+    /**
+     * Reads a json string and returns its unescaped value.
+     */
+    private String string() throws IOException {
+        this.expect('"');
+
+        final StringBuilder b = new StringBuilder();
+        for (; ; ) {
+            final int c = this.read();
+            if ('"' == c) {
+                break;
+            }
+            if (-1 == c) {
+                this.failInvalidCharacter(c);
+            }
+            if ('\\' == c) {
+                b.append(this.escaped());
+            } else {
+                b.append((char) c);
+            }
+        }
+
+        return b.toString();
+    }
+
+    private char escaped() throws IOException {
+        final int c = this.read();
+        final char unescaped;
+
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                unescaped = (char) c;
+                break;
+            case 'b':
+                unescaped = '\b';
+                break;
+            case 'f':
+                unescaped = '\f';
+                break;
+            case 'n':
+                unescaped = '\n';
+                break;
+            case 'r':
+                unescaped = '\r';
+                break;
+            case 't':
+                unescaped = '\t';
+                break;
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    final int hex = this.read();
+                    final int digit = Character.digit((char) hex, 16);
+                    if (-1 == hex || -1 == digit) {
+                        this.failInvalidCharacter(hex);
+                    }
+                    value = value * 16 + digit;
+                }
+                unescaped = (char) value;
+                break;
+            default:
+                unescaped = this.failInvalidCharacter(c);
+                break;
+        }
+
+        return unescaped;
+    }
+
+    /**
+     * Skips over any json value appending its text to the given {@link StringBuilder}.
+     */
+    private void skipValue(final StringBuilder capture) throws IOException {
+        int c = this.skipWhitespaceAndPeek();
+
+        switch (c) {
+            case '{':
+            case '[':
+                int depth = 0;
+                do {
+                    c = this.read();
+                    if (-1 == c) {
+                        this.failInvalidCharacter(c);
+                    }
+                    capture.append((char) c);
+
+                    if ('"' == c) {
+                        this.skipStringRemainder(capture);
+                    } else if ('{' == c || '[' == c) {
+                        depth++;
+                    } else if ('}' == c || ']' == c) {
+                        depth--;
+                    }
+                } while (depth > 0);
+                break;
+            case '"':
+                capture.append((char) this.read());
+                this.skipStringRemainder(capture);
+                break;
+            default:
+                // number, true, false or null
+                while (-1 != c && ',' != c && '}' != c && ']' != c && !isWhitespace(c)) {
+                    capture.append((char) this.read());
+                    c = this.peek();
+                }
+                if (0 == capture.length()) {
+                    this.failInvalidCharacter(c);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Copies the remainder of a string including the closing quote, escapes are copied as is.
+     */
+    private void skipStringRemainder(final StringBuilder capture) throws IOException {
+        for (; ; ) {
+            final int c = this.read();
+            if (-1 == c) {
+                this.failInvalidCharacter(c);
+            }
+            capture.append((char) c);
+
+            if ('\\' == c) {
+                final int escaped = this.read();
+                if (-1 == escaped) {
+                    this.failInvalidCharacter(escaped);
+                }
+                capture.append((char) escaped);
+            } else if ('"' == c) {
+                break;
+            }
+        }
+    }
+
+    private void expect(final char expected) throws IOException {
+        final int c = this.skipWhitespaceAndPeek();
+        if (expected != c) {
+            this.failInvalidCharacter(c);
+        }
+        this.read();
+    }
+
+    private boolean tryConsume(final char expected) throws IOException {
+        final boolean consume = expected == this.skipWhitespaceAndPeek();
+        if (consume) {
+            this.read();
+        }
+        return consume;
+    }
+
+    /**
+     * Verifies only whitespace remains.
+     */
+    private void end() throws IOException {
+        final int c = this.skipWhitespaceAndPeek();
+        if (-1 != c) {
+            this.failInvalidCharacter(c);
+        }
+    }
+
+    private int skipWhitespaceAndPeek() throws IOException {
+        int c = this.peek();
+        while (isWhitespace(c)) {
+            this.read();
+            c = this.peek();
+        }
+        return c;
+    }
+
+    private static boolean isWhitespace(final int c) {
+        return ' ' == c || '\t' == c || '\n' == c || '\r' == c;
+    }
+
+    // input............................................................................................................
+
+    private int peek() throws IOException {
+        if (this.bufferPosition == this.bufferLength) {
+            this.fill();
+        }
+        return this.bufferPosition < this.bufferLength ?
+                this.buffer[this.bufferPosition] :
+                -1;
+    }
+
+    private int read() throws IOException {
+        final int c = this.peek();
+        if (-1 != c) {
+            this.bufferPosition++;
+            this.offset++;
+        }
+        return c;
+    }
+
+    private void fill() throws IOException {
+        final int read = this.reader.read(this.buffer, 0, this.buffer.length);
+        this.bufferPosition = 0;
+        this.bufferLength = Math.max(0, read);
+    }
+
+    private final Reader reader;
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    private final static int BUFFER_SIZE = 4096;
+
+    private int bufferPosition;
+
+    private int bufferLength;
+
+    /**
+     * The number of characters consumed, used to report the position of errors.
+     */
+    private int offset;
+
+    private final JsonNodeUnmarshallContext context;
+
+    // errors...........................................................................................................
+
+    private <T> T failInvalidCharacter(final int c) {
+        return this.fail(-1 == c ?
+                "Unexpected end" :
+                "Invalid character " + CharSequences.quoteIfChars((char) c));
+    }
+
+    private <T> T fail(final String message) {
+        throw new TextNodeException(message + " at " + this.offset);
+    }
+
+    @Override
+    public String toString() {
+        return "offset " + this.offset;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+import walkingkooka.Cast;
+import walkingkooka.NeverError;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.tree.json.JsonNode;
+import walkingkooka.tree.json.JsonObject;
+import walkingkooka.tree.json.marshall.JsonNodeMarshallContext;
+import walkingkooka.tree.json.marshall.JsonNodeUnmarshallContext;
+
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * An opt in json form for {@link TextNode} documents where the styles of each {@link TextStyleNode} are written as
+ * the difference from the styles of its nearest enclosing {@link TextStyleNode}. Properties that are unchanged are
+ * omitted, new or changed properties are written with their value and removed properties are written as null.
+ * The outermost {@link TextStyleNode} is written against {@link TextStyle#EMPTY} and therefore in full.
+ * <br>
+ * All other nodes and the surrounding type and value objects are written as they are by
+ * {@link JsonNodeMarshallContext#marshallWithType(Object)}.
+ */
+public final class TextNodeJsonStyleDelta {
+
+    /**
+     * Marshalls the given {@link TextNode} with nested styles written as deltas.
+     */
+    public static JsonNode marshall(final TextNode node,
+                                    final JsonNodeMarshallContext context) {
+        Objects.requireNonNull(node, "node");
+        Objects.requireNonNull(context, "context");
+
+        return marshallNode(node, TextNodeMap.EMPTY, context);
+    }
+
+    /**
+     * Unmarshalls json produced by {@link #marshall(TextNode, JsonNodeMarshallContext)}, rebuilding the full styles of
+     * each {@link TextStyleNode}.
+     */
+    public static TextNode unmarshall(final JsonNode json,
+                                      final JsonNodeUnmarshallContext context) {
+        Objects.requireNonNull(json, "json");
+        Objects.requireNonNull(context, "context");
+
+        return unmarshallNode(json, TextStyle.EMPTY, context);
+    }
+
+    /**
+     * Private ctor
+     */
+    private TextNodeJsonStyleDelta() {
+        super();
+    }
+
+    // marshall.........................................................................................................
+
+    private static JsonNode marshallNode(final TextNode node,
+                                         final TextNodeMap parent,
+                                         final JsonNodeMarshallContext context) {
+        final JsonNode json;
+
+        if (node instanceof TextStyleNode) {
+            json = marshallStyleNode((TextStyleNode) node, parent, context);
+        } else if (node instanceof TextStyleNameNode) {
+            json = TextNodeJson.marshallStyleNameNode((TextStyleNameNode) node, marshaller(parent, context), context);
+        } else {
+            json = context.marshallWithType(node);
+        }
+
+        return json;
+    }
+
+    private static JsonNode marshallStyleNode(final TextStyleNode node,
+                                              final TextNodeMap parent,
+                                              final JsonNodeMarshallContext context) {
+        final TextNodeMap attributes = node.attributes;
+
+        JsonObject value = JsonNode.object();
+        final List<JsonNode> delta = delta(parent, attributes, context);
+        if (!delta.isEmpty()) {
+            value = value.set(TextNodeJson.STYLES_PROPERTY, JsonNode.object().setChildren(delta));
+        }
+
+        return TextNodeJson.withType(TextNodeJson.STYLE_TYPE,
+                TextNodeJson.marshallChildren(value, node.children, marshaller(attributes, context)));
+    }
+
+    private static Function<TextNode, JsonNode> marshaller(final TextNodeMap parent,
+                                                           final JsonNodeMarshallContext context) {
+        return (n) -> marshallNode(n, parent, context);
+    }
+
+    /**
+     * Returns the properties that are new or different in the child, followed by null for each property only present
+     * in the parent.
+     */
+    private static List<JsonNode> delta(final TextNodeMap parent,
+                                        final TextNodeMap child,
+                                        final JsonNodeMarshallContext context) {
+        final List<JsonNode> delta = Lists.array();
+
+        if (parent != child) {
+            for (final Entry<TextStylePropertyName<?>, Object> propertyAndValue : child.entries) {
+                final TextStylePropertyName<?> propertyName = propertyAndValue.getKey();
+                final Object value = propertyAndValue.getValue();
+
+                if (!value.equals(parent.get(propertyName))) {
+                    delta.add(
+                            propertyName.handler.marshall(Cast.to(value), context)
+                                    .setName(propertyName.marshallName())
+                    );
+                }
+            }
+
+            for (final TextStylePropertyName<?> propertyName : parent.keySet()) {
+                if (!child.containsKey(propertyName)) {
+                    delta.add(
+                            JsonNode.nullNode()
+                                    .setName(propertyName.marshallName())
+                    );
+                }
+            }
+        }
+
+        return delta;
+    }
+
+    // unmarshall.......................................................................................................
+
+    private static TextNode unmarshallNode(final JsonNode json,
+                                           final TextStyle parent,
+                                           final JsonNodeUnmarshallContext context) {
+        return TextNodeJson.unmarshallNode(json,
+                (v) -> unmarshallStyleNode(v, parent, context),
+                (v) -> TextNodeJson.unmarshallStyleNameNode(v, unmarshaller(parent, context), context),
+                context);
+    }
+
+    private static Function<JsonNode, TextNode> unmarshaller(final TextStyle parent,
+                                                             final JsonNodeUnmarshallContext context) {
+        return (j) -> unmarshallNode(j, parent, context);
+    }
+
+    private static TextNode unmarshallStyleNode(final JsonNode json,
+                                                final TextStyle parent,
+                                                final JsonNodeUnmarshallContext context) {
+        TextStyle textStyle = parent;
+        JsonNode children = null;
+
+        for (final JsonNode child : json.objectOrFail().children()) {
+            switch (child.name().value()) {
+                case TextStyleNode.STYLES:
+                    textStyle = parent.patch(child, context);
+                    break;
+                case TextParentNode.CHILDREN:
+                    children = child;
+                    break;
+                default:
+                    NeverError.unhandledCase(child, TextNodeJson.STYLES_PROPERTY, TextParentNode.CHILDREN_PROPERTY);
+            }
+        }
+
+        // children must be unmarshalled after the styles which may appear after them.
+        return textStyle.setChildren(
+                TextNodeJson.unmarshallChildren(children, unmarshaller(textStyle, context))
+        );
+    }
+}
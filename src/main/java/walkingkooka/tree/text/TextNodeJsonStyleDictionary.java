@@ -0,0 +1,233 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+import walkingkooka.NeverError;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.tree.json.JsonArray;
+import walkingkooka.tree.json.JsonNode;
+import walkingkooka.tree.json.JsonObject;
+import walkingkooka.tree.json.JsonPropertyName;
+import walkingkooka.tree.json.marshall.JsonNodeMarshallContext;
+import walkingkooka.tree.json.marshall.JsonNodeUnmarshallContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * An opt in json form for {@link TextNode} documents that writes each unique set of {@link TextStyleNode} styles once
+ * in a document level table, with each {@link TextStyleNode} referring to its styles by index.
+ * <pre>
+ * {
+ *   "styles": [{"color": "#123456"}, {"font-size": 12}],
+ *   "value": {"type": "text-style-node", "value": {"style": 0, "children": [...]}}
+ * }
+ * </pre>
+ * All other nodes are written as they are by {@link JsonNodeMarshallContext#marshallWithType(Object)}. When read back
+ * all {@link TextStyleNode} referring to the same index share the same styles.
+ */
+public final class TextNodeJsonStyleDictionary {
+
+    /**
+     * Marshalls the given {@link TextNode} with its styles gathered into a single table.
+     */
+    public static JsonNode marshall(final TextNode node,
+                                    final JsonNodeMarshallContext context) {
+        Objects.requireNonNull(node, "node");
+        Objects.requireNonNull(context, "context");
+
+        return new TextNodeJsonStyleDictionary()
+                .marshall0(node, context);
+    }
+
+    /**
+     * Unmarshalls json produced by {@link #marshall(TextNode, JsonNodeMarshallContext)}.
+     */
+    public static TextNode unmarshall(final JsonNode json,
+                                      final JsonNodeUnmarshallContext context) {
+        Objects.requireNonNull(json, "json");
+        Objects.requireNonNull(context, "context");
+
+        return new TextNodeJsonStyleDictionary()
+                .unmarshall0(json, context);
+    }
+
+    private TextNodeJsonStyleDictionary() {
+        super();
+    }
+
+    // marshall.........................................................................................................
+
+    private JsonNode marshall0(final TextNode node,
+                               final JsonNodeMarshallContext context) {
+        final JsonNode value = this.marshallNode(node, context);
+
+        JsonArray styles = JsonNode.array();
+        for (final TextNodeMap map : this.indices.keySet()) {
+            styles = styles.appendChild(map.toJson(context));
+        }
+
+        return JsonNode.object()
+                .set(TextNodeJson.STYLES_PROPERTY, styles)
+                .set(TextNodeJson.VALUE_PROPERTY, value);
+    }
+
+    private JsonNode marshallNode(final TextNode node,
+                                  final JsonNodeMarshallContext context) {
+        final JsonNode json;
+
+        if (node instanceof TextStyleNode) {
+            json = this.marshallStyleNode((TextStyleNode) node, context);
+        } else if (node instanceof TextStyleNameNode) {
+            json = TextNodeJson.marshallStyleNameNode((TextStyleNameNode) node, this.marshaller(context), context);
+        } else {
+            json = context.marshallWithType(node);
+        }
+
+        return json;
+    }
+
+    private JsonNode marshallStyleNode(final TextStyleNode node,
+                                       final JsonNodeMarshallContext context) {
+        JsonObject value = JsonNode.object();
+
+        final TextNodeMap attributes = node.attributes;
+        if (!attributes.isEmpty()) {
+            value = value.set(STYLE_PROPERTY, JsonNode.number(this.index(attributes)));
+        }
+
+        return TextNodeJson.withType(TextNodeJson.STYLE_TYPE,
+                TextNodeJson.marshallChildren(value, node.children, this.marshaller(context)));
+    }
+
+    private Function<TextNode, JsonNode> marshaller(final JsonNodeMarshallContext context) {
+        return (n) -> this.marshallNode(n, context);
+    }
+
+    /**
+     * Returns the index of the given styles, adding them to the table if they are new.
+     */
+    private int index(final TextNodeMap attributes) {
+        final Map<TextNodeMap, Integer> indices = this.indices;
+
+        Integer index = indices.get(attributes);
+        if (null == index) {
+            index = indices.size();
+            indices.put(attributes, index);
+        }
+        return index;
+    }
+
+    /**
+     * Unique styles to their index in insertion order.
+     */
+    private final Map<TextNodeMap, Integer> indices = Maps.ordered();
+
+    // unmarshall.......................................................................................................
+
+    private TextNode unmarshall0(final JsonNode json,
+                                 final JsonNodeUnmarshallContext context) {
+        JsonNode value = null;
+
+        for (final JsonNode child : json.objectOrFail().children()) {
+            switch (child.name().value()) {
+                case TextStyleNode.STYLES:
+                    this.unmarshallStyles(child, context);
+                    break;
+                case TextNodeJson.VALUE:
+                    value = child;
+                    break;
+                default:
+                    NeverError.unhandledCase(child, TextNodeJson.STYLES_PROPERTY, TextNodeJson.VALUE_PROPERTY);
+            }
+        }
+
+        if (null == value) {
+            JsonNodeUnmarshallContext.requiredPropertyMissing(TextNodeJson.VALUE_PROPERTY, json);
+        }
+
+        return this.unmarshallNode(value, context);
+    }
+
+    private void unmarshallStyles(final JsonNode json,
+                                  final JsonNodeUnmarshallContext context) {
+        final List<TextStyle> styles = this.styles;
+
+        for (final JsonNode child : json.children()) {
+            styles.add(TextStyle.withTextStyleMap(TextNodeMap.fromJson(child, context)));
+        }
+    }
+
+    /**
+     * The styles table, each referenced style is shared by all {@link TextStyleNode} that refer to it.
+     */
+    private final List<TextStyle> styles = Lists.array();
+
+    private TextNode unmarshallNode(final JsonNode json,
+                                    final JsonNodeUnmarshallContext context) {
+        final Function<JsonNode, TextNode> unmarshaller = this.unmarshaller(context);
+
+        return TextNodeJson.unmarshallNode(json,
+                (v) -> this.unmarshallStyleNode(v, context),
+                (v) -> TextNodeJson.unmarshallStyleNameNode(v, unmarshaller, context),
+                context);
+    }
+
+    private Function<JsonNode, TextNode> unmarshaller(final JsonNodeUnmarshallContext context) {
+        return (j) -> this.unmarshallNode(j, context);
+    }
+
+    private TextNode unmarshallStyleNode(final JsonNode json,
+                                         final JsonNodeUnmarshallContext context) {
+        TextStyle textStyle = TextStyle.EMPTY;
+        List<TextNode> children = TextNode.NO_CHILDREN;
+
+        for (final JsonNode child : json.objectOrFail().children()) {
+            switch (child.name().value()) {
+                case STYLE:
+                    textStyle = this.style(child);
+                    break;
+                case TextParentNode.CHILDREN:
+                    children = TextNodeJson.unmarshallChildren(child, this.unmarshaller(context));
+                    break;
+                default:
+                    NeverError.unhandledCase(child, STYLE_PROPERTY, TextParentNode.CHILDREN_PROPERTY);
+            }
+        }
+
+        return textStyle.setChildren(children);
+    }
+
+    private TextStyle style(final JsonNode json) {
+        final int index = json.numberOrFail().intValue();
+        final List<TextStyle> styles = this.styles;
+
+        if (index < 0 || index >= styles.size()) {
+            throw new TextNodeException("Invalid style index " + index + " expected 0 to " + styles.size());
+        }
+        return styles.get(index);
+    }
+
+    // properties.......................................................................................................
+
+    private final static String STYLE = "style";
+    private final static JsonPropertyName STYLE_PROPERTY = JsonPropertyName.with(STYLE);
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+import walkingkooka.Cast;
+import walkingkooka.NeverError;
+import walkingkooka.tree.json.marshall.JsonNodeMarshallContext;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Objects;
+
+/**
+ * Writes {@link TextNode} and {@link TextStyle} as json text directly to an {@link Appendable} such as a
+ * {@link java.io.Writer} or {@link StringBuilder}, without first building a {@link walkingkooka.tree.json.JsonNode}
+ * tree for the whole document. The text is identical to that produced by {@link JsonNodeMarshallContext#marshall(Object)}
+ * or {@link JsonNodeMarshallContext#marshallWithType(Object)} followed by {@link Object#toString()}.
+ * <br>
+ * Only leaf values such as {@link Text} strings and individual style property values are marshalled to small
+ * {@link walkingkooka.tree.json.JsonNode} before being written, so their escaping and formatting always match.
+ */
+public final class TextNodeJsonWriter {
+
+    /**
+     * Creates a new {@link TextNodeJsonWriter} that uses the given {@link JsonNodeMarshallContext} for leaf values.
+     */
+    public static TextNodeJsonWriter with(final JsonNodeMarshallContext context) {
+        Objects.requireNonNull(context, "context");
+
+        return new TextNodeJsonWriter(context);
+    }
+
+    private TextNodeJsonWriter(final JsonNodeMarshallContext context) {
+        super();
+        this.context = context;
+    }
+
+    /**
+     * Writes the {@link TextNode} without its type, equivalent to {@link JsonNodeMarshallContext#marshall(Object)}.
+     */
+    public void write(final TextNode node,
+                      final Appendable output) throws IOException {
+        Objects.requireNonNull(node, "node");
+        Objects.requireNonNull(output, "output");
+
+        this.writeNode(node, output);
+    }
+
+    /**
+     * Writes the {@link TextNode} with its type, equivalent to {@link JsonNodeMarshallContext#marshallWithType(Object)}.
+     */
+    public void writeWithType(final TextNode node,
+                              final Appendable output) throws IOException {
+        Objects.requireNonNull(node, "node");
+        Objects.requireNonNull(output, "output");
+
+        this.writeNodeWithType(node, output);
+    }
+
+    /**
+     * Writes the {@link TextStyle} as a json object, equivalent to {@link JsonNodeMarshallContext#marshall(Object)}.
+     */
+    public void write(final TextStyle textStyle,
+                      final Appendable output) throws IOException {
+        Objects.requireNonNull(textStyle, "textStyle");
+        Objects.requireNonNull(output, "output");
+
+        this.writeStyles(textStyle.textStyleMap(), output);
+    }
+
+    private void writeNodeWithType(final TextNode node,
+                                   final Appendable output) throws IOException {
+        output.append("{\"type\": \"")
+                .append(typeName(node))
+                .append("\", \"value\": ");
+        this.writeNode(node, output);
+        output.append('}');
+    }
+
+    private static String typeName(final TextNode node) {
+        final String typeName;
+
+        if (node instanceof Text) {
+            typeName = TextNode.TEXT_JSON_TYPE;
+        } else if (node instanceof TextPlaceholderNode) {
+            typeName = TextNode.PLACEHOLDER_JSON_TYPE;
+        } else if (node instanceof TextStyleNode) {
+            typeName = TextNode.STYLE_JSON_TYPE;
+        } else if (node instanceof TextStyleNameNode) {
+            typeName = TextNode.STYLE_NAME_JSON_TYPE;
+        } else {
+            NeverError.unhandledCase(node);
+            typeName = null;
+        }
+
+        return typeName;
+    }
+
+    private void writeNode(final TextNode node,
+                           final Appendable output) throws IOException {
+        if (node instanceof TextStyleNode) {
+            this.writeStyleNode((TextStyleNode) node, output);
+        } else if (node instanceof TextStyleNameNode) {
+            this.writeStyleNameNode((TextStyleNameNode) node, output);
+        } else {
+            output.append(node.marshall(this.context).toString());
+        }
+    }
+
+    private void writeStyleNode(final TextStyleNode node,
+                                final Appendable output) throws IOException {
+        output.append('{');
+
+        final TextNodeMap attributes = node.attributes;
+        final boolean hasStyles = !attributes.isEmpty();
+        if (hasStyles) {
+            writePropertyName(TextStyleNode.STYLES, output);
+            this.writeStyles(attributes, output);
+        }
+        this.writeChildren(node.children, hasStyles, output);
+
+        output.append('}');
+    }
+
+    private void writeStyleNameNode(final TextStyleNameNode node,
+                                    final Appendable output) throws IOException {
+        output.append('{');
+
+        writePropertyName(TextStyleNameNode.STYLE_NAME, output);
+        output.append(this.context.marshall(node.styleName()).toString());
+        this.writeChildren(node.children, true, output);
+
+        output.append('}');
+    }
+
+    /**
+     * Writes the children property if any children are present.
+     */
+    private void writeChildren(final List<TextNode> children,
+                               final boolean separatorRequired,
+                               final Appendable output) throws IOException {
+        if (!children.isEmpty()) {
+            if (separatorRequired) {
+                output.append(SEPARATOR);
+            }
+            writePropertyName(TextParentNode.CHILDREN, output);
+            output.append('[');
+
+            String separator = "";
+            for (final TextNode child : children) {
+                output.append(separator);
+                this.writeNodeWithType(child, output);
+                separator = SEPARATOR;
+            }
+
+            output.append(']');
+        }
+    }
+
+    private void writeStyles(final TextNodeMap styles,
+                             final Appendable output) throws IOException {
+        output.append('{');
+
+        final JsonNodeMarshallContext context = this.context;
+        String separator = "";
+        for (final Entry<TextStylePropertyName<?>, Object> propertyAndValue : styles.entries) {
+            final TextStylePropertyName<?> propertyName = propertyAndValue.getKey();
+
+            output.append(separator);
+            writePropertyName(propertyName.value(), output);
+            output.append(propertyName.handler.marshall(Cast.to(propertyAndValue.getValue()), context).toString());
+            separator = SEPARATOR;
+        }
+
+        output.append('}');
+    }
+
+    /**
+     * Property names are all simple names that never need escaping.
+     */
+    private static void writePropertyName(final String name,
+                                          final Appendable output) throws IOException {
+        output.append('"')
+                .append(name)
+                .append("\": ");
+    }
+
+    private final static String SEPARATOR = ", ";
+
+    private final JsonNodeMarshallContext context;
+
+    @Override
+    public String toString() {
+        return this.context.toString();
+    }
+}
@@ -56,7 +56,7 @@ final class TextNodeMap extends AbstractMap<TextStylePropertyName<?>, Object> {
         return with1(TextNodeMapEntrySet.with(map));
     }
 
-    private static TextNodeMap with1(final TextNodeMapEntrySet entrySet) {
+    static TextNodeMap with1(final TextNodeMapEntrySet entrySet) {
         return entrySet.isEmpty() ?
                 EMPTY :
                 withTextStyleMapEntrySet(entrySet);
@@ -78,12 +78,96 @@ final class TextNodeMap extends AbstractMap<TextStylePropertyName<?>, Object> {
 
     final TextNodeMapEntrySet entries;
 
+    @Override
+    public boolean containsKey(final Object key) {
+        return null != this.get(key);
+    }
+
+    @Override
+    public Object get(final Object key) {
+        return key instanceof TextStylePropertyName ?
+                this.entries.get((TextStylePropertyName<?>) key) :
+                null;
+    }
+
+    @Override
+    public int size() {
+        return this.entries.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.entries.isEmpty();
+    }
+
+    /**
+     * Returns a {@link TextNodeMap} with the given property and already checked value, returning this if nothing changed.
+     */
+    TextNodeMap setProperty(final TextStylePropertyName<?> propertyName,
+                            final Object value) {
+        final TextNodeMapEntrySet entries = this.entries;
+        final TextNodeMapEntrySet set = entries.setProperty(propertyName, value);
+
+        return entries == set ?
+                this :
+                with1(set);
+    }
+
+    /**
+     * Returns a {@link TextNodeMap} without the given property, returning this if it was absent.
+     */
+    TextNodeMap removeProperty(final TextStylePropertyName<?> propertyName) {
+        final TextNodeMapEntrySet entries = this.entries;
+        final TextNodeMapEntrySet removed = entries.removeProperty(propertyName);
+
+        return entries == removed ?
+                this :
+                with1(removed);
+    }
+
+    // Object...........................................................................................................
+
+    @Override
+    public int hashCode() {
+        return this.entries.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other ||
+                (other instanceof TextNodeMap ?
+                        this.entries.equals0(((TextNodeMap) other).entries) :
+                        super.equals(other));
+    }
+
     // TextStyleVisitor.................................................................................................
 
     void accept(final TextStyleVisitor visitor) {
         this.entries.accept(visitor);
     }
 
+    // css..............................................................................................................
+
+    /**
+     * Returns the css declarations for these properties, built once on demand and then cached, so every
+     * {@link TextStyle} and {@link TextStyleNode} sharing this map shares the text.
+     */
+    String css() {
+        String css = this.css;
+
+        if (null == css) {
+            css = TextStyleCss.declarations(this);
+            this.css = css;
+        }
+
+        return css;
+    }
+
+    /**
+     * Lazily built css, as a {@link String} is immutable racing readers at worst build equal copies.
+     */
+    private String css;
+
     // JsonNodeContext..................................................................................................
 
     static TextNodeMap fromJson(final JsonNode json,
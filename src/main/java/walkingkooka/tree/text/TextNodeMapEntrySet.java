@@ -18,7 +18,6 @@
 package walkingkooka.tree.text;
 
 import walkingkooka.Cast;
-import walkingkooka.collect.iterator.Iterators;
 import walkingkooka.collect.list.Lists;
 import walkingkooka.collect.map.Maps;
 import walkingkooka.collect.set.Sets;
@@ -27,6 +26,7 @@ import walkingkooka.tree.json.marshall.JsonNodeMarshallContext;
 import walkingkooka.tree.json.marshall.JsonNodeUnmarshallContext;
 
 import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
@@ -36,6 +36,11 @@ import java.util.Set;
 
 /**
  * A read only {@link Set} sorted view of properties that have had their values checked.
+ * <br>
+ * Values for constant {@link TextStylePropertyName} are held in a packed array in {@link TextStylePropertyName#ordinal}
+ * order, with a bitmap recording which ordinals are present, giving constant time gets and single array copies for
+ * sets and removes. Other properties created by {@link TextStylePropertyName#with(String)} are kept in a small sorted
+ * overflow {@link List}.
  */
 final class TextNodeMapEntrySet extends AbstractSet<Entry<TextStylePropertyName<?>, Object>> {
 
@@ -43,35 +48,89 @@ final class TextNodeMapEntrySet extends AbstractSet<Entry<TextStylePropertyName<
         Sets.registerImmutableType(TextNodeMapEntrySet.class);
     }
 
+    private final static long[] NO_PRESENT = new long[0];
+
+    private final static Object[] NO_VALUES = new Object[0];
+
     /**
      * An empty {@link TextNodeMap}.
      */
-    static final TextNodeMapEntrySet EMPTY = new TextNodeMapEntrySet(Lists.empty());
+    static final TextNodeMapEntrySet EMPTY = new TextNodeMapEntrySet(NO_PRESENT, NO_VALUES, Lists.empty());
 
     /**
      * Factory that creates a {@link TextNodeMapEntrySet}.
      */
     static TextNodeMapEntrySet with(final Map<TextStylePropertyName<?>, Object> entries) {
-        final List<Entry<TextStylePropertyName<?>, Object>> list = Lists.array();
+        final Object[] ordinals = new Object[TextStylePropertyName.ORDINALS.length];
+        final List<Entry<TextStylePropertyName<?>, Object>> unknowns = Lists.array();
 
         for (Entry<TextStylePropertyName<?>, Object> propertyAndValue : entries.entrySet()) {
             final TextStylePropertyName<?> property = propertyAndValue.getKey();
             final Object value = propertyAndValue.getValue();
             property.check(value);
 
-            list.add(Maps.entry(property, value));
+            final int ordinal = property.ordinal;
+            if (TextStylePropertyName.UNKNOWN_ORDINAL == ordinal) {
+                unknowns.add(Maps.entry(property, value));
+            } else {
+                ordinals[ordinal] = value;
+            }
         }
 
-        sort(list);
-        return list.isEmpty() ?
-                EMPTY :
-                withList(list);
+        return withOrdinals(ordinals, unknowns);
+    }
+
+    /**
+     * Factory that packs an array indexed by {@link TextStylePropertyName#ordinal}, where null elements are absent
+     * properties, along with any unknown properties which will be sorted.
+     */
+    static TextNodeMapEntrySet withOrdinals(final Object[] ordinals,
+                                            final List<Entry<TextStylePropertyName<?>, Object>> unknowns) {
+        int count = 0;
+        int last = -1;
+        for (int i = 0; i < ordinals.length; i++) {
+            if (null != ordinals[i]) {
+                count++;
+                last = i;
+            }
+        }
+
+        final TextNodeMapEntrySet entrySet;
+        if (0 == count && unknowns.isEmpty()) {
+            entrySet = EMPTY;
+        } else {
+            final long[] present = 0 == count ?
+                    NO_PRESENT :
+                    new long[1 + (last >> 6)];
+            final Object[] values = 0 == count ?
+                    NO_VALUES :
+                    new Object[count];
+
+            int index = 0;
+            for (int i = 0; i <= last; i++) {
+                final Object value = ordinals[i];
+                if (null != value) {
+                    present[i >> 6] |= 1L << i;
+                    values[index] = value;
+                    index++;
+                }
+            }
+
+            sort(unknowns);
+            entrySet = new TextNodeMapEntrySet(present,
+                    values,
+                    unknowns.isEmpty() ?
+                            Lists.empty() :
+                            unknowns);
+        }
+
+        return entrySet;
     }
 
     /**
      * Sorts the {@link List} so all properties using the {@link TextStylePropertyName} {@link Comparator}.
      */
-    static void sort(final List<Entry<TextStylePropertyName<?>, Object>> list) {
+    private static void sort(final List<Entry<TextStylePropertyName<?>, Object>> list) {
         list.sort(TextNodeMapEntrySet::comparator);
     }
 
@@ -83,32 +142,649 @@ final class TextNodeMapEntrySet extends AbstractSet<Entry<TextStylePropertyName<
         return first.getKey().compareTo(second.getKey());
     }
 
-    static TextNodeMapEntrySet withList(final List<Entry<TextStylePropertyName<?>, Object>> entries) {
-        return new TextNodeMapEntrySet(entries);
-    }
-
-    private TextNodeMapEntrySet(final List<Entry<TextStylePropertyName<?>, Object>> entries) {
+    private TextNodeMapEntrySet(final long[] present,
+                                final Object[] values,
+                                final List<Entry<TextStylePropertyName<?>, Object>> unknowns) {
         super();
-        this.entries = entries;
+        this.present = present;
+        this.values = values;
+        this.unknowns = unknowns;
     }
 
     @Override
     public Iterator<Entry<TextStylePropertyName<?>, Object>> iterator() {
-        return Iterators.readOnly(this.entries.iterator());
+        return TextNodeMapEntrySetIterator.with(this);
     }
 
     @Override
     public int size() {
-        return this.entries.size();
+        return this.values.length + this.unknowns.size();
+    }
+
+    /**
+     * A bit for each {@link TextStylePropertyName#ordinal} that has a value, never with trailing zero words.
+     */
+    final long[] present;
+
+    /**
+     * The values for each present ordinal, in ordinal order.
+     */
+    final Object[] values;
+
+    /**
+     * Properties without an ordinal, sorted by name.
+     */
+    final List<Entry<TextStylePropertyName<?>, Object>> unknowns;
+
+    // get..............................................................................................................
+
+    /**
+     * Returns the value for the given property or null if absent.
+     */
+    Object get(final TextStylePropertyName<?> propertyName) {
+        final int ordinal = propertyName.ordinal;
+
+        return TextStylePropertyName.UNKNOWN_ORDINAL == ordinal ?
+                this.getUnknown(propertyName) :
+                this.isPresent(ordinal) ?
+                        this.values[this.countBefore(ordinal)] :
+                        null;
+    }
+
+    private Object getUnknown(final TextStylePropertyName<?> propertyName) {
+        Object value = null;
+
+        for (final Entry<TextStylePropertyName<?>, Object> propertyAndValue : this.unknowns) {
+            if (propertyName.equals(propertyAndValue.getKey())) {
+                value = propertyAndValue.getValue();
+                break;
+            }
+        }
+
+        return value;
+    }
+
+    // setProperty......................................................................................................
+
+    /**
+     * Returns a {@link TextNodeMapEntrySet} with the given property and already checked value, returning this if
+     * nothing changed.
+     */
+    TextNodeMapEntrySet setProperty(final TextStylePropertyName<?> propertyName,
+                                    final Object value) {
+        final int ordinal = propertyName.ordinal;
+
+        return TextStylePropertyName.UNKNOWN_ORDINAL == ordinal ?
+                this.setUnknown(propertyName, value) :
+                this.setOrdinal(ordinal, value);
+    }
+
+    private TextNodeMapEntrySet setOrdinal(final int ordinal,
+                                           final Object value) {
+        final Object[] values = this.values;
+        final int index = this.countBefore(ordinal);
+
+        final TextNodeMapEntrySet result;
+
+        if (this.isPresent(ordinal)) {
+            if (values[index].equals(value)) {
+                result = this;
+            } else {
+                final Object[] copy = values.clone();
+                copy[index] = value;
+                result = new TextNodeMapEntrySet(this.present, copy, this.unknowns);
+            }
+        } else {
+            final int length = values.length;
+            final Object[] copy = new Object[length + 1];
+            System.arraycopy(values, 0, copy, 0, index);
+            copy[index] = value;
+            System.arraycopy(values, index, copy, index + 1, length - index);
+
+            result = new TextNodeMapEntrySet(setBit(this.present, ordinal), copy, this.unknowns);
+        }
+
+        return result;
+    }
+
+    private TextNodeMapEntrySet setUnknown(final TextStylePropertyName<?> propertyName,
+                                           final Object value) {
+        final List<Entry<TextStylePropertyName<?>, Object>> unknowns = this.unknowns;
+        final int count = unknowns.size();
+
+        int i = 0;
+        int compare = 1;
+        while (i < count) {
+            compare = propertyName.compareTo(unknowns.get(i).getKey());
+            if (compare <= 0) {
+                break;
+            }
+            i++;
+        }
+
+        final TextNodeMapEntrySet result;
+
+        if (0 == compare && unknowns.get(i).getValue().equals(value)) {
+            result = this;
+        } else {
+            final List<Entry<TextStylePropertyName<?>, Object>> copy = Lists.array();
+            copy.addAll(unknowns);
+
+            final Entry<TextStylePropertyName<?>, Object> entry = Maps.entry(propertyName, value);
+            if (0 == compare) {
+                copy.set(i, entry);
+            } else {
+                copy.add(i, entry);
+            }
+
+            result = new TextNodeMapEntrySet(this.present, this.values, copy);
+        }
+
+        return result;
+    }
+
+    // removeProperty...................................................................................................
+
+    /**
+     * Returns a {@link TextNodeMapEntrySet} without the given property, returning this if it was absent.
+     */
+    TextNodeMapEntrySet removeProperty(final TextStylePropertyName<?> propertyName) {
+        final int ordinal = propertyName.ordinal;
+
+        final TextNodeMapEntrySet result = TextStylePropertyName.UNKNOWN_ORDINAL == ordinal ?
+                this.removeUnknown(propertyName) :
+                this.removeOrdinal(ordinal);
+
+        return this != result && result.isEmpty() ?
+                EMPTY :
+                result;
+    }
+
+    private TextNodeMapEntrySet removeOrdinal(final int ordinal) {
+        final TextNodeMapEntrySet result;
+
+        if (this.isPresent(ordinal)) {
+            final Object[] values = this.values;
+            final int length = values.length;
+            final int index = this.countBefore(ordinal);
+
+            final Object[] copy = new Object[length - 1];
+            System.arraycopy(values, 0, copy, 0, index);
+            System.arraycopy(values, index + 1, copy, index, length - index - 1);
+
+            result = new TextNodeMapEntrySet(clearBit(this.present, ordinal), copy, this.unknowns);
+        } else {
+            result = this;
+        }
+
+        return result;
+    }
+
+    private TextNodeMapEntrySet removeUnknown(final TextStylePropertyName<?> propertyName) {
+        final List<Entry<TextStylePropertyName<?>, Object>> list = Lists.array();
+        boolean removed = false;
+
+        for (Entry<TextStylePropertyName<?>, Object> propertyAndValue : this.unknowns) {
+            if (propertyName.equals(propertyAndValue.getKey())) {
+                removed = true;
+            } else {
+                list.add(propertyAndValue);
+            }
+        }
+
+        return removed ?
+                new TextNodeMapEntrySet(this.present,
+                        this.values,
+                        list.isEmpty() ? Lists.empty() : list) :
+                this;
+    }
+
+    // merge............................................................................................................
+
+    /**
+     * Merges the two sets in a single pass over their bitmaps, with values in the first having priority. If the result
+     * would be equal to other it is returned, or if it would be equal to priority that is returned, matching the
+     * instance reuse of {@link TextStyle#merge(TextStyle)}.
+     */
+    static TextNodeMapEntrySet merge(final TextNodeMapEntrySet priority,
+                                     final TextNodeMapEntrySet other) {
+        final long[] priorityPresent = priority.present;
+        final long[] otherPresent = other.present;
+        final int length = Math.max(priorityPresent.length, otherPresent.length);
+
+        boolean otherCovers = true; // every priority ordinal is also in other
+        boolean priorityCovers = true; // every other ordinal is also in priority
+
+        for (int i = 0; i < length; i++) {
+            final long priorityWord = i < priorityPresent.length ? priorityPresent[i] : 0;
+            final long otherWord = i < otherPresent.length ? otherPresent[i] : 0;
+
+            otherCovers &= 0 == (priorityWord & ~otherWord);
+            priorityCovers &= 0 == (otherWord & ~priorityWord);
+        }
+
+        // when other has all ordinals it is unchanged only if priority values are the same.
+        boolean sameAsOther = otherCovers && sameValues(priority, other);
+
+        final List<Entry<TextStylePropertyName<?>, Object>> unknowns = mergeUnknowns(priority.unknowns, other.unknowns);
+        sameAsOther &= unknowns.equals(other.unknowns);
+        final boolean sameAsPriority = priorityCovers && unknowns.size() == priority.unknowns.size();
+
+        return sameAsOther ?
+                other :
+                sameAsPriority ?
+                        priority :
+                        merge0(priority, other, unknowns);
+    }
+
+    /**
+     * Tests that all priority values are equal to the value of the same ordinal in other, assumes other holds all
+     * priority ordinals.
+     */
+    private static boolean sameValues(final TextNodeMapEntrySet priority,
+                                      final TextNodeMapEntrySet other) {
+        final long[] priorityPresent = priority.present;
+        final Object[] priorityValues = priority.values;
+
+        boolean same = true;
+        int index = 0;
+        int ordinal = nextOrdinal(priorityPresent, 0);
+
+        while (-1 != ordinal) {
+            if (!priorityValues[index].equals(other.values[other.countBefore(ordinal)])) {
+                same = false;
+                break;
+            }
+            index++;
+            ordinal = nextOrdinal(priorityPresent, ordinal + 1);
+        }
+
+        return same;
+    }
+
+    /**
+     * Merges the two sorted lists of unknown properties, returning one of them when the other is empty.
+     */
+    private static List<Entry<TextStylePropertyName<?>, Object>> mergeUnknowns(final List<Entry<TextStylePropertyName<?>, Object>> priority,
+                                                                               final List<Entry<TextStylePropertyName<?>, Object>> other) {
+        final List<Entry<TextStylePropertyName<?>, Object>> merged;
+
+        if (other.isEmpty()) {
+            merged = priority;
+        } else {
+            if (priority.isEmpty()) {
+                merged = other;
+            } else {
+                merged = Lists.array();
+
+                final int priorityCount = priority.size();
+                final int otherCount = other.size();
+                int p = 0;
+                int o = 0;
+
+                while (p < priorityCount || o < otherCount) {
+                    final int compare = p == priorityCount ?
+                            1 :
+                            o == otherCount ?
+                                    -1 :
+                                    comparator(priority.get(p), other.get(o));
+                    if (compare <= 0) {
+                        merged.add(priority.get(p));
+                        p++;
+                        if (0 == compare) {
+                            o++;
+                        }
+                    } else {
+                        merged.add(other.get(o));
+                        o++;
+                    }
+                }
+            }
+        }
+
+        return merged;
+    }
+
+    /**
+     * Builds the union of both sets, with priority values replacing those in other.
+     */
+    private static TextNodeMapEntrySet merge0(final TextNodeMapEntrySet priority,
+                                              final TextNodeMapEntrySet other,
+                                              final List<Entry<TextStylePropertyName<?>, Object>> unknowns) {
+        final long[] priorityPresent = priority.present;
+        final long[] otherPresent = other.present;
+        final long[] present = new long[Math.max(priorityPresent.length, otherPresent.length)];
+
+        int count = 0;
+        for (int i = 0; i < present.length; i++) {
+            final long word = (i < priorityPresent.length ? priorityPresent[i] : 0) |
+                    (i < otherPresent.length ? otherPresent[i] : 0);
+            present[i] = word;
+            count += Long.bitCount(word);
+        }
+
+        final Object[] priorityValues = priority.values;
+        final Object[] otherValues = other.values;
+        final Object[] values = new Object[count];
+
+        int p = 0;
+        int o = 0;
+        int index = 0;
+        int ordinal = nextOrdinal(present, 0);
+
+        while (-1 != ordinal) {
+            final boolean inPriority = priority.isPresent(ordinal);
+            final boolean inOther = other.isPresent(ordinal);
+
+            values[index] = inPriority ?
+                    priorityValues[p] :
+                    otherValues[o];
+            if (inPriority) {
+                p++;
+            }
+            if (inOther) {
+                o++;
+            }
+
+            index++;
+            ordinal = nextOrdinal(present, ordinal + 1);
+        }
+
+        return new TextNodeMapEntrySet(present, values, unknowns);
+    }
+
+    /**
+     * Merges all the given sets, with earlier sets having priority over later sets. The presence bitmaps are merged a
+     * word at a time, so each value of the result is copied once from the highest priority set holding its ordinal.
+     * If the result would be equal to one of the given sets that set is returned.
+     */
+    static TextNodeMapEntrySet mergeAll(final List<TextNodeMapEntrySet> entrySets) {
+        final int count = entrySets.size();
+
+        int length = 0;
+        for (final TextNodeMapEntrySet entrySet : entrySets) {
+            length = Math.max(length, entrySet.present.length);
+        }
+
+        final long[] present = new long[length];
+        for (final TextNodeMapEntrySet entrySet : entrySets) {
+            final long[] entrySetPresent = entrySet.present;
+            for (int i = 0; i < entrySetPresent.length; i++) {
+                present[i] |= entrySetPresent[i];
+            }
+        }
+
+        List<Entry<TextStylePropertyName<?>, Object>> unknowns = entrySets.get(count - 1).unknowns;
+        for (int i = count - 2; i >= 0; i--) {
+            unknowns = mergeUnknowns(entrySets.get(i).unknowns, unknowns);
+        }
+
+        TextNodeMapEntrySet merged = null;
+        for (int i = 0; i < count; i++) {
+            final TextNodeMapEntrySet entrySet = entrySets.get(i);
+            if (Arrays.equals(present, entrySet.present) &&
+                    unknowns.equals(entrySet.unknowns) &&
+                    sameValuesAll(entrySets, i)) {
+                merged = entrySet;
+                break;
+            }
+        }
+
+        return null != merged ?
+                merged :
+                mergeAll0(entrySets, present, unknowns);
+    }
+
+    /**
+     * Tests that every value of the sets before the given index is equal to the value of the same ordinal in the set
+     * at the index, which holds all ordinals.
+     */
+    private static boolean sameValuesAll(final List<TextNodeMapEntrySet> entrySets,
+                                         final int index) {
+        final TextNodeMapEntrySet other = entrySets.get(index);
+
+        boolean same = true;
+        for (int i = 0; i < index; i++) {
+            if (!sameValues(entrySets.get(i), other)) {
+                same = false;
+                break;
+            }
+        }
+
+        return same;
+    }
+
+    /**
+     * Fills the values of the merged bitmap, each word taking the bits not yet taken by a higher priority set.
+     */
+    private static TextNodeMapEntrySet mergeAll0(final List<TextNodeMapEntrySet> entrySets,
+                                                 final long[] present,
+                                                 final List<Entry<TextStylePropertyName<?>, Object>> unknowns) {
+        final int count = entrySets.size();
+
+        int valueCount = 0;
+        for (final long word : present) {
+            valueCount += Long.bitCount(word);
+        }
+
+        final Object[] values = new Object[valueCount];
+        final int[] before = new int[count]; // the values of each set in earlier words
+
+        int base = 0;
+        for (int w = 0; w < present.length; w++) {
+            final long word = present[w];
+            long taken = 0;
+
+            for (int i = 0; i < count; i++) {
+                final TextNodeMapEntrySet entrySet = entrySets.get(i);
+                final long[] entrySetPresent = entrySet.present;
+                if (w < entrySetPresent.length) {
+                    final long bits = entrySetPresent[w];
+                    final Object[] entrySetValues = entrySet.values;
+                    final int entrySetBase = before[i];
+
+                    long winners = bits & ~taken;
+                    while (0 != winners) {
+                        final long lowest = winners & -winners;
+                        values[base + Long.bitCount(word & (lowest - 1))] = entrySetValues[entrySetBase + Long.bitCount(bits & (lowest - 1))];
+                        winners ^= lowest;
+                    }
+
+                    taken |= bits;
+                    before[i] = entrySetBase + Long.bitCount(bits);
+                }
+            }
+
+            base += Long.bitCount(word);
+        }
+
+        return new TextNodeMapEntrySet(present, values, unknowns);
+    }
+
+    // inherited........................................................................................................
+
+    /**
+     * Returns only the properties that are {@link TextStylePropertyName#isInherited() inherited}, or this if all are.
+     */
+    TextNodeMapEntrySet inherited() {
+        final long[] present = this.present;
+        final long[] inherited = TextStylePropertyName.INHERITED;
+
+        boolean all = true;
+        for (int i = 0; i < present.length; i++) {
+            if (0 != (present[i] & ~inherited[i])) {
+                all = false;
+                break;
+            }
+        }
+
+        return all ?
+                this :
+                this.inheritedOnly();
     }
 
-    private final List<Entry<TextStylePropertyName<?>, Object>> entries;
+    private TextNodeMapEntrySet inheritedOnly() {
+        final Object[] ordinals = new Object[TextStylePropertyName.ORDINALS.length];
+        final long[] present = this.present;
+
+        int ordinal = 0;
+        for (final Object value : this.values) {
+            ordinal = nextOrdinal(present, ordinal);
+            if (TextStylePropertyName.ORDINALS[ordinal].isInherited()) {
+                ordinals[ordinal] = value;
+            }
+            ordinal++;
+        }
+
+        final List<Entry<TextStylePropertyName<?>, Object>> unknowns = Lists.array();
+        unknowns.addAll(this.unknowns); // all unknown properties are inherited
+
+        return withOrdinals(ordinals, unknowns);
+    }
+
+    // bits.............................................................................................................
+
+    /**
+     * Tests if the given ordinal has a value.
+     */
+    boolean isPresent(final int ordinal) {
+        final long[] present = this.present;
+        final int word = ordinal >> 6;
+
+        return word < present.length &&
+                0 != (present[word] & (1L << ordinal));
+    }
+
+    /**
+     * Counts the present ordinals before the given ordinal, which is also the index of its value in {@link #values}.
+     */
+    int countBefore(final int ordinal) {
+        final long[] present = this.present;
+        final int word = ordinal >> 6;
+
+        int count = 0;
+        for (int i = 0; i < word && i < present.length; i++) {
+            count += Long.bitCount(present[i]);
+        }
+        if (word < present.length) {
+            count += Long.bitCount(present[word] & ((1L << ordinal) - 1));
+        }
+        return count;
+    }
+
+    /**
+     * Returns the first present ordinal greater than or equal to the given ordinal, or -1 if none remain.
+     */
+    static int nextOrdinal(final long[] present,
+                           final int ordinal) {
+        int word = ordinal >> 6;
+        int next = -1;
+
+        if (word < present.length) {
+            long bits = present[word] & (-1L << ordinal);
+
+            for (; ; ) {
+                if (0 != bits) {
+                    next = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    break;
+                }
+                word++;
+                if (word == present.length) {
+                    break;
+                }
+                bits = present[word];
+            }
+        }
+
+        return next;
+    }
+
+    private static long[] setBit(final long[] present,
+                                 final int ordinal) {
+        final int word = ordinal >> 6;
+        final long[] copy = Arrays.copyOf(present, Math.max(present.length, word + 1));
+        copy[word] |= 1L << ordinal;
+        return copy;
+    }
+
+    /**
+     * Clears the bit for the given ordinal, also dropping trailing words that become zero.
+     */
+    private static long[] clearBit(final long[] present,
+                                   final int ordinal) {
+        final long[] copy = present.clone();
+        copy[ordinal >> 6] &= ~(1L << ordinal);
+
+        int length = copy.length;
+        while (length > 0 && 0 == copy[length - 1]) {
+            length--;
+        }
+
+        return length == copy.length ?
+                copy :
+                Arrays.copyOf(copy, length);
+    }
+
+    // Object...........................................................................................................
+
+    @Override
+    public boolean contains(final Object other) {
+        boolean contains = false;
+
+        if (other instanceof Entry) {
+            final Entry<?, ?> entry = (Entry<?, ?>) other;
+            final Object key = entry.getKey();
+            if (key instanceof TextStylePropertyName) {
+                final Object value = this.get((TextStylePropertyName<?>) key);
+                contains = null != value && value.equals(entry.getValue());
+            }
+        }
+
+        return contains;
+    }
+
+    /**
+     * Lazily computes and caches the hash code, which is identical to that of any equal {@link Set} of entries.
+     */
+    @Override
+    public int hashCode() {
+        int hashCode = this.hashCode;
+        if (0 == hashCode) {
+            for (final Entry<TextStylePropertyName<?>, Object> propertyAndValue : this) {
+                hashCode += propertyAndValue.hashCode();
+            }
+            this.hashCode = hashCode;
+        }
+        return hashCode;
+    }
+
+    /**
+     * A cached hash code, zero means it has not been computed or the computed hash was zero.
+     */
+    private int hashCode;
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other ||
+                (other instanceof TextNodeMapEntrySet ?
+                        this.equals0((TextNodeMapEntrySet) other) :
+                        super.equals(other));
+    }
+
+    /**
+     * Both sets are already sorted, so equality is a single pass over their arrays, failing fast on different hashes.
+     */
+    boolean equals0(final TextNodeMapEntrySet other) {
+        return this.hashCode() == other.hashCode() &&
+                Arrays.equals(this.present, other.present) &&
+                Arrays.equals(this.values, other.values) &&
+                this.unknowns.equals(other.unknowns);
+    }
 
     // TextStyleVisitor.................................................................................................
 
     void accept(final TextStyleVisitor visitor) {
-        this.entries
-                .forEach(visitor::acceptPropertyAndValue);
+        this.forEach(visitor::acceptPropertyAndValue);
     }
 
     // JsonNodeContext..................................................................................................
@@ -118,15 +794,15 @@ final class TextNodeMapEntrySet extends AbstractSet<Entry<TextStylePropertyName<
      */
     static TextNodeMapEntrySet fromJson(final JsonNode json,
                                         final JsonNodeUnmarshallContext context) {
-        final Map<TextStylePropertyName<?>, Object> properties = Maps.ordered();
+        final TextStyleBuilder builder = TextStyleBuilder.create();
 
         for (JsonNode child : json.children()) {
             final TextStylePropertyName<?> name = TextStylePropertyName.unmarshall(child);
-            properties.put(name,
+            builder.set0(name,
                     name.handler.unmarshall(child, name, context));
         }
 
-        return with(properties);
+        return builder.buildEntrySet();
     }
 
     /**
@@ -135,7 +811,7 @@ final class TextNodeMapEntrySet extends AbstractSet<Entry<TextStylePropertyName<
     JsonNode toJson(final JsonNodeMarshallContext context) {
         final List<JsonNode> json = Lists.array();
 
-        for (Entry<TextStylePropertyName<?>, Object> propertyAndValue : this.entries) {
+        for (Entry<TextStylePropertyName<?>, Object> propertyAndValue : this) {
             final TextStylePropertyName<?> propertyName = propertyAndValue.getKey();
             final JsonNode value = propertyName.handler.marshall(Cast.to(propertyAndValue.getValue()), context);
 
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+import walkingkooka.collect.map.Maps;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+
+/**
+ * A read only {@link Iterator} over a {@link TextNodeMapEntrySet}, merging the ordinal entries with the unknown
+ * entries so all are returned in {@link TextStylePropertyName} order.
+ */
+final class TextNodeMapEntrySetIterator implements Iterator<Entry<TextStylePropertyName<?>, Object>> {
+
+    static TextNodeMapEntrySetIterator with(final TextNodeMapEntrySet entrySet) {
+        return new TextNodeMapEntrySetIterator(entrySet);
+    }
+
+    private TextNodeMapEntrySetIterator(final TextNodeMapEntrySet entrySet) {
+        super();
+        this.present = entrySet.present;
+        this.values = entrySet.values;
+        this.unknowns = entrySet.unknowns;
+        this.ordinal = TextNodeMapEntrySet.nextOrdinal(this.present, 0);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return -1 != this.ordinal || this.unknownIndex < this.unknowns.size();
+    }
+
+    @Override
+    public Entry<TextStylePropertyName<?>, Object> next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        final int ordinal = this.ordinal;
+        final List<Entry<TextStylePropertyName<?>, Object>> unknowns = this.unknowns;
+        final int unknownIndex = this.unknownIndex;
+
+        final Entry<TextStylePropertyName<?>, Object> next;
+
+        if (-1 != ordinal) {
+            final TextStylePropertyName<?> propertyName = TextStylePropertyName.ORDINALS[ordinal];
+
+            if (unknownIndex < unknowns.size() && unknowns.get(unknownIndex).getKey().compareTo(propertyName) < 0) {
+                next = unknowns.get(unknownIndex);
+                this.unknownIndex++;
+            } else {
+                next = Maps.entry(propertyName, this.values[this.valueIndex]);
+                this.valueIndex++;
+                this.ordinal = TextNodeMapEntrySet.nextOrdinal(this.present, ordinal + 1);
+            }
+        } else {
+            next = unknowns.get(unknownIndex);
+            this.unknownIndex++;
+        }
+
+        return next;
+    }
+
+    private final long[] present;
+
+    private final Object[] values;
+
+    private final List<Entry<TextStylePropertyName<?>, Object>> unknowns;
+
+    /**
+     * The next present ordinal or -1 when none remain.
+     */
+    private int ordinal;
+
+    private int valueIndex;
+
+    private int unknownIndex;
+
+    @Override
+    public String toString() {
+        return this.hasNext() ?
+                String.valueOf(-1 != this.ordinal ? TextStylePropertyName.ORDINALS[this.ordinal] : this.unknowns.get(this.unknownIndex).getKey()) :
+                "";
+    }
+}
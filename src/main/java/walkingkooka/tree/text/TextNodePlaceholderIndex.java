@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.text;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of the {@link TextPlaceholderNode placeholders} within a {@link TextNode}, mapping each
+ * {@link TextPlaceholderName} to the child index paths of its occurrences in the order they appear. Built with a
+ * single walk of the tree.
+ */
+final class TextNodePlaceholderIndex {
+
+    static TextNodePlaceholderIndex with(final TextNode node) {
+        final Map<TextPlaceholderName, List<int[]>> paths = Maps.ordered();
+        collect(node, new int[8], 0, paths);
+        return new TextNodePlaceholderIndex(paths);
+    }
+
+    private static void collect(final TextNode node,
+                                final int[] path,
+                                final int depth,
+                                final Map<TextPlaceholderName, List<int[]>> paths) {
+        if (node instanceof TextPlaceholderNode) {
+            paths.computeIfAbsent(((TextPlaceholderNode) node).value(), (n) -> Lists.array())
+                    .add(Arrays.copyOf(path, depth));
+        } else {
+            if (node instanceof TextParentNode) {
+                final List<TextNode> children = ((TextParentNode) node).children;
+                final int count = children.size();
+
+                final int[] childPath = depth < path.length ?
+                        path :
+                        Arrays.copyOf(path, depth * 2);
+                for (int i = 0; i < count; i++) {
+                    childPath[depth] = i;
+                    collect(children.get(i), childPath, depth + 1, paths);
+                }
+            }
+        }
+    }
+
+    private TextNodePlaceholderIndex(final Map<TextPlaceholderName, List<int[]>> paths) {
+        super();
+        this.paths = paths;
+    }
+
+    /**
+     * The child index paths from the indexed node to each occurrence by name.
+     */
+    final Map<TextPlaceholderName, List<int[]>> paths;
+
+    @Override
+    public String toString() {
+        return this.paths.keySet().toString();
+    }
+}
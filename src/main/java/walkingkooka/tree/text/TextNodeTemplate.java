@@ -0,0 +1,310 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.text;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.set.Sets;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A {@link TextNode} with {@link TextPlaceholderNode placeholders} compiled once so it may be rendered many times with
+ * different values, such as a mail merge.
+ * <br>
+ * Compiling flattens the tree into a post order program where each subtree without placeholders is a single shared
+ * step, so rendering is a single linear pass that only creates the ancestors of placeholders. The text of the template
+ * is also compiled into the static text between placeholders.
+ * <br>
+ * A placeholder without a value, where the {@link Function} returns null, is rendered as is. Templates are immutable
+ * and may be rendered concurrently.
+ */
+public final class TextNodeTemplate {
+
+    /**
+     * Compiles the given {@link TextNode} into a {@link TextNodeTemplate}.
+     */
+    public static TextNodeTemplate with(final TextNode template) {
+        Objects.requireNonNull(template, "template");
+
+        return new TextNodeTemplate(template.removeParent0());
+    }
+
+    private TextNodeTemplate(final TextNode template) {
+        super();
+        this.template = template;
+
+        final List<TextNode> steps = Lists.array();
+        final List<Integer> childCounts = Lists.array();
+        compile(template, steps, childCounts);
+
+        final int count = steps.size();
+        this.steps = steps.toArray(new TextNode[0]);
+        this.childCounts = new int[count];
+
+        int height = 0;
+        int maxHeight = 0;
+        for (int i = 0; i < count; i++) {
+            final int childCount = childCounts.get(i);
+            this.childCounts[i] = childCount;
+
+            height = height - Math.max(childCount, 0) + 1;
+            maxHeight = Math.max(maxHeight, height);
+        }
+        this.maxHeight = maxHeight;
+
+        final List<String> texts = Lists.array();
+        final List<TextPlaceholderNode> placeholders = Lists.array();
+        final StringBuilder text = new StringBuilder();
+        compileText(template, text, texts, placeholders);
+        texts.add(text.toString());
+
+        this.texts = texts.toArray(new String[0]);
+        this.placeholders = placeholders.toArray(new TextPlaceholderNode[0]);
+        this.textLength = template.textLength();
+    }
+
+    /**
+     * Adds the steps for the given parentless node, returning true if it contains any placeholders. The steps of the
+     * children of a parent without placeholders are replaced by a single step for the parent itself.
+     */
+    private static boolean compile(final TextNode node,
+                                   final List<TextNode> steps,
+                                   final List<Integer> childCounts) {
+        boolean placeholders = false;
+
+        if (node instanceof TextParentNode) {
+            final List<TextNode> children = ((TextParentNode) node).children;
+            final int start = steps.size();
+
+            for (final TextNode child : children) {
+                placeholders |= compile(child, steps, childCounts);
+            }
+
+            if (placeholders) {
+                steps.add(node);
+                childCounts.add(children.size());
+            } else {
+                steps.subList(start, steps.size()).clear();
+                childCounts.subList(start, childCounts.size()).clear();
+
+                steps.add(node);
+                childCounts.add(STATIC);
+            }
+        } else {
+            placeholders = node instanceof TextPlaceholderNode;
+
+            steps.add(node);
+            childCounts.add(STATIC);
+        }
+
+        return placeholders;
+    }
+
+    /**
+     * The child count for a step that pushes a shared subtree or placeholder value.
+     */
+    private final static int STATIC = -1;
+
+    private static void compileText(final TextNode node,
+                                    final StringBuilder text,
+                                    final List<String> texts,
+                                    final List<TextPlaceholderNode> placeholders) {
+        if (node instanceof TextPlaceholderNode) {
+            texts.add(text.toString());
+            text.setLength(0);
+            placeholders.add((TextPlaceholderNode) node);
+        } else {
+            if (node instanceof TextParentNode) {
+                for (final TextNode child : ((TextParentNode) node).children) {
+                    compileText(child, text, texts, placeholders);
+                }
+            } else {
+                text.append(node.text());
+            }
+        }
+    }
+
+    /**
+     * The template without a parent.
+     */
+    public TextNode template() {
+        return this.template;
+    }
+
+    private final TextNode template;
+
+    /**
+     * Returns the names of all placeholders in the order they appear.
+     */
+    public Set<TextPlaceholderName> placeholders() {
+        final Set<TextPlaceholderName> names = Sets.ordered();
+        for (final TextPlaceholderNode placeholder : this.placeholders) {
+            names.add(placeholder.value());
+        }
+        return Sets.readOnly(names);
+    }
+
+    // render...........................................................................................................
+
+    /**
+     * Renders this template replacing each placeholder with the {@link TextNode} in the given {@link Map}.
+     */
+    public TextNode render(final Map<TextPlaceholderName, TextNode> values) {
+        Objects.requireNonNull(values, "values");
+
+        return this.render(values::get);
+    }
+
+    /**
+     * Renders this template replacing each placeholder with the {@link TextNode} returned by the given {@link Function}.
+     * Subtrees without placeholders are shared with the template and all other renders.
+     */
+    public TextNode render(final Function<TextPlaceholderName, TextNode> values) {
+        Objects.requireNonNull(values, "values");
+
+        final TextNode[] steps = this.steps;
+        final int[] childCounts = this.childCounts;
+        final TextNode[] stack = new TextNode[this.maxHeight];
+        final List<TextNode> stackList = Arrays.asList(stack);
+        int top = 0;
+
+        for (int i = 0; i < steps.length; i++) {
+            final TextNode step = steps[i];
+            final int childCount = childCounts[i];
+
+            final TextNode rendered;
+            if (childCount >= 0) {
+                top -= childCount;
+                rendered = ((TextParentNode) step).replace0(TextNode.NO_INDEX, stackList.subList(top, top + childCount));
+            } else {
+                rendered = step instanceof TextPlaceholderNode ?
+                        value((TextPlaceholderNode) step, values) :
+                        step;
+            }
+            stack[top++] = rendered;
+        }
+
+        return stack[0].removeParent0();
+    }
+
+    /**
+     * Renders the text of this template replacing each placeholder with the text of the {@link TextNode} in the
+     * given {@link Map}.
+     */
+    public String renderText(final Map<TextPlaceholderName, TextNode> values) {
+        Objects.requireNonNull(values, "values");
+
+        return this.renderText(values::get);
+    }
+
+    /**
+     * Renders the text of this template replacing each placeholder with the text of the {@link TextNode} returned by
+     * the given {@link Function}, which is the same as the text of {@link #render(Function)}.
+     */
+    public String renderText(final Function<TextPlaceholderName, TextNode> values) {
+        Objects.requireNonNull(values, "values");
+
+        final String[] texts = this.texts;
+        final TextPlaceholderNode[] placeholders = this.placeholders;
+
+        final StringBuilder b = new StringBuilder(this.textLength);
+        b.append(texts[0]);
+        for (int i = 0; i < placeholders.length; i++) {
+            b.append(value(placeholders[i], values).text());
+            b.append(texts[i + 1]);
+        }
+        return b.toString();
+    }
+
+    /**
+     * Renders the text of this template to the given {@link Appendable}, see {@link #renderText(Map)}.
+     */
+    public void renderText(final Map<TextPlaceholderName, TextNode> values,
+                           final Appendable output) throws IOException {
+        Objects.requireNonNull(values, "values");
+
+        this.renderText(values::get, output);
+    }
+
+    /**
+     * Renders the text of this template to the given {@link Appendable}, see {@link #renderText(Function)}.
+     */
+    public void renderText(final Function<TextPlaceholderName, TextNode> values,
+                           final Appendable output) throws IOException {
+        Objects.requireNonNull(values, "values");
+        Objects.requireNonNull(output, "output");
+
+        final String[] texts = this.texts;
+        final TextPlaceholderNode[] placeholders = this.placeholders;
+
+        output.append(texts[0]);
+        for (int i = 0; i < placeholders.length; i++) {
+            output.append(value(placeholders[i], values).text());
+            output.append(texts[i + 1]);
+        }
+    }
+
+    private static TextNode value(final TextPlaceholderNode placeholder,
+                                  final Function<TextPlaceholderName, TextNode> values) {
+        final TextNode value = values.apply(placeholder.value());
+        return null != value ?
+                value :
+                placeholder;
+    }
+
+    /**
+     * The post order steps, each either a shared {@link TextNode}, a {@link TextPlaceholderNode} or a
+     * {@link TextParentNode} whose children are popped from the stack.
+     */
+    private final TextNode[] steps;
+
+    /**
+     * The number of children popped by each step, or {@link #STATIC}.
+     */
+    private final int[] childCounts;
+
+    /**
+     * The maximum height of the stack while rendering.
+     */
+    private final int maxHeight;
+
+    /**
+     * The static text before, between and after each placeholder, which always has one more element than
+     * {@link #placeholders}.
+     */
+    private final String[] texts;
+
+    private final TextPlaceholderNode[] placeholders;
+
+    /**
+     * The length of the static text, used to size the rendered text.
+     */
+    private final int textLength;
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return this.template.toString();
+    }
+}
@@ -19,7 +19,6 @@ package walkingkooka.tree.text;
 
 import walkingkooka.ToStringBuilder;
 import walkingkooka.collect.list.Lists;
-import walkingkooka.text.HasText;
 import walkingkooka.text.printer.IndentingPrinter;
 import walkingkooka.tree.json.JsonObject;
 import walkingkooka.tree.json.JsonPropertyName;
@@ -28,7 +27,6 @@ import walkingkooka.tree.json.marshall.JsonNodeMarshallContext;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * A parent holding zero or more child expressions.
@@ -42,27 +40,60 @@ abstract class TextParentNode extends TextNode {
     TextParentNode(final int index, final List<TextNode> children) {
         super(index);
 
-        final Optional<TextNode> p = Optional.of(this);
-
         final List<TextNode> copy = Lists.array();
-        this.children = Lists.readOnly(copy);
-
-        int i = 0;
+        int textLength = 0;
         for (TextNode child : children) {
-            copy.add(child.setParent(p, i));
-            i++;
+            copy.add(child.removeParent0());
+            textLength += child.textLength();
         }
+        this.children = Lists.readOnly(copy);
+        this.textLength = textLength;
     }
 
     // children.........................................................................................................
 
+    /**
+     * Returns the children each with this as their parent. These are created on demand the first time and then cached,
+     * which means creating or copying a parent never copies the nodes below it.
+     */
     @Override
     public final List<TextNode> children() {
-        return this.children;
+        List<TextNode> childrenWithParent = this.childrenWithParent;
+
+        if (null == childrenWithParent) {
+            final List<TextNode> children = this.children;
+
+            if (children.isEmpty()) {
+                childrenWithParent = children;
+            } else {
+                final Optional<TextNode> p = Optional.of(this);
+                final List<TextNode> copy = Lists.array();
+
+                int i = 0;
+                for (TextNode child : children) {
+                    copy.add(child.setParent(p, i));
+                    i++;
+                }
+                childrenWithParent = Lists.readOnly(copy);
+            }
+
+            this.childrenWithParent = childrenWithParent;
+        }
+
+        return childrenWithParent;
     }
 
+    /**
+     * The children without any parent, which are shared by all copies of this node, such as when this node is given a
+     * new parent or index.
+     */
     final List<TextNode> children;
 
+    /**
+     * Lazily created children with this as their parent, see {@link #children()}.
+     */
+    private List<TextNode> childrenWithParent;
+
     /**
      * Sub classes should call this and cast the returned value to their type.
      */
@@ -70,7 +101,7 @@ abstract class TextParentNode extends TextNode {
         Objects.requireNonNull(children, "children");
 
         final List<TextNode> copy = Lists.immutable(children);
-        return Lists.equals(this.children(), copy, (first, other) -> first.equalsIgnoringParentAndChildren(other) && first.equalsDescendants0(other)) ?
+        return Lists.equals(this.children, copy, (first, other) -> first.equalsIgnoringParentAndChildren(other) && first.equalsDescendants0(other)) ?
                 this :
                 this.replaceChildren(copy);
     }
@@ -78,15 +109,18 @@ abstract class TextParentNode extends TextNode {
     @Override
     final TextNode setChild(final TextNode newChild, final int index) {
         //int index = newChild.index();
-        final TextNode previous = this.children().get(index);
+        final TextNode previous = this.children.get(index);
         return previous.equalsIgnoringParentAndChildren(newChild) && previous.equalsDescendants(newChild) ?
                 this :
                 this.replaceChild0(newChild, index);
     }
 
+    /**
+     * Only the replaced child is changed, all other children are shared with this node.
+     */
     private TextNode replaceChild0(final TextNode newChild, final int index) {
         final List<TextNode> newChildren = Lists.array();
-        newChildren.addAll(this.children());
+        newChildren.addAll(this.children);
         newChildren.set(index, newChild);
 
         return this.replaceChildren(newChildren);
@@ -99,9 +133,12 @@ abstract class TextParentNode extends TextNode {
                 .cast();
     }
 
+    /**
+     * Creates a copy with the given index, sharing the children without parents.
+     */
     @Override
     final TextNode replace(final int index) {
-        return this.replace0(index, this.children());
+        return this.replace0(index, this.children);
     }
 
     abstract TextParentNode replace0(final int index, final List<TextNode> children);
@@ -110,21 +147,130 @@ abstract class TextParentNode extends TextNode {
 
     /**
      * Combine the text of all children(descendants). Note property names and indices will not be included.
+     * The text is built once on demand and then cached.
      */
     @Override
     public String text() {
-        return this.children().stream()
-                .map(HasText::text)
-                .collect(Collectors.joining());
+        String text = this.text;
+
+        if (null == text) {
+            final StringBuilder b = new StringBuilder(this.textLength);
+            for (final TextNode child : this.children) {
+                b.append(child.text());
+            }
+            text = b.toString();
+            this.text = text;
+        }
+
+        return text;
     }
 
+    /**
+     * Lazily built cached text, as a {@link String} is immutable racing readers at worst build equal copies.
+     */
+    private String text;
+
+    /**
+     * Returns the text length which is computed from the children when this node is created.
+     */
     @Override
     public int textLength() {
-        return this.children().stream()
-                .mapToInt(HasText::textLength)
-                .sum();
+        return this.textLength;
+    }
+
+    private final int textLength;
+
+    @Override
+    final int childTextOffset(final int index) {
+        return this.textOffset() + this.childTextOffsets()[index];
     }
 
+    @Override
+    final TextNode leafAt0(final int offset) {
+        final int index = this.childIndexAt(offset);
+
+        return this.childWithParent(index)
+                .leafAt0(offset - this.childTextOffsets()[index]);
+    }
+
+    @Override
+    final void leavesInRange0(final int start,
+                              final int end,
+                              final List<TextNode> leaves) {
+        final int[] offsets = this.childTextOffsets();
+        final int count = this.children.size();
+
+        for (int i = this.childIndexAt(start); i < count && offsets[i] < end; i++) {
+            final int childStart = offsets[i];
+            final int childLength = offsets[i + 1] - childStart;
+
+            if (childLength > 0) {
+                this.childWithParent(i)
+                        .leavesInRange0(Math.max(0, start - childStart),
+                                Math.min(childLength, end - childStart),
+                                leaves);
+            }
+        }
+    }
+
+    /**
+     * Returns the child at the given index with this as its parent, reusing {@link #children()} if they have already
+     * been created, so that a lookup only gives parents to the nodes along its path rather than every sibling.
+     */
+    private TextNode childWithParent(final int index) {
+        final List<TextNode> childrenWithParent = this.childrenWithParent;
+
+        return null != childrenWithParent ?
+                childrenWithParent.get(index) :
+                this.children.get(index).setParent(Optional.of(this), index);
+    }
+
+    /**
+     * Binary searches the child offsets for the child with text containing the given offset, skipping children
+     * without text.
+     */
+    private int childIndexAt(final int offset) {
+        final int[] offsets = this.childTextOffsets();
+
+        int low = 0;
+        int high = this.children.size() - 1;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (offsets[mid + 1] > offset) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Lazily computed prefix sums of child text lengths, where the element at an index is the offset of that child
+     * and the last element is the {@link #textLength()}.
+     */
+    private int[] childTextOffsets() {
+        int[] offsets = this.childTextOffsets;
+
+        if (null == offsets) {
+            final List<TextNode> children = this.children;
+            final int count = children.size();
+
+            offsets = new int[count + 1];
+            for (int i = 0; i < count; i++) {
+                offsets[i + 1] = offsets[i] + children.get(i).textLength();
+            }
+            this.childTextOffsets = offsets;
+        }
+
+        return offsets;
+    }
+
+    /**
+     * A cache of child offsets, a racing reader at worst computes an equal array.
+     */
+    private int[] childTextOffsets;
+
     // JsonNodeContext..................................................................................................
 
     /**
@@ -132,7 +278,7 @@ abstract class TextParentNode extends TextNode {
      */
     final JsonObject addChildrenValuesJson(final JsonObject node,
                                                final JsonNodeMarshallContext context) {
-        final List<TextNode> children = this.children();
+        final List<TextNode> children = this.children;
         return children.isEmpty() ?
                 node :
                 node.set(CHILDREN_PROPERTY, context.marshallWithTypeCollection(children));
@@ -166,7 +312,7 @@ abstract class TextParentNode extends TextNode {
 
     final void printChildren(final IndentingPrinter printer) {
         printer.indent();
-        for (final TextNode child : this.children()) {
+        for (final TextNode child : this.children) {
             child.printTree(printer);
         }
         printer.outdent();
@@ -176,18 +322,20 @@ abstract class TextParentNode extends TextNode {
 
     @Override
     public final int hashCode() {
-        return this.children().hashCode();
+        return this.children.hashCode();
     }
 
     final boolean equalsDescendants0(final TextNode other) {
-        return this.equalsDescendants1(other.children());
+        return this.equalsDescendants1(other instanceof TextParentNode ?
+                ((TextParentNode) other).children :
+                other.children());
     }
 
     /**
      * Only returns true if the descendants of this node and the given children are equal ignoring the parents.
      */
     private boolean equalsDescendants1(final List<TextNode> otherChildren) {
-        final List<TextNode> children = this.children();
+        final List<TextNode> children = this.children;
         final int count = children.size();
         boolean equals = count == otherChildren.size();
 
@@ -206,7 +354,7 @@ abstract class TextParentNode extends TextNode {
         this.buildToStringBefore(b);
 
         b.surroundValues("[", "]");
-        b.value(new Object[]{this.children()});
+        b.value(new Object[]{this.children});
     }
 
     abstract void buildToStringBefore(final ToStringBuilder b);
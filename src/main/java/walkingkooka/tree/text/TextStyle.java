@@ -19,7 +19,7 @@ package walkingkooka.tree.text;
 
 import walkingkooka.Cast;
 import walkingkooka.Value;
-import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.list.Lists;
 import walkingkooka.text.printer.TreePrintable;
 import walkingkooka.tree.json.JsonNode;
 import walkingkooka.tree.json.marshall.JsonNodeContext;
@@ -52,6 +52,13 @@ public abstract class TextStyle implements Value<Map<TextStylePropertyName<?>, O
         return withTextStyleMap(TextNodeMap.with(value));
     }
 
+    /**
+     * Returns a {@link TextStyleBuilder} which may be used to create a {@link TextStyle} with many properties.
+     */
+    public static TextStyleBuilder builder() {
+        return TextStyleBuilder.create();
+    }
+
     static TextStyle withTextStyleMap(final TextNodeMap map) {
         return map.isEmpty() ?
                 EMPTY :
@@ -94,10 +101,86 @@ public abstract class TextStyle implements Value<Map<TextStylePropertyName<?>, O
         return this.merge0(textStyle);
     }
 
+    /**
+     * Merges the two {@link TextStyle} like {@link #merge(TextStyle)}, using the given {@link TextStyleMergeCache} to
+     * return a previously merged result for the same two instances.
+     */
+    public final TextStyle merge(final TextStyle textStyle,
+                                 final TextStyleMergeCache cache) {
+        Objects.requireNonNull(textStyle, "textStyle");
+        Objects.requireNonNull(cache, "cache");
+
+        return cache.merge(this, textStyle);
+    }
+
     abstract TextStyle merge0(final TextStyle textStyle);
 
     abstract TextStyle merge1(final TextStyleNonEmpty textStyle);
 
+    /**
+     * Merges all the given {@link TextStyle} in a single pass, with earlier styles having priority, giving the same
+     * result as <code>styles[0].merge(styles[1]).merge(styles[2])...</code> without creating any intermediate styles.
+     * If the result would be equal to one of the given styles that style is returned.
+     * This is useful for a cascade such as cell, row, column then sheet default styles.
+     */
+    public static TextStyle mergeAll(final List<TextStyle> styles) {
+        Objects.requireNonNull(styles, "styles");
+
+        final List<TextStyle> nonEmpty = Lists.array();
+        final List<TextNodeMapEntrySet> entrySets = Lists.array();
+
+        for (final TextStyle style : styles) {
+            Objects.requireNonNull(style, "styles includes null");
+
+            if (!style.isEmpty()) {
+                nonEmpty.add(style);
+                entrySets.add(style.textStyleMap().entries);
+            }
+        }
+
+        final TextStyle merged;
+        switch (nonEmpty.size()) {
+            case 0:
+                merged = EMPTY;
+                break;
+            case 1:
+                merged = nonEmpty.get(0);
+                break;
+            default:
+                merged = mergeAll0(nonEmpty, entrySets);
+                break;
+        }
+
+        return merged;
+    }
+
+    /**
+     * Merges the entries of two or more non empty styles, returning the style whose entries were returned unchanged.
+     */
+    private static TextStyle mergeAll0(final List<TextStyle> styles,
+                                       final List<TextNodeMapEntrySet> entrySets) {
+        final TextNodeMapEntrySet merged = TextNodeMapEntrySet.mergeAll(entrySets);
+
+        TextStyle style = null;
+        for (int i = 0; i < entrySets.size(); i++) {
+            if (merged == entrySets.get(i)) {
+                style = styles.get(i);
+                break;
+            }
+        }
+
+        return null != style ?
+                style :
+                withTextStyleMap(TextNodeMap.with1(merged));
+    }
+
+    // inherited........................................................................................................
+
+    /**
+     * Returns a {@link TextStyle} with only the {@link TextStylePropertyName#isInherited() inherited} properties.
+     */
+    abstract TextStyle inherited();
+
     // replace............................................................................................................
 
     /**
@@ -204,6 +287,30 @@ public abstract class TextStyle implements Value<Map<TextStylePropertyName<?>, O
     @Override
     abstract public String toString();
 
+    // css..............................................................................................................
+
+    /**
+     * Parses css declarations such as <code>font-weight: bold; color: #123; padding-left: 4px</code> into a
+     * {@link TextStyle}, the inverse of {@link #toCss()}. Values are converted using the given
+     * {@link JsonNodeUnmarshallContext}. Invalid text fails with a {@link TextNodeException} that includes the offset
+     * of the problem.
+     */
+    public static TextStyle parseCss(final CharSequence text,
+                                     final JsonNodeUnmarshallContext context) {
+        Objects.requireNonNull(text, "text");
+        Objects.requireNonNull(context, "context");
+
+        return TextStyleCssParser.parse(text, context);
+    }
+
+    /**
+     * Returns the properties of this style as css declarations separated by <code>; </code>. The text is built once
+     * and cached.
+     */
+    public final String toCss() {
+        return this.textStyleMap().css();
+    }
+
     // JsonNodeContext..................................................................................................
 
     /**
@@ -211,15 +318,15 @@ public abstract class TextStyle implements Value<Map<TextStylePropertyName<?>, O
      */
     static TextStyle unmarshall(final JsonNode node,
                                 final JsonNodeUnmarshallContext context) {
-        final Map<TextStylePropertyName<?>, Object> properties = Maps.ordered();
+        final TextStyleBuilder builder = builder();
 
         for (JsonNode child : node.objectOrFail().children()) {
             final TextStylePropertyName<?> name = TextStylePropertyName.unmarshall(child);
-            properties.put(name,
+            builder.set0(name,
                     name.handler.unmarshall(child, name, context));
         }
 
-        return with(properties);
+        return builder.build();
     }
 
     abstract JsonNode marshall(final JsonNodeMarshallContext context);
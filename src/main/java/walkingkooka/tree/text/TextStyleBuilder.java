@@ -0,0 +1,205 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.stream.Collector;
+
+/**
+ * A mutable single use builder that collects properties, validating each value once, and then creates a
+ * {@link TextStyle} sorting once. Setting the same property again replaces the previous value.
+ * <pre>
+ * TextStyle.builder()
+ *     .set(TextStylePropertyName.COLOR, Color.BLACK)
+ *     .set(TextStylePropertyName.FONT_WEIGHT, FontWeight.BOLD)
+ *     .build();
+ * </pre>
+ */
+public final class TextStyleBuilder {
+
+    /**
+     * Creates a new empty {@link TextStyleBuilder}.
+     */
+    static TextStyleBuilder create() {
+        return new TextStyleBuilder();
+    }
+
+    /**
+     * A {@link Collector} that sets each property and value into a {@link TextStyleBuilder} and then builds a
+     * {@link TextStyle}.
+     */
+    public static Collector<Entry<TextStylePropertyName<?>, Object>, TextStyleBuilder, TextStyle> collector() {
+        return Collector.of(TextStyleBuilder::create,
+                TextStyleBuilder::setEntry,
+                TextStyleBuilder::setAll,
+                TextStyleBuilder::build);
+    }
+
+    /**
+     * Private ctor use factory.
+     */
+    private TextStyleBuilder() {
+        super();
+    }
+
+    /**
+     * Sets a property and value, after validating the value.
+     */
+    public <V> TextStyleBuilder set(final TextStylePropertyName<V> propertyName,
+                                    final V value) {
+        Objects.requireNonNull(propertyName, "propertyName");
+
+        return this.set0(propertyName, value);
+    }
+
+    private void setEntry(final Entry<TextStylePropertyName<?>, Object> propertyAndValue) {
+        final TextStylePropertyName<?> propertyName = propertyAndValue.getKey();
+        Objects.requireNonNull(propertyName, "propertyName");
+
+        this.set0(propertyName, propertyAndValue.getValue());
+    }
+
+    /**
+     * Sets a property and value from json or some other source where the value has an unknown type.
+     */
+    TextStyleBuilder set0(final TextStylePropertyName<?> propertyName,
+                          final Object value) {
+        this.checkNotBuilt();
+        propertyName.check(value);
+
+        final int ordinal = propertyName.ordinal;
+        if (TextStylePropertyName.UNKNOWN_ORDINAL == ordinal) {
+            this.setUnknown(propertyName, value);
+        } else {
+            this.ordinals[ordinal] = value;
+        }
+        return this;
+    }
+
+    private void setUnknown(final TextStylePropertyName<?> propertyName,
+                            final Object value) {
+        final List<Entry<TextStylePropertyName<?>, Object>> unknowns = this.unknowns;
+        final Entry<TextStylePropertyName<?>, Object> entry = Maps.entry(propertyName, value);
+
+        final int count = unknowns.size();
+        int i = 0;
+        while (i < count) {
+            if (propertyName.equals(unknowns.get(i).getKey())) {
+                unknowns.set(i, entry);
+                break;
+            }
+            i++;
+        }
+
+        if (i == count) {
+            unknowns.add(entry);
+        }
+    }
+
+    /**
+     * Used by {@link #collector()} to combine two partial builders, properties in the given builder replacing any here.
+     */
+    private TextStyleBuilder setAll(final TextStyleBuilder other) {
+        this.checkNotBuilt();
+        other.checkNotBuilt();
+
+        final Object[] ordinals = this.ordinals;
+        final Object[] otherOrdinals = other.ordinals;
+        for (int i = 0; i < ordinals.length; i++) {
+            final Object value = otherOrdinals[i];
+            if (null != value) {
+                ordinals[i] = value;
+            }
+        }
+
+        for (final Entry<TextStylePropertyName<?>, Object> propertyAndValue : other.unknowns) {
+            this.setUnknown(propertyAndValue.getKey(), propertyAndValue.getValue());
+        }
+
+        return this;
+    }
+
+    /**
+     * Creates the {@link TextStyle}, after which this builder may not be used.
+     */
+    public TextStyle build() {
+        return TextStyle.withTextStyleMap(TextNodeMap.with1(this.buildEntrySet()));
+    }
+
+    /**
+     * Packs the collected properties into a {@link TextNodeMapEntrySet} and marks this builder as used.
+     */
+    TextNodeMapEntrySet buildEntrySet() {
+        this.checkNotBuilt();
+        this.built = true;
+
+        return TextNodeMapEntrySet.withOrdinals(this.ordinals, this.unknowns);
+    }
+
+    private void checkNotBuilt() {
+        if (this.built) {
+            throw new IllegalStateException("Builder already built");
+        }
+    }
+
+    /**
+     * Values indexed by {@link TextStylePropertyName#ordinal}, null being absent.
+     */
+    private final Object[] ordinals = new Object[TextStylePropertyName.ORDINALS.length];
+
+    /**
+     * Properties without an ordinal, unsorted until built.
+     */
+    private final List<Entry<TextStylePropertyName<?>, Object>> unknowns = Lists.array();
+
+    private boolean built;
+
+    @Override
+    public String toString() {
+        final StringBuilder b = new StringBuilder();
+        final Object[] ordinals = this.ordinals;
+
+        for (int i = 0; i < ordinals.length; i++) {
+            final Object value = ordinals[i];
+            if (null != value) {
+                append(TextStylePropertyName.ORDINALS[i], value, b);
+            }
+        }
+        for (final Entry<TextStylePropertyName<?>, Object> propertyAndValue : this.unknowns) {
+            append(propertyAndValue.getKey(), propertyAndValue.getValue(), b);
+        }
+
+        return b.toString();
+    }
+
+    private static void append(final TextStylePropertyName<?> propertyName,
+                               final Object value,
+                               final StringBuilder b) {
+        if (b.length() > 0) {
+            b.append(", ");
+        }
+        b.append(propertyName)
+                .append('=')
+                .append(value);
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.text;
+
+import walkingkooka.tree.json.JsonNode;
+
+import java.util.Map.Entry;
+
+/**
+ * Converts the properties of a {@link TextStyle} to css declaration text such as
+ * <code>color: #123456; font-weight: bold; padding-left: 4px</code>, and helps {@link TextStyleCssParser} with the
+ * inverse.
+ * <br>
+ * Enum values are written in lower case with underscores replaced by dashes, {@link FontSize} in points,
+ * {@link Opacity} as a number between 0 and 1, and all other values use their {@link Object#toString()}, which for
+ * {@link Length} and the other value types is already css. Values such as those of unknown properties may hold any
+ * text, so characters that could end the declaration or rule are escaped.
+ */
+final class TextStyleCss {
+
+    /**
+     * Returns the css declarations for the given properties, separated by <code>; </code>.
+     */
+    static String declarations(final TextNodeMap properties) {
+        final StringBuilder b = new StringBuilder();
+
+        String separator = "";
+        for (final Entry<TextStylePropertyName<?>, Object> nameAndValue : properties.entrySet()) {
+            b.append(separator);
+            declaration(nameAndValue.getKey(), nameAndValue.getValue(), b);
+            separator = DECLARATION_SEPARATOR;
+        }
+
+        return b.toString();
+    }
+
+    final static String DECLARATION_SEPARATOR = "; ";
+
+    /**
+     * Returns the css declaration for a single property, such as <code>font-weight: bold</code>.
+     */
+    static String declaration(final TextStylePropertyName<?> name,
+                              final Object value) {
+        final StringBuilder b = new StringBuilder();
+        declaration(name, value, b);
+        return b.toString();
+    }
+
+    private static void declaration(final TextStylePropertyName<?> name,
+                                    final Object value,
+                                    final StringBuilder b) {
+        b.append(name.value())
+                .append(": ");
+        value(value, b);
+    }
+
+    private static void value(final Object value,
+                              final StringBuilder b) {
+        if (value instanceof Enum) {
+            final String name = ((Enum<?>) value).name();
+            final int length = name.length();
+
+            for (int i = 0; i < length; i++) {
+                final char c = name.charAt(i);
+                b.append('_' == c ?
+                        '-' :
+                        Character.toLowerCase(c));
+            }
+        } else if (value instanceof Opacity) {
+            number(((Opacity) value).value(), b);
+        } else {
+            escape(value.toString(), b);
+            if (value instanceof FontSize) {
+                b.append(FONT_SIZE_UNIT);
+            }
+        }
+    }
+
+    final static String FONT_SIZE_UNIT = "pt";
+
+    /**
+     * Backslash escapes <code>{</code>, <code>}</code> and <code>;</code>, a backslash outside a quoted string and
+     * a quote without a closing quote, so the value cannot end the declaration or rule it is written within. Escapes
+     * within quoted strings are kept.
+     */
+    private static void escape(final String text,
+                               final StringBuilder b) {
+        final int length = text.length();
+        char quote = 0;
+
+        for (int i = 0; i < length; i++) {
+            final char c = text.charAt(i);
+
+            switch (c) {
+                case '{':
+                case '}':
+                case ';':
+                    b.append('\\');
+                    break;
+                case '\\':
+                    if (0 != quote && i + 1 < length) {
+                        b.append(c);
+                        i++;
+                        b.append(text.charAt(i));
+                        continue;
+                    }
+                    b.append('\\');
+                    break;
+                case '"':
+                case '\'':
+                    if (0 == quote) {
+                        if (isQuoted(text, i)) {
+                            quote = c;
+                        } else {
+                            b.append('\\');
+                        }
+                    } else if (quote == c) {
+                        quote = 0;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            b.append(c);
+        }
+    }
+
+    /**
+     * Returns true if the quote at the given offset has a closing quote before the end or a line break.
+     */
+    private static boolean isQuoted(final String text,
+                                    final int start) {
+        final char quote = text.charAt(start);
+        final int length = text.length();
+        boolean closed = false;
+
+        for (int i = start + 1; i < length; i++) {
+            final char c = text.charAt(i);
+            if ('\\' == c) {
+                i++;
+            } else if (quote == c) {
+                closed = true;
+                break;
+            } else if ('\n' == c || '\r' == c || '\f' == c) {
+                break;
+            }
+        }
+
+        return closed;
+    }
+
+    /**
+     * Writes whole numbers without a fraction, so opaque is written as <code>1</code> rather than <code>1.0</code>.
+     */
+    private static void number(final double value,
+                               final StringBuilder b) {
+        final long whole = (long) value;
+        if (whole == value) {
+            b.append(whole);
+        } else {
+            b.append(value);
+        }
+    }
+
+    // parse............................................................................................................
+
+    /**
+     * Removes the escaping added when a value was written, a backslash outside a quoted string escapes the following
+     * character, while within a quoted string only the escapes of <code>{</code>, <code>}</code> and <code>;</code>
+     * are removed.
+     */
+    static String unescapeValue(final String text) {
+        final int length = text.length();
+        final String unescaped;
+
+        if (-1 == text.indexOf('\\')) {
+            unescaped = text;
+        } else {
+            final StringBuilder b = new StringBuilder(length);
+            char quote = 0;
+
+            for (int i = 0; i < length; i++) {
+                final char c = text.charAt(i);
+
+                if ('\\' == c && i + 1 < length) {
+                    i++;
+                    final char next = text.charAt(i);
+                    if (0 != quote && '{' != next && '}' != next && ';' != next) {
+                        b.append(c);
+                    }
+                    b.append(next);
+                    continue;
+                }
+
+                if (0 == quote) {
+                    if ('"' == c || '\'' == c) {
+                        quote = c;
+                    }
+                } else if (quote == c) {
+                    quote = 0;
+                }
+                b.append(c);
+            }
+
+            unescaped = b.toString();
+        }
+
+        return unescaped;
+    }
+
+    /**
+     * Converts css enum text such as <code>break-word</code> back to the enum name <code>BREAK_WORD</code>.
+     */
+    static String enumName(final String text) {
+        final int length = text.length();
+        final char[] name = new char[length];
+
+        for (int i = 0; i < length; i++) {
+            final char c = text.charAt(i);
+            name[i] = '-' == c ?
+                    '_' :
+                    Character.toUpperCase(c);
+        }
+
+        return new String(name);
+    }
+
+    /**
+     * Creates the json for css value text, for the given value type, which is then unmarshalled. Most values are json
+     * strings holding the same text, except for the numeric forms of {@link FontSize}, {@link FontWeight} and
+     * {@link Opacity}, the percentage form of {@link Opacity}, and the quoted string form of {@link TextOverflow}.
+     */
+    static JsonNode json(final Class<?> type,
+                         final String text) {
+        final JsonNode json;
+
+        if (FontSize.class == type) {
+            json = JsonNode.number(
+                    Integer.parseInt(
+                            text.endsWith(FONT_SIZE_UNIT) ?
+                                    text.substring(0, text.length() - FONT_SIZE_UNIT.length()) :
+                                    text
+                    )
+            );
+        } else if ((FontWeight.class == type || Opacity.class == type) && isNumber(text)) {
+            json = JsonNode.number(Double.parseDouble(text));
+        } else if (Opacity.class == type && text.endsWith(PERCENT) && isNumber(text.substring(0, text.length() - 1))) {
+            json = JsonNode.number(Double.parseDouble(text.substring(0, text.length() - 1)) / 100);
+        } else if (TextOverflow.class == type && text.length() >= 2 && text.startsWith("\"") && text.endsWith("\"")) {
+            json = JsonNode.string(TextOverflow.STRING_PREFIX + unescape(text, 1, text.length() - 1));
+        } else {
+            json = JsonNode.string(text);
+        }
+
+        return json;
+    }
+
+    private final static String PERCENT = "%";
+
+    /**
+     * Accepts digits, a decimal point, a leading minus sign and an exponent such as the <code>1.0E-4</code> written
+     * by {@link Double#toString(double)}.
+     */
+    private static boolean isNumber(final String text) {
+        final int length = text.length();
+        boolean number = length > 0;
+
+        for (int i = 0; number && i < length; i++) {
+            final char c = text.charAt(i);
+            number = c >= '0' && c <= '9' ||
+                    '.' == c ||
+                    'E' == c ||
+                    'e' == c ||
+                    ('-' == c || '+' == c) && (0 == i || 'E' == text.charAt(i - 1) || 'e' == text.charAt(i - 1));
+        }
+
+        return number;
+    }
+
+    /**
+     * Removes the backslash escaping added by {@link walkingkooka.text.CharSequences#quoteAndEscape(CharSequence)}.
+     */
+    private static String unescape(final String text,
+                                   final int start,
+                                   final int end) {
+        final StringBuilder b = new StringBuilder(end - start);
+
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if ('\\' == c && i + 1 < end) {
+                i++;
+                c = text.charAt(i);
+                switch (c) {
+                    case 'n':
+                        c = '\n';
+                        break;
+                    case 'r':
+                        c = '\r';
+                        break;
+                    case 't':
+                        c = '\t';
+                        break;
+                    case '0':
+                        c = '\0';
+                        break;
+                    default:
+                        break;
+                }
+            }
+            b.append(c);
+        }
+
+        return b.toString();
+    }
+
+    /**
+     * Private ctor
+     */
+    private TextStyleCss() {
+        super();
+    }
+}
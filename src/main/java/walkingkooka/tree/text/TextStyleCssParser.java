@@ -0,0 +1,183 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.text;
+
+import walkingkooka.text.CharSequences;
+import walkingkooka.tree.json.marshall.JsonNodeUnmarshallContext;
+
+/**
+ * Parses css declarations such as <code>font-weight: bold; color: #123; padding-left: 4px</code> into a
+ * {@link TextStyle} in a single pass, writing each property directly into a {@link TextStyleBuilder}. Each value is
+ * converted by the {@link TextStylePropertyValueHandler} of its property, and all errors are reported as a
+ * {@link TextNodeException} with the offset of the problem.
+ */
+final class TextStyleCssParser {
+
+    static TextStyle parse(final CharSequence text,
+                           final JsonNodeUnmarshallContext context) {
+        return new TextStyleCssParser(text, context).parse();
+    }
+
+    private TextStyleCssParser(final CharSequence text,
+                               final JsonNodeUnmarshallContext context) {
+        super();
+        this.text = text;
+        this.length = text.length();
+        this.context = context;
+    }
+
+    private TextStyle parse() {
+        final TextStyleBuilder builder = TextStyleBuilder.create();
+
+        for (; ; ) {
+            this.skipWhitespace();
+            if (this.offset == this.length) {
+                break;
+            }
+            if (';' == this.text.charAt(this.offset)) {
+                this.offset++;
+                continue;
+            }
+            this.declaration(builder);
+        }
+
+        return builder.build();
+    }
+
+    private void declaration(final TextStyleBuilder builder) {
+        final CharSequence text = this.text;
+        final int length = this.length;
+
+        final int nameStart = this.offset;
+        while (this.offset < length && isNameChar(text.charAt(this.offset))) {
+            this.offset++;
+        }
+        if (nameStart == this.offset) {
+            this.failInvalidCharacter();
+        }
+        final int nameEnd = this.offset;
+
+        this.skipWhitespace();
+        if (this.offset == length || ':' != text.charAt(this.offset)) {
+            this.failInvalidCharacter();
+        }
+        this.offset++;
+        this.skipWhitespace();
+
+        final int valueStart = this.offset;
+        int valueEnd = valueStart;
+        char quote = 0;
+
+        while (this.offset < length) {
+            final char c = text.charAt(this.offset);
+            if ('\\' == c) {
+                if (this.offset + 1 < length) {
+                    this.offset++; // skip the escaped character
+                }
+            } else if (0 != quote) {
+                if (quote == c) {
+                    quote = 0;
+                }
+            } else {
+                if (';' == c) {
+                    break;
+                }
+                if ('"' == c || '\'' == c) {
+                    quote = c;
+                }
+            }
+            this.offset++;
+            if (!Character.isWhitespace(c)) {
+                valueEnd = this.offset;
+            }
+        }
+
+        if (0 != quote) {
+            this.offset = length;
+            this.fail("Unterminated string");
+        }
+        if (valueStart == valueEnd) {
+            this.failInvalidCharacter();
+        }
+
+        this.property(builder,
+                text.subSequence(nameStart, nameEnd).toString(),
+                nameStart,
+                TextStyleCss.unescapeValue(text.subSequence(valueStart, valueEnd).toString()),
+                valueStart);
+    }
+
+    private void property(final TextStyleBuilder builder,
+                          final String name,
+                          final int nameOffset,
+                          final String value,
+                          final int valueOffset) {
+        final TextStylePropertyName<?> propertyName;
+        try {
+            propertyName = TextStylePropertyName.with(name);
+        } catch (final RuntimeException cause) {
+            throw new TextNodeException("Invalid property " + CharSequences.quoteAndEscape(name) + " at " + nameOffset, cause);
+        }
+
+        try {
+            builder.set0(propertyName, propertyName.handler.parseCss(value, propertyName, this.context));
+        } catch (final RuntimeException cause) {
+            throw new TextNodeException("Invalid value " + CharSequences.quoteAndEscape(value) + " for " + propertyName.inQuotes() + " at " + valueOffset, cause);
+        }
+    }
+
+    private static boolean isNameChar(final char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || '-' == c || '_' == c;
+    }
+
+    private void skipWhitespace() {
+        while (this.offset < this.length && Character.isWhitespace(this.text.charAt(this.offset))) {
+            this.offset++;
+        }
+    }
+
+    private final CharSequence text;
+
+    private final int length;
+
+    /**
+     * Used by handlers that unmarshall values such as {@link walkingkooka.color.Color}.
+     */
+    private final JsonNodeUnmarshallContext context;
+
+    /**
+     * The offset of the next character, used to report the position of errors.
+     */
+    private int offset;
+
+    // errors...........................................................................................................
+
+    private void failInvalidCharacter() {
+        this.fail(this.offset == this.length ?
+                "Unexpected end" :
+                "Invalid character " + CharSequences.quoteIfChars(this.text.charAt(this.offset)));
+    }
+
+    private void fail(final String message) {
+        throw new TextNodeException(message + " at " + this.offset);
+    }
+
+    @Override
+    public String toString() {
+        return "offset " + this.offset;
+    }
+}
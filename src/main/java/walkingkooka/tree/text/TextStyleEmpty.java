@@ -17,7 +17,6 @@
 
 package walkingkooka.tree.text;
 
-import walkingkooka.collect.list.Lists;
 import walkingkooka.collect.map.Maps;
 import walkingkooka.text.printer.IndentingPrinter;
 import walkingkooka.tree.json.JsonNode;
@@ -78,6 +77,13 @@ final class TextStyleEmpty extends TextStyle {
         return textStyle; // EMPTY merge NOTEMPTY -> NOTEMPTY
     }
 
+    // inherited........................................................................................................
+
+    @Override
+    TextStyle inherited() {
+        return this;
+    }
+
     // replace..........................................................................................................
 
     @Override
@@ -101,7 +107,7 @@ final class TextStyleEmpty extends TextStyle {
 
     @Override
     <V> TextStyle set0(final TextStylePropertyName<V> propertyName, final V value) {
-        return TextStyleNonEmpty.withNonEmpty(TextNodeMap.withTextStyleMapEntrySet(TextNodeMapEntrySet.withList(Lists.of(Maps.entry(propertyName, value)))));
+        return TextStyleNonEmpty.withNonEmpty(TextNodeMap.EMPTY.setProperty(propertyName, value));
     }
 
     @Override
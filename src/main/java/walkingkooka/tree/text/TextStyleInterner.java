@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+import java.util.Objects;
+
+/**
+ * A table that canonicalizes structurally equal {@link TextStyle} so they share a single instance along with its
+ * {@link TextNodeMap}. Once interned, equality checks between styles from the same interner short circuit on identity.
+ * <br>
+ * Interned styles stay in memory until {@link #clear()} is called or they are evicted as the least recently used once
+ * the maximum size is exceeded. A style interned again after being evicted becomes the new canonical instance, so
+ * identity is only shared between styles interned while their entry is present. Instances are thread safe and may be
+ * shared.
+ */
+public final class TextStyleInterner {
+
+    /**
+     * Creates a new empty {@link TextStyleInterner} that holds at most the given number of {@link TextStyle}.
+     */
+    public static TextStyleInterner with(final int maxSize) {
+        return new TextStyleInterner(TextLruCache.with(maxSize));
+    }
+
+    /**
+     * Private ctor use factory.
+     */
+    private TextStyleInterner(final TextLruCache<TextStyle, TextStyle> styles) {
+        super();
+        this.styles = styles;
+    }
+
+    /**
+     * Returns the canonical instance for the given {@link TextStyle}, adding it if this is the first time it was seen.
+     */
+    public TextStyle intern(final TextStyle textStyle) {
+        Objects.requireNonNull(textStyle, "textStyle");
+
+        return textStyle.isEmpty() ?
+                TextStyle.EMPTY :
+                this.internNonEmpty(textStyle);
+    }
+
+    private synchronized TextStyle internNonEmpty(final TextStyle textStyle) {
+        final TextLruCache<TextStyle, TextStyle> styles = this.styles;
+
+        TextStyle interned = styles.get(textStyle);
+        if (null == interned) {
+            styles.put(textStyle, textStyle);
+            interned = textStyle;
+        }
+        return interned;
+    }
+
+    /**
+     * Returns the number of distinct {@link TextStyle} interned.
+     */
+    public synchronized int size() {
+        return this.styles.size();
+    }
+
+    /**
+     * Removes all interned {@link TextStyle}.
+     */
+    public synchronized void clear() {
+        this.styles.clear();
+    }
+
+    private final TextLruCache<TextStyle, TextStyle> styles;
+
+    @Override
+    public String toString() {
+        return this.size() + " style(s)";
+    }
+}
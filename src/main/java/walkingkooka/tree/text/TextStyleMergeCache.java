@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+/**
+ * A bounded least recently used cache of {@link TextStyle#merge(TextStyle)} results, keyed on the identity of both
+ * operands. This is useful when the same combinations of styles, such as cell, row and sheet styles, are merged
+ * repeatedly, and works best with {@link TextStyle} that have been interned by a {@link TextStyleInterner}.
+ * <br>
+ * Merges where either style is empty are never cached as they never allocate. All methods are thread safe, a hit
+ * does not allocate.
+ */
+public final class TextStyleMergeCache {
+
+    /**
+     * Creates a new {@link TextStyleMergeCache} that holds at most the given number of merged results.
+     */
+    public static TextStyleMergeCache with(final int maxSize) {
+        return new TextStyleMergeCache(TextLruCache.with(maxSize));
+    }
+
+    private TextStyleMergeCache(final TextLruCache<TextStyleMergeCacheKey, TextStyle> cache) {
+        super();
+        this.cache = cache;
+    }
+
+    /**
+     * Merges the two {@link TextStyle} with the first having priority, returning a previously merged result if one
+     * is cached for the same two instances.
+     */
+    TextStyle merge(final TextStyle textStyle,
+                    final TextStyle other) {
+        return textStyle.isEmpty() || other.isEmpty() ?
+                textStyle.merge0(other) :
+                this.mergeNonEmpty(textStyle, other);
+    }
+
+    private synchronized TextStyle mergeNonEmpty(final TextStyle textStyle,
+                                                 final TextStyle other) {
+        final TextStyleMergeCacheKey probe = this.probe;
+        probe.set(textStyle, other);
+
+        TextStyle merged = this.cache.get(probe);
+        probe.set(null, null);
+
+        if (null == merged) {
+            merged = textStyle.merge0(other);
+            this.cache.put(TextStyleMergeCacheKey.with(textStyle, other), merged);
+        }
+
+        return merged;
+    }
+
+    /**
+     * The number of merges answered from the cache.
+     */
+    public long hits() {
+        return this.cache.hits();
+    }
+
+    /**
+     * The number of merges that were computed and added to the cache.
+     */
+    public long misses() {
+        return this.cache.misses();
+    }
+
+    /**
+     * The number of cached merges.
+     */
+    public int size() {
+        return this.cache.size();
+    }
+
+    /**
+     * Removes all cached merges and resets the hit and miss counters.
+     */
+    public void clear() {
+        this.cache.clear();
+    }
+
+    private final TextLruCache<TextStyleMergeCacheKey, TextStyle> cache;
+
+    /**
+     * A key reused for lookups so hits do not allocate, only used while holding the lock.
+     */
+    private final TextStyleMergeCacheKey probe = TextStyleMergeCacheKey.with(null, null);
+
+    @Override
+    public String toString() {
+        return this.cache.toString();
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+/**
+ * The key within a {@link TextStyleMergeCache} comparing both {@link TextStyle} by identity.
+ */
+final class TextStyleMergeCacheKey {
+
+    static TextStyleMergeCacheKey with(final TextStyle textStyle,
+                                       final TextStyle other) {
+        final TextStyleMergeCacheKey key = new TextStyleMergeCacheKey();
+        key.set(textStyle, other);
+        return key;
+    }
+
+    private TextStyleMergeCacheKey() {
+        super();
+    }
+
+    /**
+     * Only the probe key within {@link TextStyleMergeCache} is ever updated after creation.
+     */
+    void set(final TextStyle textStyle,
+             final TextStyle other) {
+        this.textStyle = textStyle;
+        this.other = other;
+        this.hashCode = 31 * System.identityHashCode(textStyle) + System.identityHashCode(other);
+    }
+
+    private TextStyle textStyle;
+
+    private TextStyle other;
+
+    private int hashCode;
+
+    @Override
+    public int hashCode() {
+        return this.hashCode;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other ||
+                other instanceof TextStyleMergeCacheKey &&
+                        this.equals0((TextStyleMergeCacheKey) other);
+    }
+
+    private boolean equals0(final TextStyleMergeCacheKey other) {
+        return this.textStyle == other.textStyle &&
+                this.other == other.other;
+    }
+
+    @Override
+    public String toString() {
+        return this.textStyle + " merge " + this.other;
+    }
+}
@@ -199,7 +199,7 @@ public final class TextStyleNameNode extends TextParentNode {
                 context);
     }
 
-    private final static String STYLE_NAME = "style-name";
+    final static String STYLE_NAME = "style-name";
     private final static JsonPropertyName STYLE_NAME_PROPERTY = JsonPropertyName.with(STYLE_NAME);
     
     // Visitor .................................................................................................
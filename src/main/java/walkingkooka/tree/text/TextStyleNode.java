@@ -137,10 +137,22 @@ public final class TextStyleNode extends TextParentNode {
 
     @Override
     public TextStyle textStyle() {
-        return TextStyle.with(this.attributes);
+        TextStyle textStyle = this.textStyle;
+
+        if (null == textStyle) {
+            textStyle = TextStyle.withTextStyleMap(this.attributes);
+            this.textStyle = textStyle;
+        }
+
+        return textStyle;
     }
 
-    private final TextNodeMap attributes;
+    final TextNodeMap attributes;
+
+    /**
+     * A lazily created {@link TextStyle} wrapping {@link #attributes}, this node is immutable so it is always the same.
+     */
+    private TextStyle textStyle;
 
     // replace.........................................................................................................
 
@@ -185,7 +197,7 @@ public final class TextStyleNode extends TextParentNode {
         return this.addChildrenValuesJson(json, context);
     }
 
-    private final static String STYLES = "styles";
+    final static String STYLES = "styles";
     private final static JsonPropertyName STYLES_PROPERTY = JsonPropertyName.with(STYLES);
 
     // Visitor .................................................................................................
@@ -19,7 +19,6 @@ package walkingkooka.tree.text;
 
 import walkingkooka.Cast;
 import walkingkooka.collect.list.Lists;
-import walkingkooka.collect.map.Maps;
 import walkingkooka.text.CharSequences;
 import walkingkooka.text.printer.IndentingPrinter;
 import walkingkooka.tree.json.JsonNode;
@@ -74,19 +73,28 @@ final class TextStyleNonEmpty extends TextStyle {
 
     @Override
     TextStyle merge1(final TextStyleNonEmpty textStyle) {
-        final Map<TextStylePropertyName<?>, Object> otherBefore = this.value; // because of double dispatch params are reversed.
-        final Map<TextStylePropertyName<?>, Object> before = textStyle.value;
+        final TextNodeMapEntrySet otherBefore = this.value.entries; // because of double dispatch params are reversed.
+        final TextNodeMapEntrySet before = textStyle.value.entries;
 
+        final TextNodeMapEntrySet merged = TextNodeMapEntrySet.merge(before, otherBefore);
 
-        final Map<TextStylePropertyName<?>, Object> merged = Maps.sorted();
-        merged.putAll(otherBefore);
-        merged.putAll(before);
-
-        return merged.equals(otherBefore) ?
+        return merged == otherBefore ?
                 this :
-                merged.equals(before) ?
+                merged == before ?
                         textStyle :
-                        new TextStyleNonEmpty(TextNodeMap.with(merged));
+                        new TextStyleNonEmpty(TextNodeMap.withTextStyleMapEntrySet(merged));
+    }
+
+    // inherited........................................................................................................
+
+    @Override
+    TextStyle inherited() {
+        final TextNodeMapEntrySet entries = this.value.entries;
+        final TextNodeMapEntrySet inherited = entries.inherited();
+
+        return entries == inherited ?
+                this :
+                TextStyle.withTextStyleMap(TextNodeMap.with1(inherited));
     }
 
     // replace..........................................................................................................
@@ -114,66 +122,24 @@ final class TextStyleNonEmpty extends TextStyle {
 
     @Override
     <V> TextStyle set0(final TextStylePropertyName<V> propertyName, final V value) {
-        TextNodeMap map = this.value;
-        final List<Entry<TextStylePropertyName<?>, Object>> list = Lists.array();
-
-        int mode = 0; // new property added.
-
-        for (Entry<TextStylePropertyName<?>, Object> propertyAndValue : map.entries) {
-            final TextStylePropertyName<?> property = propertyAndValue.getKey();
-
-            if (propertyName.equals(property)) {
-                if (propertyAndValue.getValue().equals(value)) {
-                    mode = 1; // no change
-                    break;
-                } else {
-                    list.add(Maps.entry(property, value));
-                    mode = 2; // replaced
-                }
-            } else {
-                list.add(propertyAndValue);
-            }
-        }
+        final TextNodeMap map = this.value;
+        final TextNodeMap set = map.setProperty(propertyName, value);
 
-        // replace didnt happen
-        if (0 == mode) {
-            list.add(Maps.entry(propertyName, value));
-            TextNodeMapEntrySet.sort(list);
-        }
-
-        return 1 == mode ?
+        return map == set ?
                 this :
-                new TextStyleNonEmpty(TextNodeMap.withTextStyleMapEntrySet(TextNodeMapEntrySet.withList(list)));
+                new TextStyleNonEmpty(set);
     }
 
     // remove...........................................................................................................
 
     @Override
     TextStyle remove0(final TextStylePropertyName<?> propertyName) {
-        final List<Entry<TextStylePropertyName<?>, Object>> list = Lists.array();
-        boolean removed = false;
-
-        for (Entry<TextStylePropertyName<?>, Object> propertyAndValue : this.value.entries) {
-            final TextStylePropertyName<?> property = propertyAndValue.getKey();
-            if (propertyName.equals(property)) {
-                removed = true;
-            } else {
-                list.add(propertyAndValue);
-            }
-        }
-
-        return removed ?
-                this.remove1(list) :
-                this;
-    }
+        final TextNodeMap map = this.value;
+        final TextNodeMap removed = map.removeProperty(propertyName);
 
-    /**
-     * Accepts a list after removing a property, special casing if the list is empty.
-     */
-    private TextStyle remove1(List<Entry<TextStylePropertyName<?>, Object>> list) {
-        return list.isEmpty() ?
-                TextStyle.EMPTY :
-                new TextStyleNonEmpty(TextNodeMap.withTextStyleMapEntrySet(TextNodeMapEntrySet.withList(list))); // no need to sort after a delete
+        return map == removed ?
+                this :
+                TextStyle.withTextStyleMap(removed);
     }
 
     // TextStyleVisitor.................................................................................................
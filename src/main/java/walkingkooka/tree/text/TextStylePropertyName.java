@@ -167,7 +167,10 @@ public final class TextStylePropertyName<T> extends TextNodeNameName<TextStylePr
     private static <T> TextStylePropertyName<T> registerConstant(final String property,
                                                                  final TextStylePropertyValueHandler<T> handler,
                                                                  final BiConsumer<T, TextStyleVisitor> visitor) {
-        final TextStylePropertyName<T> textStylePropertyName = new TextStylePropertyName<>(property, handler, visitor);
+        final TextStylePropertyName<T> textStylePropertyName = new TextStylePropertyName<>(property,
+                CONSTANTS.size(),
+                handler,
+                visitor);
         TextStylePropertyName.CONSTANTS.put(property, textStylePropertyName);
         return textStylePropertyName;
     }
@@ -223,12 +226,6 @@ public final class TextStylePropertyName<T> extends TextNodeNameName<TextStylePr
     public final static TextStylePropertyName<Length<?>> BORDER_LEFT_WIDTH = registerNoneLengthPixelLengthConstant("border-left-width",
             (l, v) -> v.visitBorderLeftWidth(l));
 
-    /**
-     * border-space
-     */
-    public final static TextStylePropertyName<Length<?>> BORDER_SPACING = registerNormalLengthPixelLengthConstant("border-spacing",
-            (l, v) -> v.visitBorderSpacing(l));
-
     /**
      * border-right-color
      */
@@ -247,6 +244,12 @@ public final class TextStylePropertyName<T> extends TextNodeNameName<TextStylePr
     public final static TextStylePropertyName<Length<?>> BORDER_RIGHT_WIDTH = registerNoneLengthPixelLengthConstant("border-right-width",
             (l, v) -> v.visitBorderRightWidth(l));
 
+    /**
+     * border-space
+     */
+    public final static TextStylePropertyName<Length<?>> BORDER_SPACING = registerNormalLengthPixelLengthConstant("border-spacing",
+            (l, v) -> v.visitBorderSpacing(l));
+
     /**
      * border-top-color
      */
@@ -677,18 +680,109 @@ public final class TextStylePropertyName<T> extends TextNodeNameName<TextStylePr
             v -> v instanceof WritingMode,
             (w, v) -> v.visitWritingMode(w));
 
+    /**
+     * All constants sorted by name, the index of each constant is also its {@link #ordinal}. This must appear after
+     * all constants have been registered.
+     */
+    final static TextStylePropertyName<?>[] ORDINALS = ordinals();
+
+    /**
+     * Returns all constants sorted by name, verifying that each was registered in name order so its ordinal is also
+     * its sorted index.
+     */
+    private static TextStylePropertyName<?>[] ordinals() {
+        final TextStylePropertyName<?>[] ordinals = CONSTANTS.values()
+                .toArray(new TextStylePropertyName<?>[CONSTANTS.size()]);
+
+        for (int i = 0; i < ordinals.length; i++) {
+            final TextStylePropertyName<?> constant = ordinals[i];
+            if (i != constant.ordinal) {
+                throw new IllegalStateException("Constant " + constant.inQuotes() + " not declared in name order");
+            }
+        }
+
+        return ordinals;
+    }
+
+    /**
+     * All constants keyed by name, so {@link #with(String)} performs a single hash lookup rather than walking the
+     * sorted {@link #CONSTANTS}. This must appear after all constants have been registered.
+     */
+    private final static Map<String, TextStylePropertyName<?>> NAME_TO_CONSTANT = nameToConstant();
+
+    private static Map<String, TextStylePropertyName<?>> nameToConstant() {
+        final Map<String, TextStylePropertyName<?>> nameToConstant = Maps.hash();
+
+        for (final TextStylePropertyName<?> constant : ORDINALS) {
+            nameToConstant.put(constant.value(), constant);
+        }
+
+        return nameToConstant;
+    }
+
+    /**
+     * A bitmap by {@link #ordinal} of the constants inherited by descendants, following CSS. This must appear after
+     * {@link #ORDINALS}.
+     */
+    final static long[] INHERITED = inherited(
+            BORDER_COLLAPSE,
+            BORDER_SPACING,
+            COLOR,
+            DIRECTION,
+            FONT_FAMILY,
+            FONT_KERNING,
+            FONT_SIZE,
+            FONT_STRETCH,
+            FONT_STYLE,
+            FONT_VARIANT,
+            FONT_WEIGHT,
+            HANGING_PUNCTUATION,
+            HYPHENS,
+            LETTER_SPACING,
+            LINE_HEIGHT,
+            LIST_STYLE_POSITION,
+            LIST_STYLE_TYPE,
+            TAB_SIZE,
+            TEXT_ALIGN,
+            TEXT_INDENT,
+            TEXT_JUSTIFY,
+            TEXT_TRANSFORM,
+            TEXT_WRAPPING,
+            VISIBILITY,
+            WHITE_SPACE,
+            WORD_BREAK,
+            WORD_SPACING,
+            WORD_WRAP,
+            WRITING_MODE
+    );
+
+    /**
+     * Returns the bitmap of the given inherited constants.
+     */
+    private static long[] inherited(final TextStylePropertyName<?>... names) {
+        final long[] inherited = new long[(ORDINALS.length + 63) >> 6];
+
+        for (final TextStylePropertyName<?> name : names) {
+            inherited[name.ordinal >> 6] |= 1L << name.ordinal;
+        }
+
+        return inherited;
+    }
+
     /**
      * Factory that retrieves an existing property or if unknown a property that assumes non empty string value.
      */
     public static TextStylePropertyName<?> with(final String name) {
         Objects.requireNonNull(name, "name");
 
-        final TextStylePropertyName<?> textStylePropertyName = CONSTANTS.get(name);
-        return null != textStylePropertyName ?
-                textStylePropertyName :
-                new TextStylePropertyName<>(checkName(name),
-                        TextStylePropertyValueHandler.jsonNodeWithType(),
-                        TextStylePropertyName::acceptUnknown);
+        TextStylePropertyName<?> textStylePropertyName = NAME_TO_CONSTANT.get(name);
+        if (null == textStylePropertyName) {
+            textStylePropertyName = new TextStylePropertyName<>(checkName(name),
+                    UNKNOWN_ORDINAL,
+                    TextStylePropertyValueHandler.jsonNodeWithType(),
+                    TextStylePropertyName::acceptUnknown);
+        }
+        return textStylePropertyName;
     }
 
     private static void acceptUnknown(final Object value, final TextStyleVisitor visitor) {
@@ -696,15 +790,39 @@ public final class TextStylePropertyName<T> extends TextNodeNameName<TextStylePr
     }
 
     private TextStylePropertyName(final String name,
+                                  final int ordinal,
                                   final TextStylePropertyValueHandler<T> handler,
                                   final BiConsumer<T, TextStyleVisitor> visitor) {
         super(name);
+        this.ordinal = ordinal;
         this.handler = handler;
         this.visitor = visitor;
 
         this.jsonPropertyName = JsonPropertyName.with(this.name);
     }
 
+    /**
+     * The ordinal given to properties created by {@link #with(String)} that are not constants.
+     */
+    final static int UNKNOWN_ORDINAL = -1;
+
+    /**
+     * A dense index for each constant in registration order, which must match the sort order of names, or
+     * {@link #UNKNOWN_ORDINAL}.
+     */
+    final int ordinal;
+
+    /**
+     * Returns true if descendants inherit this property when computing their style, following CSS. Font, color and
+     * text layout properties are inherited while box properties such as margin, border and padding are not. Unknown
+     * properties are always inherited.
+     */
+    public boolean isInherited() {
+        final int ordinal = this.ordinal;
+        return UNKNOWN_ORDINAL == ordinal || // like css custom properties
+                0 != (INHERITED[ordinal >> 6] & (1L << ordinal));
+    }
+
     /**
      * If the type parameter is for an {@link Enum} return the {@link Class enum class} or {@link Optional#empty()}.
      */
@@ -149,6 +149,18 @@ abstract class TextStylePropertyValueHandler<T> {
     abstract JsonNode marshall(final T value,
                                final JsonNodeMarshallContext context);
 
+    // css..............................................................................................................
+
+    /**
+     * Transforms css value text, the inverse of {@link TextStyleCss}, into a value. By default the text is given to
+     * {@link #unmarshall(JsonNode, TextStylePropertyName, JsonNodeUnmarshallContext)} as a json string.
+     */
+    T parseCss(final String text,
+               final TextStylePropertyName<?> name,
+               final JsonNodeUnmarshallContext context) {
+        return this.unmarshall(JsonNode.string(text), name, context);
+    }
+
     // Object .........................................................................................................
 
     @Override
@@ -18,10 +18,12 @@
 package walkingkooka.tree.text;
 
 import walkingkooka.Cast;
+import walkingkooka.collect.map.Maps;
 import walkingkooka.tree.json.JsonNode;
 import walkingkooka.tree.json.marshall.JsonNodeMarshallContext;
 import walkingkooka.tree.json.marshall.JsonNodeUnmarshallContext;
 
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
@@ -55,6 +57,19 @@ final class TextStylePropertyValueHandlerEnum<E extends Enum<E>> extends TextSty
         this.factory = factory;
         this.type = type;
         this.typeChecker = typeChecker;
+
+        final E[] constants = type.getEnumConstants();
+        final Map<String, E> nameToConstant = Maps.hash();
+        final JsonNode[] json = new JsonNode[constants.length];
+
+        for (final E constant : constants) {
+            final String name = constant.name();
+            nameToConstant.put(name, constant);
+            json[constant.ordinal()] = JsonNode.string(name);
+        }
+
+        this.nameToConstant = nameToConstant;
+        this.json = json;
     }
 
     @Override Optional<Class<Enum<?>>> enumType() {
@@ -81,17 +96,48 @@ final class TextStylePropertyValueHandlerEnum<E extends Enum<E>> extends TextSty
     E unmarshall(final JsonNode node,
                  final TextStylePropertyName<?> name,
                  final JsonNodeUnmarshallContext context) {
-        return this.factory.apply(node.stringOrFail());
+        final String text = node.stringOrFail();
+        final E constant = this.nameToConstant.get(text);
+        return null != constant ?
+                constant :
+                this.factory.apply(text); // fails with the same message as before
+    }
+
+    /**
+     * Converts the css text such as <code>break-word</code> back to the enum name <code>BREAK_WORD</code>.
+     */
+    @Override
+    E parseCss(final String text,
+               final TextStylePropertyName<?> name,
+               final JsonNodeUnmarshallContext context) {
+        final String enumName = TextStyleCss.enumName(text);
+        final E constant = this.nameToConstant.get(enumName);
+        return null != constant ?
+                constant :
+                this.factory.apply(enumName);
     }
 
+    /**
+     * Only used to report unknown names.
+     */
     private final Function<String, E> factory;
 
+    /**
+     * Each enum constant keyed by its name.
+     */
+    private final Map<String, E> nameToConstant;
+
     @Override
     JsonNode marshall(final E value,
                       final JsonNodeMarshallContext context) {
-        return JsonNode.string(value.name());
+        return this.json[value.ordinal()];
     }
 
+    /**
+     * The json string of each enum constant, indexed by ordinal. {@link JsonNode} are immutable so these may be shared.
+     */
+    private final JsonNode[] json;
+
     // Object ..........................................................................................................
 
     @Override
@@ -79,6 +79,13 @@ final class TextStylePropertyValueHandlerJsonNode<H> extends TextStylePropertyVa
         return context.marshall(value);
     }
 
+    @Override
+    H parseCss(final String text,
+               final TextStylePropertyName<?> name,
+               final JsonNodeUnmarshallContext context) {
+        return this.unmarshall(TextStyleCss.json(this.type, text), name, context);
+    }
+
     // Object ..........................................................................................................
 
     @Override
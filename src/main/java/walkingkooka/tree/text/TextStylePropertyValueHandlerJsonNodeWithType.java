@@ -70,6 +70,16 @@ final class TextStylePropertyValueHandlerJsonNodeWithType extends TextStylePrope
         return context.marshallWithType(value);
     }
 
+    /**
+     * Unknown properties keep their css text.
+     */
+    @Override
+    Object parseCss(final String text,
+                    final TextStylePropertyName<?> name,
+                    final JsonNodeUnmarshallContext context) {
+        return text;
+    }
+
     // Object ..........................................................................................................
 
     @Override
@@ -0,0 +1,295 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.text;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.Sets;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A registry of {@link TextStyle} by {@link TextStyleName}, which resolves each {@link TextStyleNameNode} in a tree
+ * into a {@link TextStyleNode} holding the named {@link TextStyle}. A {@link TextStyleNameNode} for an undefined name
+ * is left as is.
+ * <br>
+ * Resolved subtrees are cached by the identity of the unresolved node, and each entry records the names it used.
+ * Redefining or removing a name only drops the entries that used that name, so resolving an edited tree again only
+ * visits the subtrees that contain that name or were changed, while all other subtrees are answered from the cache.
+ * <br>
+ * The cache is a bounded least recently used cache, as soft and weak references are not available in all environments.
+ * All methods are thread safe, resolving itself happens outside the lock.
+ */
+public final class TextStyleSheet {
+
+    /**
+     * Creates a new empty {@link TextStyleSheet} that caches at most the given number of resolved subtrees.
+     */
+    public static TextStyleSheet with(final int maxSize) {
+        return new TextStyleSheet(maxSize);
+    }
+
+    private TextStyleSheet(final int maxSize) {
+        super();
+        this.cache = TextLruCache.with(maxSize, this::unindex);
+    }
+
+    // styles...........................................................................................................
+
+    /**
+     * Returns the {@link TextStyle} with the given {@link TextStyleName} if one is defined.
+     */
+    public Optional<TextStyle> style(final TextStyleName name) {
+        Objects.requireNonNull(name, "name");
+
+        return Optional.ofNullable(this.styleOrNull(name));
+    }
+
+    private synchronized TextStyle styleOrNull(final TextStyleName name) {
+        return this.styles.get(name);
+    }
+
+    /**
+     * Defines or redefines the {@link TextStyle} with the given {@link TextStyleName}. Only the cached subtrees that
+     * used the given name are dropped, and nothing is dropped when the style is unchanged.
+     */
+    public synchronized void set(final TextStyleName name,
+                                 final TextStyle style) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(style, "style");
+
+        if (!style.equals(this.styles.put(name, style))) {
+            this.invalidate(name);
+        }
+    }
+
+    /**
+     * Removes the {@link TextStyle} with the given {@link TextStyleName}, dropping the cached subtrees that used it.
+     */
+    public synchronized void remove(final TextStyleName name) {
+        Objects.requireNonNull(name, "name");
+
+        if (null != this.styles.remove(name)) {
+            this.invalidate(name);
+        }
+    }
+
+    private final Map<TextStyleName, TextStyle> styles = Maps.hash();
+
+    // resolve..........................................................................................................
+
+    /**
+     * Returns the given {@link TextNode} without a parent, with each {@link TextStyleNameNode} with a defined name
+     * replaced by a {@link TextStyleNode} with its {@link TextStyle} and the same resolved children. Subtrees without
+     * any {@link TextStyleNameNode} are returned as is.
+     */
+    public TextNode resolve(final TextNode node) {
+        Objects.requireNonNull(node, "node");
+
+        return this.resolve0(node.removeParent0(), Sets.hash());
+    }
+
+    /**
+     * Resolves the given parentless node, adding the names it used to the given {@link Set}.
+     */
+    private TextNode resolve0(final TextNode node,
+                              final Set<TextStyleName> names) {
+        TextNode resolved = node;
+
+        if (node instanceof TextParentNode) {
+            final TextParentNode parent = (TextParentNode) node;
+
+            final TextStyleSheetEntry entry;
+            final long version;
+            synchronized (this) {
+                entry = this.get(parent);
+                version = this.version;
+            }
+
+            if (null != entry) {
+                resolved = entry.resolved;
+                names.addAll(entry.names);
+            } else {
+                final Set<TextStyleName> parentNames = Sets.hash();
+                resolved = this.resolveParent(parent, parentNames);
+                names.addAll(parentNames);
+
+                this.put(parent,
+                        TextStyleSheetEntry.with(resolved, parentNames.isEmpty() ? Sets.empty() : Sets.readOnly(parentNames)),
+                        version);
+            }
+        }
+
+        return resolved;
+    }
+
+    /**
+     * Resolves the children, only copying the children list when a child actually changed.
+     */
+    private TextNode resolveParent(final TextParentNode parent,
+                                   final Set<TextStyleName> names) {
+        final List<TextNode> children = parent.children;
+        List<TextNode> resolvedChildren = null;
+
+        int i = 0;
+        for (final TextNode child : children) {
+            final TextNode resolved = this.resolve0(child, names);
+            if (null == resolvedChildren && resolved != child) {
+                resolvedChildren = Lists.array();
+                resolvedChildren.addAll(children.subList(0, i));
+            }
+            if (null != resolvedChildren) {
+                resolvedChildren.add(resolved);
+            }
+            i++;
+        }
+
+        TextStyle style = null;
+        if (parent instanceof TextStyleNameNode) {
+            final TextStyleName name = ((TextStyleNameNode) parent).styleName();
+            names.add(name);
+            style = this.styleOrNull(name);
+        }
+
+        return null != style ?
+                TextStyleNode.with(null != resolvedChildren ? resolvedChildren : children, style.textStyleMap()) :
+                null != resolvedChildren ?
+                        parent.replace0(TextNode.NO_INDEX, resolvedChildren) :
+                        parent;
+    }
+
+    // cache............................................................................................................
+
+    private TextStyleSheetEntry get(final TextParentNode node) {
+        final TextNodeIdentityKey probe = this.probe;
+        probe.set(node);
+
+        final TextStyleSheetEntry entry = this.cache.get(probe);
+        probe.set(null);
+
+        return entry;
+    }
+
+    /**
+     * Entries resolved while a style was being redefined are not added as they may have used the previous style.
+     */
+    private synchronized void put(final TextParentNode node,
+                                  final TextStyleSheetEntry entry,
+                                  final long version) {
+        if (this.version == version) {
+            final TextNodeIdentityKey key = TextNodeIdentityKey.with(node);
+            final TextStyleSheetEntry previous = this.cache.put(key, entry);
+            if (null != previous) {
+                this.unindex(key, previous);
+            }
+
+            for (final TextStyleName name : entry.names) {
+                this.nameToKeys.computeIfAbsent(name, (n) -> Sets.hash())
+                        .add(key);
+            }
+        }
+    }
+
+    private void invalidate(final TextStyleName name) {
+        this.version++;
+
+        final Set<TextNodeIdentityKey> keys = this.nameToKeys.remove(name);
+        if (null != keys) {
+            for (final TextNodeIdentityKey key : keys) {
+                final TextStyleSheetEntry entry = this.cache.remove(key);
+                if (null != entry) {
+                    this.unindex(key, entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the given key from the index of every name its entry used.
+     */
+    private void unindex(final TextNodeIdentityKey key,
+                         final TextStyleSheetEntry entry) {
+        for (final TextStyleName name : entry.names) {
+            final Set<TextNodeIdentityKey> keys = this.nameToKeys.get(name);
+            if (null != keys) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    this.nameToKeys.remove(name);
+                }
+            }
+        }
+    }
+
+    /**
+     * The number of resolved subtrees answered from the cache.
+     */
+    public long hits() {
+        return this.cache.hits();
+    }
+
+    /**
+     * The number of subtrees that were resolved and added to the cache.
+     */
+    public long misses() {
+        return this.cache.misses();
+    }
+
+    /**
+     * The number of cached resolved subtrees.
+     */
+    public int size() {
+        return this.cache.size();
+    }
+
+    /**
+     * Removes all cached subtrees and resets the hit and miss counters, keeping all styles.
+     */
+    public synchronized void clearCache() {
+        this.version++;
+        this.cache.clear();
+        this.nameToKeys.clear();
+    }
+
+    /**
+     * Evicting an entry also calls {@link #unindex(TextNodeIdentityKey, TextStyleSheetEntry)}.
+     */
+    private final TextLruCache<TextNodeIdentityKey, TextStyleSheetEntry> cache;
+
+    /**
+     * The keys of all cached entries that used each name.
+     */
+    private final Map<TextStyleName, Set<TextNodeIdentityKey>> nameToKeys = Maps.hash();
+
+    /**
+     * A key reused for lookups so hits do not allocate, only used while holding the lock.
+     */
+    private final TextNodeIdentityKey probe = TextNodeIdentityKey.with(null);
+
+    /**
+     * Incremented each time entries are dropped.
+     */
+    private long version;
+
+    @Override
+    public synchronized String toString() {
+        return "styles: " + this.styles.size() + " " + this.cache;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.text;
+
+import java.util.Set;
+
+/**
+ * A resolved subtree within a {@link TextStyleSheet} and the {@link TextStyleName names} used to resolve it.
+ */
+final class TextStyleSheetEntry {
+
+    static TextStyleSheetEntry with(final TextNode resolved,
+                                    final Set<TextStyleName> names) {
+        return new TextStyleSheetEntry(resolved, names);
+    }
+
+    private TextStyleSheetEntry(final TextNode resolved,
+                                final Set<TextStyleName> names) {
+        super();
+        this.resolved = resolved;
+        this.names = names;
+    }
+
+    final TextNode resolved;
+
+    final Set<TextStyleName> names;
+
+    @Override
+    public String toString() {
+        return this.names + " " + this.resolved;
+    }
+}
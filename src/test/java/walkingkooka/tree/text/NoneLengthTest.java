@@ -44,6 +44,11 @@ public final class NoneLengthTest extends LengthTestCase<NoneLength, Void> {
         assertThrows(UnsupportedOperationException.class, NoneLength.INSTANCE::value);
     }
 
+    @Test
+    public void testMarshallShared() {
+        assertSame(NoneLength.INSTANCE.marshall(this.marshallContext()), NoneLength.INSTANCE.marshall(this.marshallContext()));
+    }
+
     @Test
     public void testPixelValue() {
         this.pixelLengthAndCheck(NoneLength.INSTANCE, 0);
@@ -44,6 +44,11 @@ public final class NormalLengthTest extends LengthTestCase<NormalLength, Void> {
         assertThrows(UnsupportedOperationException.class, NormalLength.INSTANCE::value);
     }
 
+    @Test
+    public void testMarshallShared() {
+        assertSame(NormalLength.INSTANCE.marshall(this.marshallContext()), NormalLength.INSTANCE.marshall(this.marshallContext()));
+    }
+
     @Test
     public void testPixelValueFails() {
         this.pixelLengthFails(NormalLength.INSTANCE);
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.Cast;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TextLruCacheTest implements ClassTesting2<TextLruCache<?, ?>>,
+        ToStringTesting<TextLruCache<String, String>> {
+
+    @Test
+    public void testWithZeroMaxSizeFails() {
+        assertThrows(IllegalArgumentException.class, () -> TextLruCache.with(0));
+    }
+
+    @Test
+    public void testGetMissThenHit() {
+        final TextLruCache<String, String> cache = TextLruCache.with(2);
+
+        this.checkEquals(null, cache.get("a"));
+        cache.put("a", "1");
+        this.checkEquals("1", cache.get("a"));
+
+        this.checkCache(cache, 1, 1, 1);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted() {
+        final List<String> evicted = Lists.array();
+        final TextLruCache<String, String> cache = TextLruCache.with(2, (k, v) -> evicted.add(k + "=" + v));
+
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a"); // a now most recent
+        cache.put("c", "3"); // evicts b
+
+        this.checkEquals(Lists.of("b=2"), evicted, "evicted");
+        this.checkEquals(null, cache.get("b"));
+        this.checkCache(cache, 2, 1, 1);
+    }
+
+    @Test
+    public void testRemoveNotEvicted() {
+        final List<String> evicted = Lists.array();
+        final TextLruCache<String, String> cache = TextLruCache.with(2, (k, v) -> evicted.add(k));
+
+        cache.put("a", "1");
+        this.checkEquals("1", cache.remove("a"));
+
+        this.checkEquals(Lists.empty(), evicted, "evicted");
+        this.checkCache(cache, 0, 0, 0);
+    }
+
+    @Test
+    public void testClear() {
+        final TextLruCache<String, String> cache = TextLruCache.with(2);
+        cache.put("a", "1");
+        cache.get("a");
+        cache.clear();
+
+        this.checkCache(cache, 0, 0, 0);
+    }
+
+    private void checkCache(final TextLruCache<?, ?> cache,
+                            final int size,
+                            final long hits,
+                            final long misses) {
+        this.checkEquals(size, cache.size(), "size");
+        this.checkEquals(hits, cache.hits(), "hits");
+        this.checkEquals(misses, cache.misses(), "misses");
+    }
+
+    @Test
+    public void testToString() {
+        final TextLruCache<String, String> cache = TextLruCache.with(10);
+        cache.put("a", "1");
+        cache.get("a");
+        cache.get("b");
+
+        this.toStringAndCheck(cache, "size: 1/10 hits: 1 misses: 1");
+    }
+
+    @Override
+    public Class<TextLruCache<?, ?>> type() {
+        return Cast.to(TextLruCache.class);
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
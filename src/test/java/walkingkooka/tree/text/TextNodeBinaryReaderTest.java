@@ -0,0 +1,347 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.color.Color;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+import walkingkooka.tree.json.marshall.JsonNodeMarshallContext;
+import walkingkooka.tree.json.marshall.JsonNodeMarshallContexts;
+import walkingkooka.tree.json.marshall.JsonNodeUnmarshallContexts;
+
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TextNodeBinaryReaderTest implements ClassTesting2<TextNodeBinaryReader> {
+
+    @Test
+    public void testWithNullContextFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeBinaryReader.with(null));
+    }
+
+    @Test
+    public void testReadNullBytesFails() {
+        assertThrows(NullPointerException.class, () -> this.reader().readTextNode(null));
+    }
+
+    @Test
+    public void testReadInvalidRangeFails() {
+        assertThrows(IllegalArgumentException.class, () -> this.reader().readTextNode(new byte[4], 1, 4));
+    }
+
+    @Test
+    public void testReadText() {
+        this.roundTripAndCheck(Text.with("abc123"));
+    }
+
+    @Test
+    public void testReadTextEmpty() {
+        this.roundTripAndCheck(Text.with(""));
+    }
+
+    @Test
+    public void testReadTextUnicode() {
+        this.roundTripAndCheck(Text.with("é中😀"));
+    }
+
+    @Test
+    public void testReadPlaceholder() {
+        this.roundTripAndCheck(TextNode.placeholder(TextPlaceholderName.with("placeholder123")));
+    }
+
+    @Test
+    public void testReadStyleNodeEmpty() {
+        this.roundTripAndCheck(TextNode.style(TextNode.NO_CHILDREN));
+    }
+
+    @Test
+    public void testReadStyleNameNode() {
+        this.roundTripAndCheck(TextNode.styleName(TextStyleName.with("style123")));
+    }
+
+    @Test
+    public void testReadDocument() {
+        this.roundTripAndCheck(this.document());
+    }
+
+    @Test
+    public void testReadTextStyle() {
+        this.roundTripAndCheck(this.textStyle());
+    }
+
+    @Test
+    public void testReadTextStyleEmpty() {
+        this.roundTripAndCheck(TextStyle.EMPTY);
+    }
+
+    @Test
+    public void testReadTextStyleLengths() {
+        final Map<TextStylePropertyName<?>, Object> map = Maps.sorted();
+        map.put(TextStylePropertyName.BORDER_BOTTOM_WIDTH, Length.none());
+        map.put(TextStylePropertyName.LINE_HEIGHT, Length.normal());
+        map.put(TextStylePropertyName.MARGIN_LEFT, Length.pixel(-2.25));
+        map.put(TextStylePropertyName.TAB_SIZE, Length.number(3));
+        this.roundTripAndCheck(TextStyle.with(map));
+    }
+
+    @Test
+    public void testReadTextStyleFixedValues() {
+        final Map<TextStylePropertyName<?>, Object> map = Maps.sorted();
+        map.put(TextStylePropertyName.FONT_WEIGHT, FontWeight.BOLD);
+        map.put(TextStylePropertyName.OPACITY, Opacity.with(0.5));
+        map.put(TextStylePropertyName.TEXT, "text-123");
+        map.put(TextStylePropertyName.TEXT_OVERFLOW, TextOverflow.string("..."));
+        this.roundTripAndCheck(TextStyle.with(map));
+    }
+
+    @Test
+    public void testReadTextStyleTextOverflowClip() {
+        this.roundTripAndCheck(TextStyle.EMPTY.set(TextStylePropertyName.TEXT_OVERFLOW, TextOverflow.CLIP));
+    }
+
+    @Test
+    public void testReadTextStyleTextOverflowEllipsis() {
+        this.roundTripAndCheck(TextStyle.EMPTY.set(TextStylePropertyName.TEXT_OVERFLOW, TextOverflow.ELLIPSIS));
+    }
+
+    @Test
+    public void testReadSlice() {
+        final TextNode document = this.document();
+        final byte[] bytes = this.writer().write(document);
+
+        final byte[] padded = new byte[bytes.length + 10];
+        System.arraycopy(bytes, 0, padded, 5, bytes.length);
+
+        this.checkEquals(document, this.reader().readTextNode(padded, 5, bytes.length));
+    }
+
+    @Test
+    public void testReadInvalidHeaderFails() {
+        final TextNodeException thrown = assertThrows(TextNodeException.class, () -> this.reader().readTextNode(new byte[]{'X', 'N', 1, 1}));
+        this.checkEquals("Invalid header at 1", thrown.getMessage());
+    }
+
+    @Test
+    public void testReadUnsupportedVersionFails() {
+        assertThrows(TextNodeException.class, () -> this.reader().readTextNode(new byte[]{'T', 'N', 99, 1}));
+    }
+
+    @Test
+    public void testReadIncompatibleTablesFails() {
+        final byte[] bytes = this.writer().write(Text.with("abc"));
+        bytes[4] ^= 1;
+
+        final TextNodeException thrown = assertThrows(TextNodeException.class, () -> this.reader().readTextNode(bytes));
+        this.checkEquals("Incompatible properties or enums at 8", thrown.getMessage());
+    }
+
+    @Test
+    public void testReadTextStyleAsTextNodeFails() {
+        assertThrows(TextNodeException.class, () -> this.reader().readTextNode(this.writer().write(this.textStyle())));
+    }
+
+    @Test
+    public void testReadTruncatedFails() {
+        final byte[] bytes = this.writer().write(this.document());
+        assertThrows(TextNodeException.class, () -> this.reader().readTextNode(Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+
+    @Test
+    public void testReadTrailingBytesFails() {
+        final byte[] bytes = this.writer().write(Text.with("abc"));
+        assertThrows(TextNodeException.class, () -> this.reader().readTextNode(Arrays.copyOf(bytes, bytes.length + 1)));
+    }
+
+    @Test
+    public void testReadInvalidStyleNameFails() {
+        this.readTextNodeFails(
+                new byte[]{
+                        'T', 'N', TextNodeBinaryWriter.VERSION, TextNodeBinaryWriter.KIND_NODE,
+                        TABLES0, TABLES1, TABLES2, TABLES3,
+                        1, // string count
+                        0, // empty string
+                        TextNodeBinaryWriter.NODE_STYLE_NAME, 0,
+                        0 // children
+                },
+                "Invalid style name \"\" at 11"
+        );
+    }
+
+    @Test
+    public void testReadInvalidFontSizeFails() {
+        this.readTextStyleFails(
+                new byte[]{
+                        'T', 'N', TextNodeBinaryWriter.VERSION, TextNodeBinaryWriter.KIND_STYLE,
+                        TABLES0, TABLES1, TABLES2, TABLES3,
+                        0, // string count
+                        1, // known properties
+                        (byte) TextStylePropertyName.FONT_SIZE.ordinal,
+                        TextNodeBinaryWriter.VALUE_FONT_SIZE,
+                        (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F, // -1
+                        0 // unknown properties
+                },
+                "Invalid value for \"font-size\" at 11"
+        );
+    }
+
+    @Test
+    public void testReadInvalidOpacityFails() {
+        this.readTextStyleFails(
+                new byte[]{
+                        'T', 'N', TextNodeBinaryWriter.VERSION, TextNodeBinaryWriter.KIND_STYLE,
+                        TABLES0, TABLES1, TABLES2, TABLES3,
+                        0, // string count
+                        1, // known properties
+                        (byte) TextStylePropertyName.OPACITY.ordinal,
+                        TextNodeBinaryWriter.VALUE_OPACITY,
+                        0x40, 0, 0, 0, 0, 0, 0, 0, // 2.0
+                        0 // unknown properties
+                },
+                "Invalid value for \"opacity\" at 11"
+        );
+    }
+
+    @Test
+    public void testReadInvalidJsonFails() {
+        this.readTextStyleFails(
+                new byte[]{
+                        'T', 'N', TextNodeBinaryWriter.VERSION, TextNodeBinaryWriter.KIND_STYLE,
+                        TABLES0, TABLES1, TABLES2, TABLES3,
+                        1, // string count
+                        1, '{',
+                        1, // known properties
+                        (byte) TextStylePropertyName.BACKGROUND_COLOR.ordinal,
+                        TextNodeBinaryWriter.VALUE_JSON, 0,
+                        0 // unknown properties
+                },
+                "Invalid value for \"background-color\" at 13"
+        );
+    }
+
+    @Test
+    public void testReadInvalidJsonValueFails() {
+        this.readTextStyleFails(
+                new byte[]{
+                        'T', 'N', TextNodeBinaryWriter.VERSION, TextNodeBinaryWriter.KIND_STYLE,
+                        TABLES0, TABLES1, TABLES2, TABLES3,
+                        1, // string count
+                        4, '"', 'x', 'y', '"',
+                        1, // known properties
+                        (byte) TextStylePropertyName.BACKGROUND_COLOR.ordinal,
+                        TextNodeBinaryWriter.VALUE_JSON, 0,
+                        0 // unknown properties
+                },
+                "Invalid value for \"background-color\" at 16"
+        );
+    }
+
+    private void readTextNodeFails(final byte[] bytes,
+                                   final String message) {
+        final TextNodeException thrown = assertThrows(TextNodeException.class, () -> this.reader().readTextNode(bytes));
+        this.checkEquals(message, thrown.getMessage());
+    }
+
+    private void readTextStyleFails(final byte[] bytes,
+                                    final String message) {
+        final TextNodeException thrown = assertThrows(TextNodeException.class, () -> this.reader().readTextStyle(bytes));
+        this.checkEquals(message, thrown.getMessage());
+    }
+
+    private final static byte TABLES0 = (byte) (TextNodeBinaryWriter.TABLES >>> 24);
+    private final static byte TABLES1 = (byte) (TextNodeBinaryWriter.TABLES >>> 16);
+    private final static byte TABLES2 = (byte) (TextNodeBinaryWriter.TABLES >>> 8);
+    private final static byte TABLES3 = (byte) TextNodeBinaryWriter.TABLES;
+
+    private void roundTripAndCheck(final TextNode node) {
+        final TextNode read = this.reader().readTextNode(this.writer().write(node));
+        this.checkEquals(node, read);
+
+        final JsonNodeMarshallContext context = this.marshallContext();
+        this.checkEquals(context.marshallWithType(node), context.marshallWithType(read), "json");
+    }
+
+    private void roundTripAndCheck(final TextStyle textStyle) {
+        final TextStyle read = this.reader().readTextStyle(this.writer().write(textStyle));
+        this.checkEquals(textStyle, read);
+
+        final JsonNodeMarshallContext context = this.marshallContext();
+        this.checkEquals(context.marshall(textStyle), context.marshall(read), "json");
+    }
+
+    private TextNode document() {
+        return TextNode.style(
+                Lists.of(
+                        Text.with("text-1a"),
+                        this.textStyle()
+                                .setChildren(
+                                        Lists.of(
+                                                TextNode.styleName(TextStyleName.with("style123"))
+                                                        .setChildren(Lists.of(Text.with("text-2b"), TextNode.placeholder(TextPlaceholderName.with("placeholder-3c")))),
+                                                Text.with("text-4d")
+                                        )
+                                ),
+                        Text.with("text-1a")
+                )
+        );
+    }
+
+    private TextStyle textStyle() {
+        final Map<TextStylePropertyName<?>, Object> map = Maps.sorted();
+        map.put(TextStylePropertyName.BACKGROUND_COLOR, Color.fromRgb(0x123456));
+        map.put(TextStylePropertyName.FONT_FAMILY, FontFamily.with("Times New Roman"));
+        map.put(TextStylePropertyName.FONT_SIZE, FontSize.with(12));
+        map.put(TextStylePropertyName.PADDING_LEFT, Length.pixel(1.5));
+        map.put(TextStylePropertyName.TEXT_ALIGN, TextAlign.CENTER);
+        map.put(TextStylePropertyName.with("unknown-property"), "unknown-value");
+        return TextStyle.with(map);
+    }
+
+    private TextNodeBinaryWriter writer() {
+        return TextNodeBinaryWriter.with(this.marshallContext());
+    }
+
+    private JsonNodeMarshallContext marshallContext() {
+        return JsonNodeMarshallContexts.basic();
+    }
+
+    private TextNodeBinaryReader reader() {
+        return TextNodeBinaryReader.with(
+                JsonNodeUnmarshallContexts.basic(
+                        ExpressionNumberKind.BIG_DECIMAL,
+                        MathContext.UNLIMITED
+                )
+        );
+    }
+
+    @Override
+    public Class<TextNodeBinaryReader> type() {
+        return TextNodeBinaryReader.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.json.marshall.JsonNodeMarshallContexts;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TextNodeBinaryWriterTest implements ClassTesting2<TextNodeBinaryWriter> {
+
+    @Test
+    public void testWithNullContextFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeBinaryWriter.with(null));
+    }
+
+    @Test
+    public void testWriteNullNodeFails() {
+        assertThrows(NullPointerException.class, () -> this.writer().write((TextNode) null));
+    }
+
+    @Test
+    public void testWriteNullTextStyleFails() {
+        assertThrows(NullPointerException.class, () -> this.writer().write((TextStyle) null));
+    }
+
+    @Test
+    public void testWriteText() {
+        assertArrayEquals(
+                new byte[]{
+                        'T', 'N', TextNodeBinaryWriter.VERSION, TextNodeBinaryWriter.KIND_NODE,
+                        TABLES0, TABLES1, TABLES2, TABLES3,
+                        1, // string count
+                        3, 'a', 'b', 'c',
+                        TextNodeBinaryWriter.NODE_TEXT, 0
+                },
+                this.writer().write(Text.with("abc"))
+        );
+    }
+
+    @Test
+    public void testWriteTextStyleEmpty() {
+        assertArrayEquals(
+                new byte[]{
+                        'T', 'N', TextNodeBinaryWriter.VERSION, TextNodeBinaryWriter.KIND_STYLE,
+                        TABLES0, TABLES1, TABLES2, TABLES3,
+                        0, // string count
+                        0, // known properties
+                        0 // unknown properties
+                },
+                this.writer().write(TextStyle.EMPTY)
+        );
+    }
+
+    @Test
+    public void testWriteTextStyleEnum() {
+        final TextStyle textStyle = TextStyle.EMPTY.set(TextStylePropertyName.TEXT_ALIGN, TextAlign.CENTER);
+
+        assertArrayEquals(
+                new byte[]{
+                        'T', 'N', TextNodeBinaryWriter.VERSION, TextNodeBinaryWriter.KIND_STYLE,
+                        TABLES0, TABLES1, TABLES2, TABLES3,
+                        0, // string count
+                        1, // known properties
+                        (byte) TextStylePropertyName.TEXT_ALIGN.ordinal,
+                        TextNodeBinaryWriter.VALUE_ENUM,
+                        (byte) TextAlign.CENTER.ordinal(),
+                        0 // unknown properties
+                },
+                this.writer().write(textStyle)
+        );
+    }
+
+    @Test
+    public void testWriteRepeatedStringsShared() {
+        final TextNode node = TextNode.style(
+                Lists.of(
+                        Text.with("repeated"),
+                        Text.with("repeated"),
+                        Text.with("repeated")
+                )
+        );
+
+        final byte[] bytes = this.writer().write(node);
+        final String all = new String(bytes, StandardCharsets.ISO_8859_1);
+        this.checkEquals(all.indexOf("repeated"), all.lastIndexOf("repeated"), "string table should contain repeated once");
+    }
+
+    @Test
+    public void testWriteTwice() {
+        final TextNodeBinaryWriter writer = this.writer();
+        final TextNode node = Text.with("abc");
+
+        assertArrayEquals(writer.write(node), writer.write(node));
+    }
+
+    private TextNodeBinaryWriter writer() {
+        return TextNodeBinaryWriter.with(JsonNodeMarshallContexts.basic());
+    }
+
+    private final static byte TABLES0 = (byte) (TextNodeBinaryWriter.TABLES >>> 24);
+    private final static byte TABLES1 = (byte) (TextNodeBinaryWriter.TABLES >>> 16);
+    private final static byte TABLES2 = (byte) (TextNodeBinaryWriter.TABLES >>> 8);
+    private final static byte TABLES3 = (byte) TextNodeBinaryWriter.TABLES;
+
+    @Override
+    public Class<TextNodeBinaryWriter> type() {
+        return TextNodeBinaryWriter.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TextNodeEditorTest implements ClassTesting2<TextNodeEditor>,
+        ToStringTesting<TextNodeEditor> {
+
+    @Test
+    public void testWithNullFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeEditor.with(null));
+    }
+
+    @Test
+    public void testBuildWithoutEdits() {
+        final TextNode root = this.root();
+        assertSame(root, TextNodeEditor.with(root).build());
+    }
+
+    @Test
+    public void testReplaceNodeNotWithinRootFails() {
+        final TextNodeEditor editor = TextNodeEditor.with(this.root());
+        assertThrows(IllegalArgumentException.class, () -> editor.replace(Text.with("other"), Text.with("replacement")));
+    }
+
+    @Test
+    public void testReplaceNodeFromEqualRootFails() {
+        final TextNodeEditor editor = TextNodeEditor.with(this.root());
+        assertThrows(IllegalArgumentException.class, () -> editor.replace(this.root().children().get(0), Text.with("replacement")));
+    }
+
+    @Test
+    public void testRemoveRootFails() {
+        final TextNode root = this.root();
+        assertThrows(IllegalArgumentException.class, () -> TextNodeEditor.with(root).remove(root));
+    }
+
+    @Test
+    public void testReplaceBelowRemovedFails() {
+        final TextNode root = this.root();
+        final TextNode child = root.children().get(0);
+
+        final TextNodeEditor editor = TextNodeEditor.with(root)
+                .remove(child);
+        assertThrows(IllegalStateException.class, () -> editor.replace(child.children().get(0), Text.with("replacement")));
+    }
+
+    @Test
+    public void testSetText() {
+        final TextNode root = this.root();
+        final Text text = root.children().get(0).children().get(1).cast();
+
+        this.buildAndCheck(TextNodeEditor.with(root)
+                        .setText(text, "b2"),
+                text.setText("b2").root());
+    }
+
+    @Test
+    public void testManyEdits() {
+        final TextNode root = this.root();
+        final TextNode child0 = root.children().get(0);
+        final Text a = child0.children().get(0).cast();
+        final Text b = child0.children().get(1).cast();
+        final TextNode child1 = root.children().get(1);
+        final Text c = child1.children().get(0).cast();
+        final Text d = root.children().get(2).cast();
+
+        final TextNode expected = style(
+                style(Text.with("A"), Text.with("B")),
+                style(Text.with("C")),
+                Text.with("D")
+        );
+
+        this.buildAndCheck(TextNodeEditor.with(root)
+                        .setText(a, "A")
+                        .setText(b, "B")
+                        .setText(c, "C")
+                        .setText(d, "D"),
+                expected);
+    }
+
+    @Test
+    public void testRemove() {
+        final TextNode root = this.root();
+        final TextNode child0 = root.children().get(0);
+
+        final TextNode expected = style(
+                style(Text.with("b")),
+                style(Text.with("c"))
+        );
+
+        this.buildAndCheck(TextNodeEditor.with(root)
+                        .remove(child0.children().get(0))
+                        .remove(root.children().get(2)),
+                expected);
+    }
+
+    @Test
+    public void testReplaceDiscardsChildEdits() {
+        final TextNode root = this.root();
+        final TextNode child0 = root.children().get(0);
+        final Text replacement = Text.with("replaced");
+
+        final TextNode expected = style(
+                replacement,
+                style(Text.with("c")),
+                Text.with("d")
+        );
+
+        this.buildAndCheck(TextNodeEditor.with(root)
+                        .setText(child0.children().get(0).cast(), "A")
+                        .replace(child0, replacement),
+                expected);
+    }
+
+    @Test
+    public void testReplaceRoot() {
+        final TextNode root = this.root();
+        final Text replacement = Text.with("replaced");
+
+        this.buildAndCheck(TextNodeEditor.with(root)
+                        .replace(root, replacement),
+                replacement);
+    }
+
+    @Test
+    public void testSetAttributes() {
+        final TextNode root = this.root();
+        final TextNode d = root.children().get(2);
+        final TextNode child1 = root.children().get(1);
+
+        this.buildAndCheck(TextNodeEditor.with(root)
+                        .setAttributes(d, Maps.of(TextStylePropertyName.WORD_WRAP, WordWrap.NORMAL))
+                        .setAttributes(child1, Maps.of(TextStylePropertyName.TEXT_ALIGN, TextAlign.LEFT)),
+                style(
+                        style(Text.with("a"), Text.with("b")),
+                        TextStyle.EMPTY
+                                .set(TextStylePropertyName.TEXT_ALIGN, TextAlign.LEFT)
+                                .setChildren(Lists.of(Text.with("c"))),
+                        TextStyle.EMPTY
+                                .set(TextStylePropertyName.WORD_WRAP, WordWrap.NORMAL)
+                                .setChildren(Lists.of(Text.with("d")))
+                ));
+    }
+
+    @Test
+    public void testSubtreeWithParent() {
+        final TextNode root = this.root();
+        final TextNode child0 = root.children().get(0);
+
+        final TextNode built = TextNodeEditor.with(child0)
+                .setText(child0.children().get(0).cast(), "A")
+                .build();
+
+        this.checkEquals(((Text) child0.children().get(0)).setText("A").parentOrFail(), built);
+        this.checkEquals(0, built.index(), "index");
+    }
+
+    @Test
+    public void testToString() {
+        final TextNode root = this.root();
+
+        this.toStringAndCheck(TextNodeEditor.with(root)
+                        .remove(root.children().get(2)),
+                "{2=remove}");
+    }
+
+    private void buildAndCheck(final TextNodeEditor editor,
+                               final TextNode expected) {
+        this.checkEquals(expected, editor.build(), editor::toString);
+    }
+
+    /**
+     * <pre>
+     * style
+     *   style
+     *     "a"
+     *     "b"
+     *   style
+     *     "c"
+     *   "d"
+     * </pre>
+     */
+    private TextNode root() {
+        return style(
+                style(Text.with("a"), Text.with("b")),
+                style(Text.with("c")),
+                Text.with("d")
+        );
+    }
+
+    /**
+     * Creates a {@link TextStyleNode} without unwrapping a single child.
+     */
+    private static TextNode style(final TextNode... children) {
+        return TextNode.style(TextNode.NO_CHILDREN)
+                .setChildren(Lists.of(children));
+    }
+
+    @Override
+    public Class<TextNodeEditor> type() {
+        return TextNodeEditor.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.text;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.Cast;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TextNodeHtmlStyleClassesTest implements ClassTesting2<TextNodeHtmlStyleClasses>,
+        ToStringTesting<TextNodeHtmlStyleClasses> {
+
+    @Test
+    public void testWithNullPrefixFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeHtmlStyleClasses.with(null));
+    }
+
+    @Test
+    public void testWithEmptyPrefixFails() {
+        assertThrows(IllegalArgumentException.class, () -> TextNodeHtmlStyleClasses.with(""));
+    }
+
+    @Test
+    public void testWithInvalidPrefixFails() {
+        assertThrows(IllegalArgumentException.class, () -> TextNodeHtmlStyleClasses.with("a\"b"));
+    }
+
+    @Test
+    public void testWithDigitFirstPrefixFails() {
+        assertThrows(IllegalArgumentException.class, () -> TextNodeHtmlStyleClasses.atomic("1a"));
+    }
+
+    @Test
+    public void testWriteStyleSheetNullOutputFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeHtmlStyleClasses.with("s").writeStyleSheet(null));
+    }
+
+    @Test
+    public void testClassesSameStyleShared() {
+        final TextNodeHtmlStyleClasses classes = TextNodeHtmlStyleClasses.with("s");
+
+        this.checkEquals("s0", classes.classes(this.style1().textStyleMap()));
+        this.checkEquals("s1", classes.classes(this.style2().textStyleMap()));
+        this.checkEquals("s0", classes.classes(this.style1().textStyleMap()));
+        this.checkEquals(2, classes.size(), "size");
+    }
+
+    @Test
+    public void testClassesAtomic() {
+        final TextNodeHtmlStyleClasses classes = TextNodeHtmlStyleClasses.atomic("a");
+
+        this.checkEquals("a0", classes.classes(this.style1().textStyleMap()));
+        this.checkEquals("a1 a0", classes.classes(this.style2().textStyleMap()));
+        this.checkEquals(2, classes.size(), "size");
+    }
+
+    @Test
+    public void testWriteStyleSheet() throws IOException {
+        final TextNodeHtmlStyleClasses classes = TextNodeHtmlStyleClasses.with("s");
+        classes.classes(this.style1().textStyleMap());
+        classes.classes(this.style2().textStyleMap());
+
+        this.writeStyleSheetAndCheck(classes,
+                "<style>\n" +
+                        ".s0 {font-weight: bold}\n" +
+                        ".s1 {font-style: italic; font-weight: bold}\n" +
+                        "</style>");
+    }
+
+    @Test
+    public void testWriteStyleSheetAtomic() throws IOException {
+        final TextNodeHtmlStyleClasses classes = TextNodeHtmlStyleClasses.atomic("a");
+        classes.classes(this.style1().textStyleMap());
+        classes.classes(this.style2().textStyleMap());
+
+        this.writeStyleSheetAndCheck(classes,
+                "<style>\n" +
+                        ".a0 {font-weight: bold}\n" +
+                        ".a1 {font-style: italic}\n" +
+                        "</style>");
+    }
+
+    @Test
+    public void testWriteStyleSheetEscapesLessThan() throws IOException {
+        final TextNodeHtmlStyleClasses classes = TextNodeHtmlStyleClasses.with("s");
+        classes.classes(TextStyle.EMPTY
+                .set(TextStylePropertyName.TEXT_OVERFLOW, TextOverflow.string("</style>"))
+                .textStyleMap());
+
+        this.writeStyleSheetAndCheck(classes,
+                "<style>\n" +
+                        ".s0 {text-overflow: \"\\3c /style>\"}\n" +
+                        "</style>");
+    }
+
+    @Test
+    public void testWriteStyleSheetEscapesBracesAndSemiColons() throws IOException {
+        final TextStylePropertyName<String> unknown = Cast.to(TextStylePropertyName.with("unknown-property"));
+        final TextNodeHtmlStyleClasses classes = TextNodeHtmlStyleClasses.with("s");
+        classes.classes(TextStyle.EMPTY
+                .set(unknown, "a} .x {color: red; width: 1px")
+                .textStyleMap());
+
+        this.writeStyleSheetAndCheck(classes,
+                "<style>\n" +
+                        ".s0 {unknown-property: a\\} .x \\{color: red\\; width: 1px}\n" +
+                        "</style>");
+    }
+
+    @Test
+    public void testWriterBatch() throws IOException {
+        final TextNodeHtmlStyleClasses classes = TextNodeHtmlStyleClasses.with("s");
+        final TextNodeHtmlWriter writer = TextNodeHtmlWriter.with((n) -> Optional.empty(), (n) -> Optional.empty())
+                .setStyleClasses(Optional.of(classes));
+
+        final StringBuilder b = new StringBuilder();
+        writer.write(this.style1().setChildren(Lists.of(Text.with("a"))), b);
+        writer.write(this.style2().setChildren(Lists.of(Text.with("b"))), b);
+        writer.write(this.style1().setChildren(Lists.of(Text.with("c"))), b);
+        classes.writeStyleSheet(b);
+
+        this.checkEquals("<span class=\"s0\">a</span>" +
+                        "<span class=\"s1\">b</span>" +
+                        "<span class=\"s0\">c</span>" +
+                        "<style>\n" +
+                        ".s0 {font-weight: bold}\n" +
+                        ".s1 {font-style: italic; font-weight: bold}\n" +
+                        "</style>",
+                b.toString());
+    }
+
+    @Test
+    public void testToString() {
+        final TextNodeHtmlStyleClasses classes = TextNodeHtmlStyleClasses.with("s");
+        classes.classes(this.style1().textStyleMap());
+
+        this.toStringAndCheck(classes, "s 1");
+    }
+
+    @Test
+    public void testToStringAtomic() {
+        this.toStringAndCheck(TextNodeHtmlStyleClasses.atomic("a"), "atomic a 0");
+    }
+
+    private void writeStyleSheetAndCheck(final TextNodeHtmlStyleClasses classes,
+                                         final String expected) throws IOException {
+        final StringBuilder b = new StringBuilder();
+        classes.writeStyleSheet(b);
+        this.checkEquals(expected, b.toString());
+    }
+
+    private TextStyle style1() {
+        return TextStyle.EMPTY
+                .set(TextStylePropertyName.FONT_WEIGHT, FontWeight.BOLD);
+    }
+
+    private TextStyle style2() {
+        return TextStyle.EMPTY
+                .set(TextStylePropertyName.FONT_WEIGHT, FontWeight.BOLD)
+                .set(TextStylePropertyName.FONT_STYLE, FontStyle.ITALIC);
+    }
+
+    @Override
+    public Class<TextNodeHtmlStyleClasses> type() {
+        return TextNodeHtmlStyleClasses.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
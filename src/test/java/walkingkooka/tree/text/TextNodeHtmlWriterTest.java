@@ -0,0 +1,247 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.text;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TextNodeHtmlWriterTest implements ClassTesting2<TextNodeHtmlWriter>,
+        ToStringTesting<TextNodeHtmlWriter> {
+
+    private final static Function<TextPlaceholderName, Optional<TextNode>> PLACEHOLDERS = (n) -> Optional.empty();
+
+    private final static Function<TextStyleName, Optional<TextStyle>> STYLE_NAMES = (n) -> Optional.empty();
+
+    @Test
+    public void testWithNullPlaceholdersFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeHtmlWriter.with(null, STYLE_NAMES));
+    }
+
+    @Test
+    public void testWithNullStyleNamesFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeHtmlWriter.with(PLACEHOLDERS, null));
+    }
+
+    @Test
+    public void testWriteNullNodeFails() {
+        assertThrows(NullPointerException.class, () -> this.writer().write(null, new StringBuilder()));
+    }
+
+    @Test
+    public void testWriteNullOutputFails() {
+        assertThrows(NullPointerException.class, () -> this.writer().write(Text.with("a"), null));
+    }
+
+    @Test
+    public void testText() throws IOException {
+        this.writeAndCheck(Text.with("abc"), "abc");
+    }
+
+    @Test
+    public void testTextEscaped() throws IOException {
+        this.writeAndCheck(Text.with("a<b>&\"c\""), "a&lt;b&gt;&amp;&quot;c&quot;");
+    }
+
+    @Test
+    public void testStyleNodeEmptyStyle() throws IOException {
+        this.writeAndCheck(TextNode.style(Lists.of(Text.with("a"), Text.with("b"))), "ab");
+    }
+
+    @Test
+    public void testStyleNode() throws IOException {
+        this.writeAndCheck(
+                TextStyle.EMPTY
+                        .set(TextStylePropertyName.FONT_WEIGHT, FontWeight.BOLD)
+                        .set(TextStylePropertyName.PADDING_LEFT, Length.pixel(4.0))
+                        .setChildren(Lists.of(Text.with("a"))),
+                "<span style=\"font-weight: bold; padding-left: 4px\">a</span>"
+        );
+    }
+
+    @Test
+    public void testStyleNodeEnumFontFamilyAndFontSize() throws IOException {
+        this.writeAndCheck(
+                TextStyle.EMPTY
+                        .set(TextStylePropertyName.FONT_FAMILY, FontFamily.with("Times New Roman"))
+                        .set(TextStylePropertyName.FONT_SIZE, FontSize.with(12))
+                        .set(TextStylePropertyName.WORD_WRAP, WordWrap.BREAK_WORD)
+                        .setChildren(Lists.of(Text.with("a"))),
+                "<span style=\"font-family: Times New Roman; font-size: 12pt; word-wrap: break-word\">a</span>"
+        );
+    }
+
+    @Test
+    public void testStyleNodeCssEscaped() throws IOException {
+        this.writeAndCheck(
+                TextStyle.EMPTY
+                        .set(TextStylePropertyName.TEXT_OVERFLOW, TextOverflow.string("a&b"))
+                        .setChildren(Lists.of(Text.with("c"))),
+                "<span style=\"text-overflow: &quot;a&amp;b&quot;\">c</span>"
+        );
+    }
+
+    @Test
+    public void testNested() throws IOException {
+        this.writeAndCheck(
+                TextStyle.EMPTY
+                        .set(TextStylePropertyName.FONT_WEIGHT, FontWeight.BOLD)
+                        .setChildren(
+                                Lists.of(
+                                        Text.with("a"),
+                                        TextStyle.EMPTY
+                                                .set(TextStylePropertyName.FONT_STYLE, FontStyle.ITALIC)
+                                                .setChildren(Lists.of(Text.with("b"))),
+                                        Text.with("c")
+                                )
+                        ),
+                "<span style=\"font-weight: bold\">a<span style=\"font-style: italic\">b</span>c</span>"
+        );
+    }
+
+    @Test
+    public void testPlaceholderWithoutValue() throws IOException {
+        this.writeAndCheck(TextNode.style(Lists.of(Text.with("a"), TextNode.placeholder(TextPlaceholderName.with("p")))),
+                "a");
+    }
+
+    @Test
+    public void testPlaceholderWithValue() throws IOException {
+        final TextPlaceholderName name = TextPlaceholderName.with("p");
+
+        this.writeAndCheck(
+                TextNodeHtmlWriter.with(
+                        (n) -> Optional.ofNullable(n.equals(name) ? Text.with("<value>") : null),
+                        STYLE_NAMES
+                ),
+                TextNode.style(Lists.of(Text.with("a"), TextNode.placeholder(name))),
+                "a&lt;value&gt;"
+        );
+    }
+
+    @Test
+    public void testStyleNameWithoutStyle() throws IOException {
+        this.writeAndCheck(TextNode.styleName(TextStyleName.with("style1")).setChildren(Lists.of(Text.with("a"))),
+                "<span class=\"style1\">a</span>");
+    }
+
+    @Test
+    public void testStyleNameWithStyleSheet() throws IOException {
+        final TextStyleSheet sheet = TextStyleSheet.with(1);
+        sheet.set(TextStyleName.with("style1"), TextStyle.EMPTY.set(TextStylePropertyName.FONT_WEIGHT, FontWeight.BOLD));
+
+        this.writeAndCheck(
+                TextNodeHtmlWriter.with(PLACEHOLDERS, sheet::style),
+                TextNode.styleName(TextStyleName.with("style1")).setChildren(Lists.of(Text.with("a"))),
+                "<span style=\"font-weight: bold\">a</span>"
+        );
+    }
+
+    @Test
+    public void testCssCached() {
+        final TextStyle style = TextStyle.EMPTY
+                .set(TextStylePropertyName.FONT_WEIGHT, FontWeight.BOLD);
+        final TextNodeMap map = style.textStyleMap();
+
+        assertSame(map.css(), map.css());
+    }
+
+    @Test
+    public void testSetStyleClassesNullFails() {
+        assertThrows(NullPointerException.class, () -> this.writer().setStyleClasses(null));
+    }
+
+    @Test
+    public void testSetStyleClassesSame() {
+        final TextNodeHtmlWriter writer = this.writer();
+        assertSame(writer, writer.setStyleClasses(Optional.empty()));
+    }
+
+    @Test
+    public void testSetStyleClasses() {
+        final TextNodeHtmlStyleClasses classes = TextNodeHtmlStyleClasses.with("s");
+        final TextNodeHtmlWriter writer = this.writer();
+        final TextNodeHtmlWriter different = writer.setStyleClasses(Optional.of(classes));
+
+        this.checkEquals(Optional.of(classes), different.styleClasses(), "styleClasses");
+        this.checkEquals(Optional.empty(), writer.styleClasses(), "original styleClasses");
+    }
+
+    @Test
+    public void testStyleClasses() throws IOException {
+        final TextStyle bold = TextStyle.EMPTY
+                .set(TextStylePropertyName.FONT_WEIGHT, FontWeight.BOLD);
+        final TextStyle italic = TextStyle.EMPTY
+                .set(TextStylePropertyName.FONT_STYLE, FontStyle.ITALIC);
+        final TextNodeHtmlStyleClasses classes = TextNodeHtmlStyleClasses.with("s");
+
+        this.writeAndCheck(
+                this.writer()
+                        .setStyleClasses(Optional.of(classes)),
+                TextNode.style(
+                        Lists.of(
+                                bold.setChildren(Lists.of(Text.with("a"))),
+                                italic.setChildren(Lists.of(Text.with("b"))),
+                                bold.setChildren(Lists.of(Text.with("c")))
+                        )
+                ),
+                "<span class=\"s0\">a</span><span class=\"s1\">b</span><span class=\"s0\">c</span>"
+        );
+        this.checkEquals(2, classes.size(), "size");
+    }
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(TextNodeHtmlWriter.with(PLACEHOLDERS, STYLE_NAMES), PLACEHOLDERS + " " + STYLE_NAMES);
+    }
+
+    private void writeAndCheck(final TextNode node,
+                               final String html) throws IOException {
+        this.writeAndCheck(this.writer(), node, html);
+    }
+
+    private void writeAndCheck(final TextNodeHtmlWriter writer,
+                               final TextNode node,
+                               final String html) throws IOException {
+        final StringBuilder b = new StringBuilder();
+        writer.write(node, b);
+        this.checkEquals(html, b.toString(), () -> node.toString());
+    }
+
+    private TextNodeHtmlWriter writer() {
+        return TextNodeHtmlWriter.with(PLACEHOLDERS, STYLE_NAMES);
+    }
+
+    @Override
+    public Class<TextNodeHtmlWriter> type() {
+        return TextNodeHtmlWriter.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
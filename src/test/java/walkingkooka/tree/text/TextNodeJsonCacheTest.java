@@ -0,0 +1,188 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.json.marshall.JsonNodeMarshallContext;
+import walkingkooka.tree.json.marshall.JsonNodeMarshallContexts;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TextNodeJsonCacheTest implements ClassTesting2<TextNodeJsonCache>,
+        ToStringTesting<TextNodeJsonCache> {
+
+    private final static JsonNodeMarshallContext CONTEXT = JsonNodeMarshallContexts.basic();
+
+    @Test
+    public void testWithNullContextFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeJsonCache.with(null, 1));
+    }
+
+    @Test
+    public void testWithZeroMaxSizeFails() {
+        assertThrows(IllegalArgumentException.class, () -> TextNodeJsonCache.with(CONTEXT, 0));
+    }
+
+    @Test
+    public void testMarshallNullTextStyleFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeJsonCache.with(CONTEXT, 1).marshall(null));
+    }
+
+    @Test
+    public void testMarshallWithTypeNullNodeFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeJsonCache.with(CONTEXT, 1).marshallWithType(null));
+    }
+
+    @Test
+    public void testIsCompatible() {
+        final TextNodeJsonCache cache = TextNodeJsonCache.with(CONTEXT, 1);
+
+        this.checkEquals(true, cache.isCompatible(CONTEXT), "same context");
+        this.checkEquals(false, cache.isCompatible(JsonNodeMarshallContexts.fake()), "different context");
+    }
+
+    @Test
+    public void testMarshallTextStyleEmptyNotCached() {
+        final TextNodeJsonCache cache = TextNodeJsonCache.with(CONTEXT, 2);
+
+        this.checkEquals(CONTEXT.marshall(TextStyle.EMPTY), cache.marshall(TextStyle.EMPTY));
+        this.checkCache(cache, 0, 0, 0);
+    }
+
+    @Test
+    public void testMarshallTextStyleMissThenHit() {
+        final TextNodeJsonCache cache = TextNodeJsonCache.with(CONTEXT, 2);
+
+        this.checkEquals(CONTEXT.marshall(this.style1()), cache.marshall(this.style1()));
+        this.checkCache(cache, 1, 0, 1);
+
+        assertSame(cache.marshall(this.style1()), cache.marshall(this.style1()));
+        this.checkCache(cache, 1, 2, 1);
+    }
+
+    @Test
+    public void testMarshallWithTypeTextNotCached() {
+        final TextNodeJsonCache cache = TextNodeJsonCache.with(CONTEXT, 2);
+        final TextNode text = Text.with("abc");
+
+        this.checkEquals(CONTEXT.marshallWithType(text), cache.marshallWithType(text));
+        this.checkCache(cache, 0, 0, 0);
+    }
+
+    @Test
+    public void testMarshallWithTypeDocument() {
+        final TextNodeJsonCache cache = TextNodeJsonCache.with(CONTEXT, 10);
+        final TextNode document = this.document();
+
+        this.checkEquals(CONTEXT.marshallWithType(document), cache.marshallWithType(document));
+        this.checkCache(cache, 6, 1, 6); // 4 parents and 2 styles, style1 hit once
+
+        assertSame(cache.marshallWithType(document), cache.marshallWithType(document));
+        this.checkCache(cache, 6, 3, 6);
+    }
+
+    @Test
+    public void testMarshallWithTypeChangedChildReusesSiblings() {
+        final TextNodeJsonCache cache = TextNodeJsonCache.with(CONTEXT, 10);
+        final TextNode document = this.document();
+        cache.marshallWithType(document);
+
+        final Text text = (Text) document.children()
+                .get(0)
+                .children()
+                .get(0);
+        final TextNode changed = text.setText("changed")
+                .root();
+        this.checkEquals(CONTEXT.marshallWithType(changed), cache.marshallWithType(changed));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted() {
+        final TextNodeJsonCache cache = TextNodeJsonCache.with(CONTEXT, 1);
+
+        cache.marshall(this.style1());
+        cache.marshall(this.style2());
+        cache.marshall(this.style1());
+
+        this.checkCache(cache, 1, 0, 3);
+    }
+
+    @Test
+    public void testClear() {
+        final TextNodeJsonCache cache = TextNodeJsonCache.with(CONTEXT, 2);
+        cache.marshall(this.style1());
+        cache.clear();
+
+        this.checkCache(cache, 0, 0, 0);
+    }
+
+    private void checkCache(final TextNodeJsonCache cache,
+                            final int size,
+                            final long hits,
+                            final long misses) {
+        this.checkEquals(size, cache.size(), "size");
+        this.checkEquals(hits, cache.hits(), "hits");
+        this.checkEquals(misses, cache.misses(), "misses");
+    }
+
+    @Test
+    public void testToString() {
+        final TextNodeJsonCache cache = TextNodeJsonCache.with(CONTEXT, 10);
+
+        cache.marshall(this.style1());
+        cache.marshall(this.style1());
+
+        this.toStringAndCheck(cache, "size: 1/10 hits: 1 misses: 1");
+    }
+
+    private TextNode document() {
+        return TextNode.style(
+                Lists.of(
+                        this.style1().setChildren(Lists.of(Text.with("a"))),
+                        this.style2().setChildren(Lists.of(Text.with("b"))),
+                        this.style1().setChildren(Lists.of(Text.with("c")))
+                )
+        );
+    }
+
+    private TextStyle style1() {
+        return TextStyle.EMPTY
+                .set(TextStylePropertyName.WORD_WRAP, WordWrap.BREAK_WORD);
+    }
+
+    private TextStyle style2() {
+        return TextStyle.EMPTY
+                .set(TextStylePropertyName.WORD_WRAP, WordWrap.NORMAL)
+                .set(TextStylePropertyName.FONT_FAMILY, FontFamily.with("Times New Roman"));
+    }
+
+    @Override
+    public Class<TextNodeJsonCache> type() {
+        return TextNodeJsonCache.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
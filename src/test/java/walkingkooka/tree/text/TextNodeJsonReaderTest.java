@@ -0,0 +1,248 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.color.Color;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+import walkingkooka.tree.json.JsonNode;
+import walkingkooka.tree.json.marshall.JsonNodeMarshallContext;
+import walkingkooka.tree.json.marshall.JsonNodeMarshallContexts;
+import walkingkooka.tree.json.marshall.JsonNodeUnmarshallContext;
+import walkingkooka.tree.json.marshall.JsonNodeUnmarshallContexts;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.MathContext;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TextNodeJsonReaderTest implements ClassTesting2<TextNodeJsonReader>,
+        ToStringTesting<TextNodeJsonReader> {
+
+    @Test
+    public void testWithNullReaderFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeJsonReader.with((Reader) null, this.unmarshallContext()));
+    }
+
+    @Test
+    public void testWithNullCharSequenceFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeJsonReader.with((CharSequence) null, this.unmarshallContext()));
+    }
+
+    @Test
+    public void testWithNullContextFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeJsonReader.with("{}", null));
+    }
+
+    @Test
+    public void testReadText() throws IOException {
+        this.readAndCheck(Text.with("abc123"));
+    }
+
+    @Test
+    public void testReadTextEscaped() throws IOException {
+        this.readAndCheck(Text.with("quote\" backslash\\ tab\t newline\n unicode\u0001"));
+    }
+
+    @Test
+    public void testReadPlaceholder() throws IOException {
+        this.readAndCheck(TextNode.placeholder(TextPlaceholderName.with("placeholder123")));
+    }
+
+    @Test
+    public void testReadStyleNodeEmpty() throws IOException {
+        this.readAndCheck(TextNode.style(TextNode.NO_CHILDREN));
+    }
+
+    @Test
+    public void testReadStyleNodeOnlyStyles() throws IOException {
+        this.readAndCheck(TextNode.style(TextNode.NO_CHILDREN)
+                .setAttributes(Maps.of(TextStylePropertyName.BACKGROUND_COLOR, Color.fromRgb(0x123456))));
+    }
+
+    @Test
+    public void testReadStyleNameNode() throws IOException {
+        this.readAndCheck(TextNode.styleName(TextStyleName.with("style123")));
+    }
+
+    @Test
+    public void testReadDocument() throws IOException {
+        this.readAndCheck(this.document());
+    }
+
+    @Test
+    public void testReadDocumentReader() throws IOException {
+        final TextNode document = this.document();
+        final String json = this.marshallContext().marshallWithType(document).toString();
+
+        this.checkEquals(document,
+                TextNodeJsonReader.with(new StringReader(json), this.unmarshallContext()).readWithType());
+    }
+
+    @Test
+    public void testReadValueBeforeType() throws IOException {
+        this.checkEquals(Text.with("abc"),
+                TextNodeJsonReader.with("{\"value\": \"abc\", \"type\": \"text\"}", this.unmarshallContext()).readWithType());
+    }
+
+    @Test
+    public void testReadExtraWhitespace() throws IOException {
+        this.checkEquals(Text.with("abc"),
+                TextNodeJsonReader.with(" \n{ \"type\" :\t\"text\" ,\r\n \"value\" : \"abc\" } ", this.unmarshallContext()).readWithType());
+    }
+
+    @Test
+    public void testReadTextStyle() throws IOException {
+        final TextStyle textStyle = this.textStyle();
+        final String json = this.marshallContext().marshall(textStyle).toString();
+
+        this.checkEquals(textStyle,
+                TextNodeJsonReader.with(json, this.unmarshallContext()).readTextStyle());
+    }
+
+    @Test
+    public void testReadTextStyleEmpty() throws IOException {
+        this.checkEquals(TextStyle.EMPTY,
+                TextNodeJsonReader.with("{}", this.unmarshallContext()).readTextStyle());
+    }
+
+    @Test
+    public void testReadUnknownTypeFails() {
+        this.readFails("{\"type\": \"unknown\", \"value\": \"abc\"}");
+    }
+
+    @Test
+    public void testReadMissingTypeFails() {
+        this.readFails("{\"value\": \"abc\"}");
+    }
+
+    @Test
+    public void testReadMissingValueFails() {
+        this.readFails("{\"type\": \"text\"}");
+    }
+
+    @Test
+    public void testReadUnterminatedStringFails() {
+        this.readFails("{\"type\": \"text\", \"value\": \"abc");
+    }
+
+    @Test
+    public void testReadTrailingTextFails() {
+        this.readFails("{\"type\": \"text\", \"value\": \"abc\"}!");
+    }
+
+    @Test
+    public void testReadStyleNameNodeMissingStyleNameFails() {
+        this.readFails("{\"type\": \"text-styleName\", \"value\": {\"children\": []}}");
+    }
+
+    @Test
+    public void testReadFailsIncludesOffset() {
+        final TextNodeException thrown = assertThrows(TextNodeException.class,
+                () -> TextNodeJsonReader.with("{\"type\"! ", this.unmarshallContext()).readWithType());
+        this.checkEquals("Invalid character '!' at 7", thrown.getMessage());
+    }
+
+    @Test
+    public void testReadValueBeforeTypeFailsIncludesOffset() {
+        final TextNodeException thrown = assertThrows(TextNodeException.class,
+                () -> TextNodeJsonReader.with("{\"value\": \"abc\", \"type\": \"unknown\"}", this.unmarshallContext()).readWithType());
+        this.checkEquals("Unknown type \"unknown\" at 10", thrown.getMessage());
+    }
+
+    @Test
+    public void testReadValueBeforeTypeInvalidValueFailsIncludesOffset() {
+        final TextNodeException thrown = assertThrows(TextNodeException.class,
+                () -> TextNodeJsonReader.with("{\"value\": {\"children\": [], \"unknown\": 1}, \"type\": \"text-style-node\"}", this.unmarshallContext()).readWithType());
+        this.checkEquals("Unknown property \"unknown\" at 37", thrown.getMessage());
+    }
+
+    private void readFails(final String json) {
+        assertThrows(TextNodeException.class, () -> TextNodeJsonReader.with(json, this.unmarshallContext()).readWithType());
+    }
+
+    private void readAndCheck(final TextNode node) throws IOException {
+        final String json = this.marshallContext().marshallWithType(node).toString();
+
+        this.checkEquals(this.unmarshallContext().unmarshallWithType(JsonNode.parse(json)),
+                TextNodeJsonReader.with(json, this.unmarshallContext()).readWithType(),
+                json);
+    }
+
+    private TextNode document() {
+        return TextNode.style(
+                Lists.of(
+                        Text.with("text-1a"),
+                        this.textStyle()
+                                .setChildren(
+                                        Lists.of(
+                                                TextNode.styleName(TextStyleName.with("style123"))
+                                                        .setChildren(Lists.of(Text.with("text-2b"), TextNode.placeholder(TextPlaceholderName.with("placeholder-3c")))),
+                                                Text.with("text-4d")
+                                        )
+                                ),
+                        Text.with("\"quoted\"")
+                )
+        );
+    }
+
+    private TextStyle textStyle() {
+        final Map<TextStylePropertyName<?>, Object> map = Maps.sorted();
+        map.put(TextStylePropertyName.BACKGROUND_COLOR, Color.fromRgb(0x123456));
+        map.put(TextStylePropertyName.FONT_FAMILY, FontFamily.with("Times New Roman"));
+        map.put(TextStylePropertyName.FONT_SIZE, FontSize.with(12));
+        map.put(TextStylePropertyName.PADDING_LEFT, Length.pixel(1.5));
+        map.put(TextStylePropertyName.TEXT_ALIGN, TextAlign.CENTER);
+        map.put(TextStylePropertyName.with("unknown-property"), "unknown-value");
+        return TextStyle.with(map);
+    }
+
+    private JsonNodeMarshallContext marshallContext() {
+        return JsonNodeMarshallContexts.basic();
+    }
+
+    private JsonNodeUnmarshallContext unmarshallContext() {
+        return JsonNodeUnmarshallContexts.basic(
+                ExpressionNumberKind.BIG_DECIMAL,
+                MathContext.UNLIMITED
+        );
+    }
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(TextNodeJsonReader.with("{}", this.unmarshallContext()), "offset 0");
+    }
+
+    @Override
+    public Class<TextNodeJsonReader> type() {
+        return TextNodeJsonReader.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
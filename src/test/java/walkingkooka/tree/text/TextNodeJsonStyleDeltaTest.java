@@ -0,0 +1,165 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+import walkingkooka.tree.json.JsonNode;
+import walkingkooka.tree.json.marshall.JsonNodeMarshallContext;
+import walkingkooka.tree.json.marshall.JsonNodeMarshallContexts;
+import walkingkooka.tree.json.marshall.JsonNodeUnmarshallContext;
+import walkingkooka.tree.json.marshall.JsonNodeUnmarshallContexts;
+
+import java.math.MathContext;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TextNodeJsonStyleDeltaTest implements ClassTesting2<TextNodeJsonStyleDelta> {
+
+    @Test
+    public void testMarshallNullNodeFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeJsonStyleDelta.marshall(null, this.marshallContext()));
+    }
+
+    @Test
+    public void testMarshallNullContextFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeJsonStyleDelta.marshall(Text.with("abc"), null));
+    }
+
+    @Test
+    public void testUnmarshallNullJsonFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeJsonStyleDelta.unmarshall(null, this.unmarshallContext()));
+    }
+
+    @Test
+    public void testUnmarshallNullContextFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeJsonStyleDelta.unmarshall(JsonNode.object(), null));
+    }
+
+    @Test
+    public void testMarshallWithoutNestingSameAsMarshallWithType() {
+        final TextNode node = this.style(this.parentStyle(), Text.with("abc"));
+
+        this.checkEquals(
+                this.marshallContext().marshallWithType(node),
+                TextNodeJsonStyleDelta.marshall(node, this.marshallContext())
+        );
+    }
+
+    @Test
+    public void testMarshallNested() {
+        this.checkEquals(
+                JsonNode.parse("{\"type\": \"text-style-node\", \"value\": {\"styles\": {\"font-family\": \"Times New Roman\", \"font-size\": 12, \"text-align\": \"LEFT\"}, \"children\": [\n" +
+                        "  {\"type\": \"text-style-node\", \"value\": {\"styles\": {\"font-size\": 14}, \"children\": [{\"type\": \"text\", \"value\": \"changed\"}]}},\n" +
+                        "  {\"type\": \"text-style-node\", \"value\": {\"styles\": {\"text-align\": null}, \"children\": [{\"type\": \"text\", \"value\": \"removed\"}]}},\n" +
+                        "  {\"type\": \"text-style-node\", \"value\": {\"children\": [{\"type\": \"text\", \"value\": \"same\"}]}}\n" +
+                        "]}}"),
+                TextNodeJsonStyleDelta.marshall(this.document(), this.marshallContext())
+        );
+    }
+
+    @Test
+    public void testRoundTripText() {
+        this.roundTripAndCheck(Text.with("abc"));
+    }
+
+    @Test
+    public void testRoundTripStyleNodeEmpty() {
+        this.roundTripAndCheck(TextNode.style(TextNode.NO_CHILDREN));
+    }
+
+    @Test
+    public void testRoundTripDocument() {
+        this.roundTripAndCheck(this.document());
+    }
+
+    @Test
+    public void testRoundTripStyleNameNodeBetween() {
+        this.roundTripAndCheck(
+                this.style(
+                        this.parentStyle(),
+                        TextNode.styleName(TextStyleName.with("style123"))
+                                .setChildren(
+                                        Lists.of(
+                                                this.style(this.parentStyle().remove(TextStylePropertyName.FONT_FAMILY), Text.with("nested"))
+                                        )
+                                )
+                )
+        );
+    }
+
+    private void roundTripAndCheck(final TextNode node) {
+        this.checkEquals(
+                node,
+                TextNodeJsonStyleDelta.unmarshall(
+                        TextNodeJsonStyleDelta.marshall(node, this.marshallContext()),
+                        this.unmarshallContext()
+                )
+        );
+    }
+
+    private TextNode document() {
+        final TextStyle parent = this.parentStyle();
+
+        return this.style(
+                parent,
+                this.style(parent.set(TextStylePropertyName.FONT_SIZE, FontSize.with(14)), Text.with("changed")),
+                this.style(parent.remove(TextStylePropertyName.TEXT_ALIGN), Text.with("removed")),
+                this.style(parent, Text.with("same"))
+        );
+    }
+
+    private TextStyle parentStyle() {
+        final Map<TextStylePropertyName<?>, Object> map = Maps.sorted();
+        map.put(TextStylePropertyName.FONT_FAMILY, FontFamily.with("Times New Roman"));
+        map.put(TextStylePropertyName.FONT_SIZE, FontSize.with(12));
+        map.put(TextStylePropertyName.TEXT_ALIGN, TextAlign.LEFT);
+        return TextStyle.with(map);
+    }
+
+    private TextNode style(final TextStyle textStyle,
+                           final TextNode... children) {
+        return textStyle.setChildren(Lists.of(children));
+    }
+
+    private JsonNodeMarshallContext marshallContext() {
+        return JsonNodeMarshallContexts.basic();
+    }
+
+    private JsonNodeUnmarshallContext unmarshallContext() {
+        return JsonNodeUnmarshallContexts.basic(
+                ExpressionNumberKind.BIG_DECIMAL,
+                MathContext.UNLIMITED
+        );
+    }
+
+    @Override
+    public Class<TextNodeJsonStyleDelta> type() {
+        return TextNodeJsonStyleDelta.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.color.Color;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+import walkingkooka.tree.json.JsonNode;
+import walkingkooka.tree.json.marshall.JsonNodeMarshallContext;
+import walkingkooka.tree.json.marshall.JsonNodeMarshallContexts;
+import walkingkooka.tree.json.marshall.JsonNodeUnmarshallContext;
+import walkingkooka.tree.json.marshall.JsonNodeUnmarshallContexts;
+
+import java.math.MathContext;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TextNodeJsonStyleDictionaryTest implements ClassTesting2<TextNodeJsonStyleDictionary> {
+
+    @Test
+    public void testMarshallNullNodeFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeJsonStyleDictionary.marshall(null, this.marshallContext()));
+    }
+
+    @Test
+    public void testMarshallNullContextFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeJsonStyleDictionary.marshall(Text.with("abc"), null));
+    }
+
+    @Test
+    public void testUnmarshallNullJsonFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeJsonStyleDictionary.unmarshall(null, this.unmarshallContext()));
+    }
+
+    @Test
+    public void testUnmarshallNullContextFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeJsonStyleDictionary.unmarshall(JsonNode.object(), null));
+    }
+
+    @Test
+    public void testMarshallText() {
+        final Text text = Text.with("abc");
+
+        this.checkEquals(
+                JsonNode.parse("{\"styles\": [], \"value\": " + this.marshallContext().marshallWithType(text) + "}"),
+                TextNodeJsonStyleDictionary.marshall(text, this.marshallContext())
+        );
+    }
+
+    @Test
+    public void testMarshallRepeatedStylesOnce() {
+        this.checkEquals(
+                JsonNode.parse("{\n" +
+                        "  \"styles\": [{\"color\": \"#123456\"}, {\"color\": \"#654321\"}],\n" +
+                        "  \"value\": {\"type\": \"text-style-node\", \"value\": {\"children\": [\n" +
+                        "    {\"type\": \"text-style-node\", \"value\": {\"style\": 0, \"children\": [{\"type\": \"text\", \"value\": \"a\"}]}},\n" +
+                        "    {\"type\": \"text-style-node\", \"value\": {\"style\": 1, \"children\": [{\"type\": \"text\", \"value\": \"b\"}]}},\n" +
+                        "    {\"type\": \"text-style-node\", \"value\": {\"style\": 0, \"children\": [{\"type\": \"text\", \"value\": \"c\"}]}}\n" +
+                        "  ]}}\n" +
+                        "}"),
+                TextNodeJsonStyleDictionary.marshall(this.document(), this.marshallContext())
+        );
+    }
+
+    @Test
+    public void testRoundTripText() {
+        this.roundTripAndCheck(Text.with("abc"));
+    }
+
+    @Test
+    public void testRoundTripPlaceholder() {
+        this.roundTripAndCheck(TextNode.placeholder(TextPlaceholderName.with("placeholder123")));
+    }
+
+    @Test
+    public void testRoundTripStyleNameNode() {
+        this.roundTripAndCheck(TextNode.styleName(TextStyleName.with("style123"))
+                .setChildren(Lists.of(this.style(0x123456, "a"))));
+    }
+
+    @Test
+    public void testRoundTripDocument() {
+        this.roundTripAndCheck(this.document());
+    }
+
+    @Test
+    public void testUnmarshallSharesStyles() {
+        final TextNode document = this.roundTripAndCheck(this.document());
+
+        assertSame(((TextStyleNode) document.children().get(0)).attributes,
+                ((TextStyleNode) document.children().get(2)).attributes);
+    }
+
+    @Test
+    public void testUnmarshallInvalidStyleIndexFails() {
+        assertThrows(TextNodeException.class, () -> TextNodeJsonStyleDictionary.unmarshall(
+                JsonNode.parse("{\"styles\": [], \"value\": {\"type\": \"text-style-node\", \"value\": {\"style\": 0}}}"),
+                this.unmarshallContext())
+        );
+    }
+
+    private TextNode roundTripAndCheck(final TextNode node) {
+        final TextNode unmarshalled = TextNodeJsonStyleDictionary.unmarshall(
+                TextNodeJsonStyleDictionary.marshall(node, this.marshallContext()),
+                this.unmarshallContext()
+        );
+        this.checkEquals(node, unmarshalled);
+        return unmarshalled;
+    }
+
+    private TextNode document() {
+        return TextNode.style(
+                Lists.of(
+                        this.style(0x123456, "a"),
+                        this.style(0x654321, "b"),
+                        this.style(0x123456, "c")
+                )
+        );
+    }
+
+    private TextNode style(final int rgb,
+                           final String text) {
+        return TextStyle.EMPTY.set(TextStylePropertyName.COLOR, Color.fromRgb(rgb))
+                .setChildren(Lists.of(Text.with(text)));
+    }
+
+    private JsonNodeMarshallContext marshallContext() {
+        return JsonNodeMarshallContexts.basic();
+    }
+
+    private JsonNodeUnmarshallContext unmarshallContext() {
+        return JsonNodeUnmarshallContexts.basic(
+                ExpressionNumberKind.BIG_DECIMAL,
+                MathContext.UNLIMITED
+        );
+    }
+
+    @Override
+    public Class<TextNodeJsonStyleDictionary> type() {
+        return TextNodeJsonStyleDictionary.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.color.Color;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.json.marshall.JsonNodeMarshallContext;
+import walkingkooka.tree.json.marshall.JsonNodeMarshallContexts;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TextNodeJsonWriterTest implements ClassTesting2<TextNodeJsonWriter> {
+
+    @Test
+    public void testWithNullContextFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeJsonWriter.with(null));
+    }
+
+    @Test
+    public void testWriteNullNodeFails() {
+        assertThrows(NullPointerException.class, () -> this.writer().write((TextNode) null, new StringBuilder()));
+    }
+
+    @Test
+    public void testWriteNullOutputFails() {
+        assertThrows(NullPointerException.class, () -> this.writer().write(Text.with("abc"), null));
+    }
+
+    @Test
+    public void testWriteText() throws IOException {
+        this.writeAndCheck(Text.with("abc123"));
+    }
+
+    @Test
+    public void testWriteTextEscaped() throws IOException {
+        this.writeAndCheck(Text.with("quote\" backslash\\ tab\t newline\n"));
+    }
+
+    @Test
+    public void testWritePlaceholder() throws IOException {
+        this.writeAndCheck(TextNode.placeholder(TextPlaceholderName.with("placeholder123")));
+    }
+
+    @Test
+    public void testWriteStyleNodeEmpty() throws IOException {
+        this.writeAndCheck(TextNode.style(TextNode.NO_CHILDREN));
+    }
+
+    @Test
+    public void testWriteStyleNodeOnlyStyles() throws IOException {
+        this.writeAndCheck(TextNode.style(TextNode.NO_CHILDREN)
+                .setAttributes(Maps.of(TextStylePropertyName.BACKGROUND_COLOR, Color.fromRgb(0x123456))));
+    }
+
+    @Test
+    public void testWriteStyleNameNodeWithoutChildren() throws IOException {
+        this.writeAndCheck(TextNode.styleName(TextStyleName.with("style123")));
+    }
+
+    @Test
+    public void testWriteDocument() throws IOException {
+        this.writeAndCheck(this.document());
+    }
+
+    @Test
+    public void testWriteWriter() throws IOException {
+        final TextNode document = this.document();
+        final StringWriter writer = new StringWriter();
+        this.writer().writeWithType(document, writer);
+
+        this.checkEquals(this.context().marshallWithType(document).toString(), writer.toString());
+    }
+
+    @Test
+    public void testWriteTextStyle() throws IOException {
+        final TextStyle textStyle = this.textStyle();
+        final StringBuilder b = new StringBuilder();
+        this.writer().write(textStyle, b);
+
+        this.checkEquals(this.context().marshall(textStyle).toString(), b.toString());
+    }
+
+    @Test
+    public void testWriteTextStyleEmpty() throws IOException {
+        final StringBuilder b = new StringBuilder();
+        this.writer().write(TextStyle.EMPTY, b);
+
+        this.checkEquals(this.context().marshall(TextStyle.EMPTY).toString(), b.toString());
+    }
+
+    private void writeAndCheck(final TextNode node) throws IOException {
+        final JsonNodeMarshallContext context = this.context();
+
+        final StringBuilder b = new StringBuilder();
+        this.writer().write(node, b);
+        this.checkEquals(context.marshall(node).toString(), b.toString(), "write");
+
+        final StringBuilder withType = new StringBuilder();
+        this.writer().writeWithType(node, withType);
+        this.checkEquals(context.marshallWithType(node).toString(), withType.toString(), "writeWithType");
+    }
+
+    private TextNode document() {
+        return TextNode.style(
+                Lists.of(
+                        Text.with("text-1a"),
+                        this.textStyle()
+                                .setChildren(
+                                        Lists.of(
+                                                TextNode.styleName(TextStyleName.with("style123"))
+                                                        .setChildren(Lists.of(Text.with("text-2b"), TextNode.placeholder(TextPlaceholderName.with("placeholder-3c")))),
+                                                Text.with("text-4d")
+                                        )
+                                ),
+                        Text.with("\"quoted\"")
+                )
+        );
+    }
+
+    private TextStyle textStyle() {
+        final Map<TextStylePropertyName<?>, Object> map = Maps.sorted();
+        map.put(TextStylePropertyName.BACKGROUND_COLOR, Color.fromRgb(0x123456));
+        map.put(TextStylePropertyName.FONT_FAMILY, FontFamily.with("Times New Roman"));
+        map.put(TextStylePropertyName.FONT_SIZE, FontSize.with(12));
+        map.put(TextStylePropertyName.PADDING_LEFT, Length.pixel(1.5));
+        map.put(TextStylePropertyName.TEXT_ALIGN, TextAlign.CENTER);
+        map.put(TextStylePropertyName.with("unknown-property"), "unknown-value");
+        return TextStyle.with(map);
+    }
+
+    private TextNodeJsonWriter writer() {
+        return TextNodeJsonWriter.with(this.context());
+    }
+
+    private JsonNodeMarshallContext context() {
+        return JsonNodeMarshallContexts.basic();
+    }
+
+    @Override
+    public Class<TextNodeJsonWriter> type() {
+        return TextNodeJsonWriter.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -21,11 +21,13 @@ import org.junit.jupiter.api.Test;
 import walkingkooka.collect.iterator.IteratorTesting;
 import walkingkooka.collect.map.Maps;
 import walkingkooka.collect.set.SetTesting2;
+import walkingkooka.color.Color;
 
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -60,6 +62,147 @@ public final class TextNodeMapEntrySetTest implements SetTesting2<TextNodeMapEnt
         assertThrows(UnsupportedOperationException.class, iterator::remove);
     }
 
+    @Test
+    public void testIteratorSorted() {
+        final Map<TextStylePropertyName<?>, Object> map = Maps.sorted();
+        map.put(this.property1(), this.value1());
+        map.put(this.property2(), this.value2());
+        map.put(this.unknown1(), "a1");
+        map.put(this.unknown2(), "z2");
+
+        this.iterateAndCheck(TextNodeMapEntrySet.with(map).iterator(),
+                map.entrySet().toArray(new Entry[0]));
+    }
+
+    @Test
+    public void testGet() {
+        final TextNodeMapEntrySet set = this.createSet();
+
+        this.checkEquals(this.value1(), set.get(this.property1()), "get");
+        this.checkEquals(this.value2(), set.get(this.property2()), "get");
+        this.checkEquals(null, set.get(TextStylePropertyName.COLOR), "get absent");
+    }
+
+    @Test
+    public void testSetPropertySameValue() {
+        final TextNodeMapEntrySet set = this.createSet();
+        assertSame(set, set.setProperty(this.property1(), this.value1()));
+    }
+
+    @Test
+    public void testSetPropertyReplaced() {
+        final TextNodeMapEntrySet set = this.createSet();
+        final Object value = WordWrap.NORMAL;
+
+        final Map<TextStylePropertyName<?>, Object> expected = Maps.sorted();
+        expected.put(this.property1(), value);
+        expected.put(this.property2(), this.value2());
+
+        this.checkEquals(expected.entrySet(), set.setProperty(this.property1(), value));
+    }
+
+    @Test
+    public void testSetPropertyAdded() {
+        final TextNodeMapEntrySet set = this.createSet();
+        final TextStylePropertyName<?> property = TextStylePropertyName.COLOR;
+        final Object value = Color.fromRgb(0x123456);
+
+        final Map<TextStylePropertyName<?>, Object> expected = Maps.sorted();
+        expected.put(this.property1(), this.value1());
+        expected.put(this.property2(), this.value2());
+        expected.put(property, value);
+
+        final TextNodeMapEntrySet added = set.setProperty(property, value);
+        this.checkEquals(expected.entrySet(), added);
+        this.iterateAndCheck(added.iterator(), expected.entrySet().toArray(new Entry[0]));
+    }
+
+    @Test
+    public void testSetPropertyUnknown() {
+        final TextNodeMapEntrySet set = this.createSet()
+                .setProperty(this.unknown2(), "z2")
+                .setProperty(this.unknown1(), "a1");
+
+        final Map<TextStylePropertyName<?>, Object> expected = Maps.sorted();
+        expected.put(this.property1(), this.value1());
+        expected.put(this.property2(), this.value2());
+        expected.put(this.unknown1(), "a1");
+        expected.put(this.unknown2(), "z2");
+
+        this.iterateAndCheck(set.iterator(), expected.entrySet().toArray(new Entry[0]));
+        this.checkEquals("a1", set.get(this.unknown1()), "get unknown");
+        assertSame(set, set.setProperty(this.unknown1(), "a1"));
+    }
+
+    @Test
+    public void testRemovePropertyAbsent() {
+        final TextNodeMapEntrySet set = this.createSet();
+        assertSame(set, set.removeProperty(TextStylePropertyName.COLOR));
+    }
+
+    @Test
+    public void testRemoveProperty() {
+        final TextNodeMapEntrySet set = this.createSet();
+
+        this.checkEquals(Maps.of(this.property2(), this.value2()).entrySet(), set.removeProperty(this.property1()));
+    }
+
+    @Test
+    public void testRemovePropertyAllEmpty() {
+        final TextNodeMapEntrySet set = this.createSet()
+                .setProperty(this.unknown1(), "a1");
+
+        assertSame(TextNodeMapEntrySet.EMPTY, set.removeProperty(this.property1())
+                .removeProperty(this.unknown1())
+                .removeProperty(this.property2()));
+    }
+
+    @Test
+    public void testHashCodeSameAsOtherSet() {
+        final Map<TextStylePropertyName<?>, Object> map = Maps.sorted();
+        map.put(this.property1(), this.value1());
+        map.put(this.property2(), this.value2());
+        map.put(this.unknown1(), "a1");
+
+        this.checkEquals(map.entrySet().hashCode(), TextNodeMapEntrySet.with(map).hashCode());
+    }
+
+    @Test
+    public void testEquals() {
+        this.checkEquals(this.createSet(), this.createSet());
+    }
+
+    @Test
+    public void testEqualsOtherSet() {
+        final Map<TextStylePropertyName<?>, Object> map = Maps.sorted();
+        map.put(this.property1(), this.value1());
+        map.put(this.property2(), this.value2());
+
+        this.checkEquals(map.entrySet(), this.createSet());
+        this.checkEquals(this.createSet(), map.entrySet());
+    }
+
+    @Test
+    public void testEqualsDifferentValue() {
+        final TextNodeMapEntrySet set = this.createSet();
+        assertNotEquals(set, set.setProperty(this.property1(), WordWrap.NORMAL));
+    }
+
+    @Test
+    public void testEqualsDifferentUnknown() {
+        final TextNodeMapEntrySet set = this.createSet();
+        assertNotEquals(set.setProperty(this.unknown1(), "a1"), set.setProperty(this.unknown1(), "a2"));
+    }
+
+    @Test
+    public void testContains() {
+        final TextNodeMapEntrySet set = this.createSet();
+
+        this.checkEquals(true, set.contains(Maps.entry(this.property1(), this.value1())), "contains");
+        this.checkEquals(false, set.contains(Maps.entry(this.property1(), WordWrap.NORMAL)), "contains different value");
+        this.checkEquals(false, set.contains(Maps.entry(TextStylePropertyName.COLOR, this.value1())), "contains absent");
+    }
+
     @Test
     public void testToString() {
         final Map<TextStylePropertyName<?>, Object> map = Maps.sorted();
@@ -93,6 +236,14 @@ public final class TextNodeMapEntrySetTest implements SetTesting2<TextNodeMapEnt
         return FontFamily.with("Times News Roman");
     }
 
+    private TextStylePropertyName<?> unknown1() {
+        return TextStylePropertyName.with("a-unknown");
+    }
+
+    private TextStylePropertyName<?> unknown2() {
+        return TextStylePropertyName.with("zz-unknown");
+    }
+
     @Override
     public Class<TextNodeMapEntrySet> type() {
         return TextNodeMapEntrySet.class;
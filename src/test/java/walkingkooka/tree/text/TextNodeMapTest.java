@@ -27,6 +27,7 @@ import walkingkooka.tree.json.marshall.JsonNodeUnmarshallContexts;
 import java.util.List;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -60,6 +61,65 @@ public final class TextNodeMapTest implements MapTesting2<TextNodeMap, TextStyle
         this.getAndCheckAbsent(TextStylePropertyName.DIRECTION);
     }
 
+    @Test
+    public void testContainsKey() {
+        this.checkEquals(true, this.createMap().containsKey(this.property2()), "containsKey");
+    }
+
+    @Test
+    public void testSetPropertySame() {
+        final TextNodeMap map = this.createMap();
+        assertSame(map, map.setProperty(this.property1(), this.value1()));
+    }
+
+    @Test
+    public void testSetPropertyReplaced() {
+        final Object value = WordWrap.NORMAL;
+
+        final Map<TextStylePropertyName<?>, Object> expected = Maps.sorted();
+        expected.put(this.property1(), value);
+        expected.put(this.property2(), this.value2());
+
+        this.checkEquals(expected, this.createMap().setProperty(this.property1(), value));
+    }
+
+    @Test
+    public void testRemovePropertyAbsent() {
+        final TextNodeMap map = this.createMap();
+        assertSame(map, map.removeProperty(TextStylePropertyName.DIRECTION));
+    }
+
+    @Test
+    public void testRemovePropertyAll() {
+        assertSame(TextNodeMap.EMPTY, this.createMap()
+                .removeProperty(this.property1())
+                .removeProperty(this.property2()));
+    }
+
+    @Test
+    public void testHashCodeSameAsOtherMap() {
+        final Map<TextStylePropertyName<?>, Object> map = Maps.sorted();
+        map.put(this.property1(), this.value1());
+        map.put(this.property2(), this.value2());
+
+        this.checkEquals(map.hashCode(), this.createMap().hashCode());
+    }
+
+    @Test
+    public void testEqualsOtherMap() {
+        final Map<TextStylePropertyName<?>, Object> map = Maps.sorted();
+        map.put(this.property1(), this.value1());
+        map.put(this.property2(), this.value2());
+
+        this.checkEquals(map, this.createMap());
+        this.checkEquals(this.createMap(), map);
+    }
+
+    @Test
+    public void testEqualsDifferent() {
+        assertNotEquals(this.createMap(), this.createMap().setProperty(this.property1(), WordWrap.NORMAL));
+    }
+
     @Test
     public void testSize() {
         this.sizeAndCheck(this.createMap(), 2);
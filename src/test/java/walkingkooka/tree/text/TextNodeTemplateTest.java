@@ -0,0 +1,204 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.text;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TextNodeTemplateTest implements ClassTesting2<TextNodeTemplate>,
+        ToStringTesting<TextNodeTemplate> {
+
+    private final static TextPlaceholderName NAME1 = TextPlaceholderName.with("name1");
+
+    private final static TextPlaceholderName NAME2 = TextPlaceholderName.with("name2");
+
+    @Test
+    public void testWithNullFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeTemplate.with(null));
+    }
+
+    @Test
+    public void testRenderNullFunctionFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeTemplate.with(this.template()).render((Function<TextPlaceholderName, TextNode>) null));
+    }
+
+    @Test
+    public void testRenderNullMapFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeTemplate.with(this.template()).render((Map<TextPlaceholderName, TextNode>) null));
+    }
+
+    @Test
+    public void testRenderTextNullAppendableFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeTemplate.with(this.template()).renderText((n) -> null, null));
+    }
+
+    @Test
+    public void testRenderTextNullMapAppendableFails() {
+        assertThrows(NullPointerException.class, () -> TextNodeTemplate.with(this.template()).renderText((Map<TextPlaceholderName, TextNode>) null, new StringBuilder()));
+    }
+
+    @Test
+    public void testPlaceholders() {
+        final Set<TextPlaceholderName> names = Sets.ordered();
+        names.add(NAME1);
+        names.add(NAME2);
+
+        this.checkEquals(names, TextNodeTemplate.with(this.template()).placeholders());
+    }
+
+    @Test
+    public void testRenderWithoutPlaceholders() {
+        final TextNode template = TextNode.style(Lists.of(Text.with("a"), Text.with("b")));
+        assertSame(template, TextNodeTemplate.with(template).render((n) -> {
+            throw new UnsupportedOperationException();
+        }));
+    }
+
+    @Test
+    public void testRenderPlaceholderOnly() {
+        final Text text = Text.with("abc");
+        assertSame(text, TextNodeTemplate.with(TextNode.placeholder(NAME1)).render(this.values(text, text)));
+    }
+
+    @Test
+    public void testRender() {
+        this.checkEquals(this.rendered(),
+                TextNodeTemplate.with(this.template()).render(this.values()));
+    }
+
+    @Test
+    public void testRenderMissingValue() {
+        this.checkEquals(this.template(),
+                TextNodeTemplate.with(this.template()).render(Maps.empty()));
+    }
+
+    @Test
+    public void testRenderSharesStaticSubtrees() {
+        final TextNode template = this.template();
+        final TextNodeTemplate compiled = TextNodeTemplate.with(template);
+
+        final TextNode rendered1 = compiled.render(this.values());
+        final TextNode rendered2 = compiled.render(this.values(Text.with("x"), Text.with("y")));
+
+        final TextNode static1 = ((TextParentNode) template).children.get(0);
+        assertSame(static1, ((TextParentNode) rendered1).children.get(0));
+        assertSame(static1, ((TextParentNode) rendered2).children.get(0));
+    }
+
+    @Test
+    public void testRenderTwice() {
+        final TextNodeTemplate compiled = TextNodeTemplate.with(this.template());
+
+        this.checkEquals(this.rendered(), compiled.render(this.values()));
+        this.checkEquals(this.rendered(), compiled.render(this.values()));
+    }
+
+    @Test
+    public void testRenderText() {
+        this.checkEquals(this.rendered().text(),
+                TextNodeTemplate.with(this.template()).renderText(this.values()));
+    }
+
+    @Test
+    public void testRenderTextMissingValue() {
+        this.checkEquals(this.template().text(),
+                TextNodeTemplate.with(this.template()).renderText(Maps.empty()));
+    }
+
+    @Test
+    public void testRenderTextAppendable() throws IOException {
+        final StringBuilder b = new StringBuilder();
+        TextNodeTemplate.with(this.template()).renderText(this.values()::get, b);
+
+        this.checkEquals("static-1 Hello name1-value!!", b.toString());
+    }
+
+    @Test
+    public void testRenderTextMapAppendable() throws IOException {
+        final StringBuilder b = new StringBuilder();
+        TextNodeTemplate.with(this.template()).renderText(this.values(), b);
+
+        this.checkEquals("static-1 Hello name1-value!!", b.toString());
+    }
+
+    @Test
+    public void testToString() {
+        final TextNode template = this.template();
+        this.toStringAndCheck(TextNodeTemplate.with(template), template.toString());
+    }
+
+    private TextNode template() {
+        return TextNode.style(
+                Lists.of(
+                        TextNode.style(Lists.of(Text.with("static-"), Text.with("1 "))),
+                        TextStyle.EMPTY
+                                .set(TextStylePropertyName.WORD_WRAP, WordWrap.BREAK_WORD)
+                                .setChildren(Lists.of(Text.with("Hello "), TextNode.placeholder(NAME1))),
+                        Text.with("!"),
+                        TextNode.placeholder(NAME2)
+                )
+        );
+    }
+
+    private Map<TextPlaceholderName, TextNode> values() {
+        return this.values(Text.with("name1-value"), Text.with("!"));
+    }
+
+    private Map<TextPlaceholderName, TextNode> values(final TextNode value1,
+                                                      final TextNode value2) {
+        final Map<TextPlaceholderName, TextNode> values = Maps.sorted();
+        values.put(NAME1, value1);
+        values.put(NAME2, value2);
+        return values;
+    }
+
+    private TextNode rendered() {
+        return TextNode.style(
+                Lists.of(
+                        TextNode.style(Lists.of(Text.with("static-"), Text.with("1 "))),
+                        TextStyle.EMPTY
+                                .set(TextStylePropertyName.WORD_WRAP, WordWrap.BREAK_WORD)
+                                .setChildren(Lists.of(Text.with("Hello "), Text.with("name1-value"))),
+                        Text.with("!"),
+                        Text.with("!")
+                )
+        );
+    }
+
+    @Override
+    public Class<TextNodeTemplate> type() {
+        return TextNodeTemplate.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
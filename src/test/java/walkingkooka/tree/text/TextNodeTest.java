@@ -20,9 +20,20 @@ package walkingkooka.tree.text;
 import org.junit.jupiter.api.Test;
 import walkingkooka.ToStringTesting;
 import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.color.Color;
 import walkingkooka.reflect.JavaVisibility;
 import walkingkooka.tree.expression.ExpressionEvaluationContexts;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
 public final class TextNodeTest extends TextNodeTestCase<TextNode> implements ToStringTesting<TextNode> {
 
     @Test
@@ -50,6 +61,339 @@ public final class TextNodeTest extends TextNodeTestCase<TextNode> implements To
                         .count());
     }
 
+    // textOffset.......................................................................................................
+
+    @Test
+    public void testTextOffsetDeep() {
+        final TextNode root = this.offsetTree();
+        final TextNode deep = root.children().get(1).children().get(2);
+
+        this.checkEquals("ef", deep.text(), "text");
+        this.checkEquals(4, deep.textOffset(), "textOffset");
+        this.checkEquals(6, root.children().get(3).textOffset(), "textOffset");
+    }
+
+    // leafAt...........................................................................................................
+
+    @Test
+    public void testLeafAtNegativeOffsetFails() {
+        assertThrows(IllegalArgumentException.class, () -> this.offsetTree().leafAt(-1));
+    }
+
+    @Test
+    public void testLeafAtEndOffset() {
+        final TextNode root = this.offsetTree();
+        this.checkEquals(Optional.empty(), root.leafAt(root.textLength()));
+    }
+
+    @Test
+    public void testLeafAtAllOffsets() {
+        final TextNode root = this.offsetTree();
+        final String text = root.text();
+
+        for (int i = 0; i < text.length(); i++) {
+            final TextNode leaf = root.leafAt(i).get();
+            final int offset = leaf.textOffset();
+
+            this.checkEquals(true, offset <= i && i < offset + leaf.textLength(), "leafAt " + i + " " + leaf);
+            this.checkEquals(text.charAt(i), leaf.text().charAt(i - offset), "leafAt " + i);
+        }
+    }
+
+    @Test
+    public void testLeafAtSkipsEmpty() {
+        final TextNode root = this.offsetTree();
+        this.checkEquals(Text.with("ef"), root.leafAt(4).get().removeParent());
+    }
+
+    @Test
+    public void testLeafAtLeaf() {
+        final Text text = Text.with("abc");
+        assertSame(text, text.leafAt(2).get());
+    }
+
+    // leavesInRange....................................................................................................
+
+    @Test
+    public void testLeavesInRangeInvalidEndFails() {
+        assertThrows(IllegalArgumentException.class, () -> this.offsetTree().leavesInRange(2, 1));
+    }
+
+    @Test
+    public void testLeavesInRangeEmpty() {
+        this.checkEquals(Lists.empty(), this.offsetTree().leavesInRange(2, 2));
+    }
+
+    @Test
+    public void testLeavesInRange() {
+        this.leavesInRangeAndCheck(1, 5, "ab", "cd", "ef");
+    }
+
+    @Test
+    public void testLeavesInRangeAll() {
+        this.leavesInRangeAndCheck(0, 100, "ab", "cd", "ef", "g");
+    }
+
+    @Test
+    public void testLeavesInRangeSingle() {
+        this.leavesInRangeAndCheck(6, 7, "g");
+    }
+
+    private void leavesInRangeAndCheck(final int start,
+                                       final int end,
+                                       final String... texts) {
+        final List<String> actual = Lists.array();
+        for (final TextNode leaf : this.offsetTree().leavesInRange(start, end)) {
+            actual.add(leaf.text());
+        }
+        this.checkEquals(Lists.of(texts), actual, () -> "leavesInRange " + start + ", " + end);
+    }
+
+    /**
+     * <pre>
+     * style
+     *   "ab"
+     *   style-name
+     *     "cd"
+     *     ""
+     *     "ef"
+     *   placeholder
+     *   "g"
+     * </pre>
+     */
+    private TextNode offsetTree() {
+        return TextNode.style(Lists.of(
+                TextNode.text("ab"),
+                TextNode.styleName(TextStyleName.with("style123"))
+                        .setChildren(Lists.of(TextNode.text("cd"), TextNode.text(""), TextNode.text("ef"))),
+                TextNode.placeholder(TextPlaceholderName.with("place-1")),
+                TextNode.text("g")));
+    }
+
+    // computedStyle....................................................................................................
+
+    @Test
+    public void testComputedStyleRoot() {
+        final TextStyle textStyle = this.outerStyle();
+        this.checkEquals(textStyle, textStyle.setChildren(Lists.of(TextNode.text("a"))).computedStyle());
+    }
+
+    @Test
+    public void testComputedStyleLeafWithoutParent() {
+        this.checkEquals(TextStyle.EMPTY, TextNode.text("a").computedStyle());
+    }
+
+    @Test
+    public void testComputedStyleInheritedOnly() {
+        final TextNode text = this.computedStyleDocument()
+                .children()
+                .get(0) // inner
+                .children()
+                .get(0);
+
+        this.checkEquals(
+                TextStyle.EMPTY
+                        .set(TextStylePropertyName.COLOR, Color.fromRgb(0x123456))
+                        .set(TextStylePropertyName.FONT_SIZE, FontSize.with(14)),
+                text.computedStyle()
+        );
+    }
+
+    @Test
+    public void testComputedStyleChildOverridesParent() {
+        final TextNode inner = this.computedStyleDocument()
+                .children()
+                .get(0);
+
+        this.checkEquals(
+                TextStyle.EMPTY
+                        .set(TextStylePropertyName.COLOR, Color.fromRgb(0x123456))
+                        .set(TextStylePropertyName.FONT_SIZE, FontSize.with(14))
+                        .set(TextStylePropertyName.PADDING_LEFT, Length.pixel(2.0)),
+                inner.computedStyle()
+        );
+    }
+
+    @Test
+    public void testComputedStyleThroughStyleNameNode() {
+        final TextNode text = this.computedStyleDocument()
+                .children()
+                .get(1)
+                .children()
+                .get(0);
+
+        this.checkEquals(
+                TextStyle.EMPTY
+                        .set(TextStylePropertyName.COLOR, Color.fromRgb(0x123456))
+                        .set(TextStylePropertyName.FONT_SIZE, FontSize.with(12)),
+                text.computedStyle()
+        );
+    }
+
+    @Test
+    public void testComputedStyleCached() {
+        final TextNode text = this.computedStyleDocument()
+                .children()
+                .get(0)
+                .children()
+                .get(0);
+
+        assertSame(text.computedStyle(), text.computedStyle());
+    }
+
+    private TextNode computedStyleDocument() {
+        return this.outerStyle()
+                .setChildren(
+                        Lists.of(
+                                TextStyle.EMPTY
+                                        .set(TextStylePropertyName.FONT_SIZE, FontSize.with(14))
+                                        .set(TextStylePropertyName.PADDING_LEFT, Length.pixel(2.0))
+                                        .setChildren(Lists.of(TextNode.text("inner"))),
+                                TextNode.styleName(TextStyleName.with("style123"))
+                                        .setChildren(Lists.of(TextNode.text("named")))
+                        )
+                );
+    }
+
+    private TextStyle outerStyle() {
+        return TextStyle.EMPTY
+                .set(TextStylePropertyName.COLOR, Color.fromRgb(0x123456))
+                .set(TextStylePropertyName.FONT_SIZE, FontSize.with(12))
+                .set(TextStylePropertyName.MARGIN_LEFT, Length.pixel(1.0));
+    }
+
+    // placeholders.....................................................................................................
+
+    private final static TextPlaceholderName PLACEHOLDER1 = TextPlaceholderName.with("placeholder1");
+
+    private final static TextPlaceholderName PLACEHOLDER2 = TextPlaceholderName.with("placeholder2");
+
+    @Test
+    public void testPlaceholdersText() {
+        this.checkEquals(Sets.empty(), TextNode.text("a").placeholders());
+    }
+
+    @Test
+    public void testPlaceholdersPlaceholder() {
+        final Set<TextPlaceholderName> names = Sets.ordered();
+        names.add(PLACEHOLDER1);
+
+        this.checkEquals(names, TextNode.placeholder(PLACEHOLDER1).placeholders());
+    }
+
+    @Test
+    public void testPlaceholders() {
+        final Set<TextPlaceholderName> names = Sets.ordered();
+        names.add(PLACEHOLDER2);
+        names.add(PLACEHOLDER1);
+
+        this.checkEquals(names, this.placeholdersDocument().placeholders());
+    }
+
+    @Test
+    public void testOccurrencesNullNameFails() {
+        assertThrows(NullPointerException.class, () -> this.placeholdersDocument().occurrences(null));
+    }
+
+    @Test
+    public void testOccurrencesUnknown() {
+        this.checkEquals(Lists.empty(), this.placeholdersDocument().occurrences(TextPlaceholderName.with("unknown")));
+    }
+
+    @Test
+    public void testOccurrences() {
+        final TextNode document = this.placeholdersDocument();
+        final List<TextPlaceholderNode> occurrences = document.occurrences(PLACEHOLDER1);
+
+        this.checkEquals(2, occurrences.size(), "occurrences");
+        assertSame(document.children().get(1).children().get(1), occurrences.get(0));
+        assertSame(document.children().get(2), occurrences.get(1));
+    }
+
+    @Test
+    public void testOccurrencesNavigable() {
+        final TextNode document = this.placeholdersDocument();
+        final TextPlaceholderNode occurrence = document.occurrences(PLACEHOLDER2).get(0);
+
+        this.checkEquals(Optional.of(document), occurrence.parent());
+        this.checkEquals(0, occurrence.index(), "index");
+    }
+
+    @Test
+    public void testReplacePlaceholdersNullFails() {
+        assertThrows(NullPointerException.class, () -> this.placeholdersDocument().replacePlaceholders(null));
+    }
+
+    @Test
+    public void testReplacePlaceholdersNone() {
+        final TextNode document = this.placeholdersDocument();
+        assertSame(document, document.replacePlaceholders(Maps.empty()));
+    }
+
+    @Test
+    public void testReplacePlaceholders() {
+        final Map<TextPlaceholderName, TextNode> values = Maps.sorted();
+        values.put(PLACEHOLDER1, TextNode.text("value1"));
+        values.put(PLACEHOLDER2, TextNode.text("value2"));
+
+        this.checkEquals(
+                TextNode.style(
+                        Lists.of(
+                                TextNode.text("value2"),
+                                TextNode.style(Lists.of(TextNode.text("a"), TextNode.text("value1"))),
+                                TextNode.text("value1")
+                        )
+                ),
+                this.placeholdersDocument().replacePlaceholders(values)
+        );
+    }
+
+    @Test
+    public void testReplacePlaceholdersSome() {
+        final TextNode document = this.placeholdersDocument();
+
+        final Map<TextPlaceholderName, TextNode> values = Maps.sorted();
+        values.put(PLACEHOLDER2, TextNode.text("value2"));
+
+        final TextNode replaced = document.replacePlaceholders(values);
+        this.checkEquals(
+                TextNode.style(
+                        Lists.of(
+                                TextNode.text("value2"),
+                                TextNode.style(Lists.of(TextNode.text("a"), TextNode.placeholder(PLACEHOLDER1))),
+                                TextNode.placeholder(PLACEHOLDER1)
+                        )
+                ),
+                replaced
+        );
+        assertSame(((TextParentNode) document).children.get(1), ((TextParentNode) replaced).children.get(1), "unchanged child shared");
+    }
+
+    @Test
+    public void testReplacePlaceholdersChild() {
+        final TextNode document = this.placeholdersDocument();
+
+        final Map<TextPlaceholderName, TextNode> values = Maps.sorted();
+        values.put(PLACEHOLDER1, TextNode.text("value1"));
+
+        final TextNode replaced = document.children()
+                .get(1)
+                .replacePlaceholders(values);
+        this.checkEquals(TextNode.style(Lists.of(TextNode.text("a"), TextNode.text("value1"))),
+                replaced.removeParent());
+        this.checkEquals(TextNode.placeholder(PLACEHOLDER1), replaced.parent().get().children().get(2), "sibling not replaced");
+    }
+
+    private TextNode placeholdersDocument() {
+        return TextNode.style(
+                Lists.of(
+                        TextNode.placeholder(PLACEHOLDER2),
+                        TextNode.style(Lists.of(TextNode.text("a"), TextNode.placeholder(PLACEHOLDER1))),
+                        TextNode.placeholder(PLACEHOLDER1)
+                )
+        );
+    }
+
     // ClassTesting.....................................................................................................
 
     @Override
@@ -23,6 +23,7 @@ import walkingkooka.tree.ParentNodeTesting;
 
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public abstract class TextParentNodeTestCase<T extends TextParentNode> extends TextNodeTestCase2<T> implements ParentNodeTesting<TextNode, TextNodeName, TextStylePropertyName<?>, Object> {
@@ -46,6 +47,54 @@ public abstract class TextParentNodeTestCase<T extends TextParentNode> extends T
         assertThrows(UnsupportedOperationException.class, () -> parent.children().add(this.different()));
     }
 
+    @Test
+    public final void testChildrenCached() {
+        final TextNode parent = this.createTextNode()
+                .setChildren(Lists.of(this.text1(), this.text2()));
+        assertSame(parent.children(), parent.children());
+    }
+
+    @Test
+    public final void testChildrenParentAndIndex() {
+        final TextNode parent = this.createTextNode()
+                .setChildren(Lists.of(this.text1(), this.text2()));
+
+        int i = 0;
+        for (final TextNode child : parent.children()) {
+            assertSame(parent, child.parentOrFail(), () -> "parent of " + child);
+            this.checkEquals(i, child.index(), () -> "index of " + child);
+            i++;
+        }
+    }
+
+    @Test
+    public final void testGrandChildParent() {
+        final TextNode child = TextNode.style(Lists.of(this.text1(), this.text2()));
+        final TextNode parent = this.createTextNode()
+                .setChildren(Lists.of(child, this.text3()));
+
+        final TextNode childWithParent = parent.children().get(0);
+        assertSame(childWithParent, childWithParent.children().get(1).parentOrFail());
+        assertSame(parent, childWithParent.parentOrFail());
+    }
+
+    @Test
+    public final void testTextAndTextLength() {
+        final TextNode parent = this.createTextNode()
+                .setChildren(Lists.of(this.text1(), TextNode.style(Lists.of(this.text2(), this.text3()))));
+        final String text = this.text1().text() + this.text2().text() + this.text3().text();
+
+        this.checkEquals(text, parent.text(), "text");
+        this.checkEquals(text.length(), parent.textLength(), "textLength");
+    }
+
+    @Test
+    public final void testTextCached() {
+        final TextNode parent = this.createTextNode()
+                .setChildren(Lists.of(this.text1(), this.text2()));
+        assertSame(parent.text(), parent.text());
+    }
+
     final Text text1() {
         return Text.with("text-1a");
     }
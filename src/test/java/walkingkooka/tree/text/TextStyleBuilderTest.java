@@ -0,0 +1,151 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TextStyleBuilderTest implements ClassTesting2<TextStyleBuilder>,
+        ToStringTesting<TextStyleBuilder> {
+
+    @Test
+    public void testSetNullPropertyNameFails() {
+        assertThrows(NullPointerException.class, () -> TextStyle.builder().set(null, WordWrap.NORMAL));
+    }
+
+    @Test
+    public void testSetInvalidValueFails() {
+        assertThrows(TextStylePropertyValueException.class, () -> TextStyle.builder().set(TextStylePropertyName.WORD_WRAP, null));
+    }
+
+    @Test
+    public void testBuildEmpty() {
+        assertSame(TextStyle.EMPTY, TextStyle.builder().build());
+    }
+
+    @Test
+    public void testBuild() {
+        final Map<TextStylePropertyName<?>, Object> map = Maps.sorted();
+        map.put(TextStylePropertyName.WORD_WRAP, WordWrap.BREAK_WORD);
+        map.put(TextStylePropertyName.FONT_FAMILY, FontFamily.with("Times New Roman"));
+        map.put(TextStylePropertyName.TEXT_ALIGN, TextAlign.RIGHT);
+
+        this.checkEquals(TextStyle.with(map),
+                TextStyle.builder()
+                        .set(TextStylePropertyName.WORD_WRAP, WordWrap.BREAK_WORD)
+                        .set(TextStylePropertyName.TEXT_ALIGN, TextAlign.RIGHT)
+                        .set(TextStylePropertyName.FONT_FAMILY, FontFamily.with("Times New Roman"))
+                        .build());
+    }
+
+    @Test
+    public void testBuildReplaced() {
+        this.checkEquals(TextStyle.EMPTY.set(TextStylePropertyName.WORD_WRAP, WordWrap.NORMAL),
+                TextStyle.builder()
+                        .set(TextStylePropertyName.WORD_WRAP, WordWrap.BREAK_WORD)
+                        .set(TextStylePropertyName.WORD_WRAP, WordWrap.NORMAL)
+                        .build());
+    }
+
+    @Test
+    public void testBuildUnknownProperties() {
+        final TextStylePropertyName<?> unknown1 = TextStylePropertyName.with("zz-unknown");
+        final TextStylePropertyName<?> unknown2 = TextStylePropertyName.with("a-unknown");
+
+        final Map<TextStylePropertyName<?>, Object> map = Maps.sorted();
+        map.put(TextStylePropertyName.WORD_WRAP, WordWrap.BREAK_WORD);
+        map.put(unknown1, "z2");
+        map.put(unknown2, "a1");
+
+        this.checkEquals(TextStyle.with(map),
+                TextStyle.builder()
+                        .set0(unknown1, "replaced")
+                        .set0(unknown1, "z2")
+                        .set0(unknown2, "a1")
+                        .set(TextStylePropertyName.WORD_WRAP, WordWrap.BREAK_WORD)
+                        .build());
+    }
+
+    @Test
+    public void testBuildTwiceFails() {
+        final TextStyleBuilder builder = TextStyle.builder();
+        builder.build();
+
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+
+    @Test
+    public void testSetAfterBuildFails() {
+        final TextStyleBuilder builder = TextStyle.builder();
+        builder.build();
+
+        assertThrows(IllegalStateException.class, () -> builder.set(TextStylePropertyName.WORD_WRAP, WordWrap.NORMAL));
+    }
+
+    @Test
+    public void testCollector() {
+        final Map<TextStylePropertyName<?>, Object> map = Maps.sorted();
+        map.put(TextStylePropertyName.WORD_WRAP, WordWrap.BREAK_WORD);
+        map.put(TextStylePropertyName.TEXT_ALIGN, TextAlign.RIGHT);
+
+        this.checkEquals(TextStyle.with(map),
+                Stream.of(Maps.<TextStylePropertyName<?>, Object>entry(TextStylePropertyName.WORD_WRAP, WordWrap.BREAK_WORD),
+                        Maps.<TextStylePropertyName<?>, Object>entry(TextStylePropertyName.TEXT_ALIGN, TextAlign.RIGHT))
+                        .collect(TextStyleBuilder.collector()));
+    }
+
+    @Test
+    public void testCollectorParallel() {
+        final Map<TextStylePropertyName<?>, Object> map = Maps.sorted();
+        map.put(TextStylePropertyName.WORD_WRAP, WordWrap.BREAK_WORD);
+        map.put(TextStylePropertyName.TEXT_ALIGN, TextAlign.RIGHT);
+        map.put(TextStylePropertyName.FONT_FAMILY, FontFamily.with("Times New Roman"));
+
+        this.checkEquals(TextStyle.with(map),
+                map.entrySet()
+                        .parallelStream()
+                        .collect(TextStyleBuilder.collector()));
+    }
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(TextStyle.builder()
+                        .set(TextStylePropertyName.WORD_WRAP, WordWrap.BREAK_WORD)
+                        .set(TextStylePropertyName.TEXT_ALIGN, TextAlign.RIGHT),
+                "text-align=RIGHT, word-wrap=BREAK_WORD");
+    }
+
+    @Override
+    public Class<TextStyleBuilder> type() {
+        return TextStyleBuilder.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TextStyleInternerTest implements ClassTesting2<TextStyleInterner>,
+        ToStringTesting<TextStyleInterner> {
+
+    private final static int MAX_SIZE = 2;
+
+    @Test
+    public void testWithInvalidMaxSizeFails() {
+        assertThrows(IllegalArgumentException.class, () -> TextStyleInterner.with(0));
+    }
+
+    @Test
+    public void testInternNullFails() {
+        assertThrows(NullPointerException.class, () -> this.createInterner().intern(null));
+    }
+
+    @Test
+    public void testInternEmpty() {
+        final TextStyleInterner interner = this.createInterner();
+
+        assertSame(TextStyle.EMPTY, interner.intern(TextStyle.EMPTY));
+        this.checkEquals(0, interner.size(), "size");
+    }
+
+    @Test
+    public void testInternFirst() {
+        final TextStyleInterner interner = this.createInterner();
+        final TextStyle style = this.style();
+
+        assertSame(style, interner.intern(style));
+        this.checkEquals(1, interner.size(), "size");
+    }
+
+    @Test
+    public void testInternEqualStyleReturnsFirst() {
+        final TextStyleInterner interner = this.createInterner();
+        final TextStyle style = this.style();
+        final TextStyle equal = this.style();
+        assertNotSame(style, equal);
+
+        assertSame(style, interner.intern(style));
+        assertSame(style, interner.intern(equal));
+        this.checkEquals(1, interner.size(), "size");
+    }
+
+    @Test
+    public void testInternDifferent() {
+        final TextStyleInterner interner = this.createInterner();
+        final TextStyle style = this.style();
+        final TextStyle different = style.set(TextStylePropertyName.WORD_WRAP, WordWrap.NORMAL);
+
+        assertSame(style, interner.intern(style));
+        assertSame(different, interner.intern(different));
+        this.checkEquals(2, interner.size(), "size");
+    }
+
+    @Test
+    public void testInternEvictsLeastRecentlyUsed() {
+        final TextStyleInterner interner = this.createInterner();
+        final TextStyle style = this.style();
+        final TextStyle different = style.set(TextStylePropertyName.WORD_WRAP, WordWrap.NORMAL);
+        final TextStyle different2 = style.set(TextStylePropertyName.FONT_FAMILY, FontFamily.with("Arial"));
+
+        interner.intern(style);
+        interner.intern(different);
+        interner.intern(style);
+        interner.intern(different2);
+
+        this.checkEquals(MAX_SIZE, interner.size(), "size");
+        assertSame(style, interner.intern(this.style()), "most recently used kept");
+
+        final TextStyle equal = style.set(TextStylePropertyName.WORD_WRAP, WordWrap.NORMAL);
+        assertSame(equal, interner.intern(equal), "least recently used evicted");
+    }
+
+    @Test
+    public void testClear() {
+        final TextStyleInterner interner = this.createInterner();
+        final TextStyle style = this.style();
+        interner.intern(style);
+        interner.clear();
+
+        this.checkEquals(0, interner.size(), "size");
+
+        final TextStyle equal = this.style();
+        assertSame(equal, interner.intern(equal));
+    }
+
+    @Test
+    public void testToString() {
+        final TextStyleInterner interner = this.createInterner();
+        interner.intern(this.style());
+
+        this.toStringAndCheck(interner, "1 style(s)");
+    }
+
+    private TextStyleInterner createInterner() {
+        return TextStyleInterner.with(MAX_SIZE);
+    }
+
+    private TextStyle style() {
+        return TextStyle.EMPTY
+                .set(TextStylePropertyName.FONT_FAMILY, FontFamily.with("Times New Roman"))
+                .set(TextStylePropertyName.WORD_WRAP, WordWrap.BREAK_WORD);
+    }
+
+    @Override
+    public Class<TextStyleInterner> type() {
+        return TextStyleInterner.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.text;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TextStyleMergeCacheTest implements ClassTesting2<TextStyleMergeCache>,
+        ToStringTesting<TextStyleMergeCache> {
+
+    @Test
+    public void testWithZeroMaxSizeFails() {
+        assertThrows(IllegalArgumentException.class, () -> TextStyleMergeCache.with(0));
+    }
+
+    @Test
+    public void testMergeNullTextStyleFails() {
+        assertThrows(NullPointerException.class, () -> this.style1().merge(null, TextStyleMergeCache.with(1)));
+    }
+
+    @Test
+    public void testMergeNullCacheFails() {
+        assertThrows(NullPointerException.class, () -> this.style1().merge(this.style2(), null));
+    }
+
+    @Test
+    public void testMergeEmptyNotCached() {
+        final TextStyleMergeCache cache = TextStyleMergeCache.with(2);
+        final TextStyle style = this.style1();
+
+        assertSame(style, style.merge(TextStyle.EMPTY, cache));
+        assertSame(style, TextStyle.EMPTY.merge(style, cache));
+        this.checkCache(cache, 0, 0, 0);
+    }
+
+    @Test
+    public void testMergeMissThenHit() {
+        final TextStyleMergeCache cache = TextStyleMergeCache.with(2);
+        final TextStyle style1 = this.style1();
+        final TextStyle style2 = this.style2();
+
+        final TextStyle merged = style1.merge(style2, cache);
+        this.checkEquals(style1.merge(style2), merged);
+        this.checkCache(cache, 1, 0, 1);
+
+        assertSame(merged, style1.merge(style2, cache));
+        this.checkCache(cache, 1, 1, 1);
+    }
+
+    @Test
+    public void testMergeIdentityKeyed() {
+        final TextStyleMergeCache cache = TextStyleMergeCache.with(2);
+        final TextStyle style1 = this.style1();
+
+        final TextStyle merged = style1.merge(this.style2(), cache);
+        final TextStyle merged2 = style1.merge(this.style2(), cache);
+
+        assertNotSame(merged, merged2);
+        this.checkEquals(merged, merged2);
+        this.checkCache(cache, 2, 0, 2);
+    }
+
+    @Test
+    public void testMergeOrderMatters() {
+        final TextStyleMergeCache cache = TextStyleMergeCache.with(2);
+        final TextStyle style1 = this.style1();
+        final TextStyle style2 = this.style2();
+
+        this.checkEquals(WordWrap.BREAK_WORD, style1.merge(style2, cache).getOrFail(TextStylePropertyName.WORD_WRAP));
+        this.checkEquals(WordWrap.NORMAL, style2.merge(style1, cache).getOrFail(TextStylePropertyName.WORD_WRAP));
+        this.checkCache(cache, 2, 0, 2);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted() {
+        final TextStyleMergeCache cache = TextStyleMergeCache.with(2);
+        final TextStyle style1 = this.style1();
+        final TextStyle style2 = this.style2();
+        final TextStyle style3 = TextStyle.EMPTY.set(TextStylePropertyName.TEXT_ALIGN, TextAlign.LEFT);
+
+        final TextStyle merged12 = style1.merge(style2, cache);
+        style1.merge(style3, cache);
+        assertSame(merged12, style1.merge(style2, cache)); // 1+2 now most recent
+        style2.merge(style3, cache); // evicts 1+3
+
+        this.checkCache(cache, 2, 1, 3);
+
+        assertSame(merged12, style1.merge(style2, cache));
+        style1.merge(style3, cache);
+        this.checkCache(cache, 2, 2, 4);
+    }
+
+    @Test
+    public void testClear() {
+        final TextStyleMergeCache cache = TextStyleMergeCache.with(2);
+        this.style1().merge(this.style2(), cache);
+        cache.clear();
+
+        this.checkCache(cache, 0, 0, 0);
+    }
+
+    private void checkCache(final TextStyleMergeCache cache,
+                            final int size,
+                            final long hits,
+                            final long misses) {
+        this.checkEquals(size, cache.size(), "size");
+        this.checkEquals(hits, cache.hits(), "hits");
+        this.checkEquals(misses, cache.misses(), "misses");
+    }
+
+    @Test
+    public void testToString() {
+        final TextStyleMergeCache cache = TextStyleMergeCache.with(10);
+        final TextStyle style1 = this.style1();
+        final TextStyle style2 = this.style2();
+
+        style1.merge(style2, cache);
+        style1.merge(style2, cache);
+
+        this.toStringAndCheck(cache, "size: 1/10 hits: 1 misses: 1");
+    }
+
+    private TextStyle style1() {
+        return TextStyle.EMPTY
+                .set(TextStylePropertyName.WORD_WRAP, WordWrap.BREAK_WORD);
+    }
+
+    private TextStyle style2() {
+        return TextStyle.EMPTY
+                .set(TextStylePropertyName.WORD_WRAP, WordWrap.NORMAL)
+                .set(TextStylePropertyName.FONT_FAMILY, FontFamily.with("Times New Roman"));
+    }
+
+    @Override
+    public Class<TextStyleMergeCache> type() {
+        return TextStyleMergeCache.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
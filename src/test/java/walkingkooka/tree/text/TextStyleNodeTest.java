@@ -201,6 +201,13 @@ public final class TextStyleNodeTest extends TextParentNodeTestCase<TextStyleNod
         this.checkEquals(TextStyle.with(style), node.textStyle(), "textStyle");
     }
 
+    @Test
+    public void testTextStyleCached() {
+        final TextNode node = TextNode.style(TextNode.NO_CHILDREN)
+                .setAttributes(Maps.of(TextStylePropertyName.TEXT_ALIGN, TextAlign.RIGHT));
+        assertSame(node.textStyle(), node.textStyle());
+    }
+
     // HasText..........................................................................................................
 
     @Test
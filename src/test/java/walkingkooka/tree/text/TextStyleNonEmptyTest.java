@@ -91,6 +91,38 @@ public final class TextStyleNonEmptyTest extends TextStyleTestCase<TextStyleNonE
                 TextStyle.with(Maps.of(this.property1(), this.value1(), this.property3(), this.value3())));
     }
 
+    @Test
+    public void testMergeNotEmptySuperset() {
+        this.mergeAndCheck(
+                TextStyle.with(Maps.of(this.property1(), this.value1())),
+                TextStyle.with(Maps.of(this.property1(), this.value1(), this.property2(), this.value2())));
+    }
+
+    @Test
+    public void testMergeNotEmptyPriorityValueDifferent() {
+        this.mergeAndCheck(
+                TextStyle.with(Maps.of(this.property1(), WordWrap.NORMAL)),
+                TextStyle.with(Maps.of(this.property1(), this.value1(), this.property2(), this.value2())));
+    }
+
+    @Test
+    public void testMergeNotEmptyEqual() {
+        final TextStyle textStyle = TextStyle.with(Maps.of(this.property1(), this.value1()));
+        final TextStyle other = TextStyle.with(Maps.of(this.property1(), this.value1()));
+
+        assertSame(other, textStyle.merge(other));
+    }
+
+    @Test
+    public void testMergeNotEmptyUnknownProperties() {
+        final TextStylePropertyName<?> unknown1 = TextStylePropertyName.with("a-unknown");
+        final TextStylePropertyName<?> unknown2 = TextStylePropertyName.with("zz-unknown");
+
+        this.mergeAndCheck(
+                TextStyle.with(Maps.of(this.property1(), this.value1(), unknown1, "priority")),
+                TextStyle.with(Maps.of(unknown1, "other", unknown2, "other2")));
+    }
+
     // replace...........................................................................................................
 
     @Test
@@ -107,6 +107,56 @@ public final class TextStylePropertyNameTest extends TextNodeNameNameTestCase<Te
         }
     }
 
+    @Test
+    public void testOrdinals() {
+        final TextStylePropertyName<?>[] ordinals = TextStylePropertyName.ORDINALS;
+        this.checkEquals(TextStylePropertyName.values().size(), ordinals.length, "ordinals length");
+
+        for (int i = 0; i < ordinals.length; i++) {
+            this.checkEquals(i, ordinals[i].ordinal, () -> ordinals[i] + " ordinal");
+        }
+    }
+
+    @Test
+    public void testIsInheritedColor() {
+        this.checkEquals(true, TextStylePropertyName.COLOR.isInherited());
+    }
+
+    @Test
+    public void testIsInheritedFontFamily() {
+        this.checkEquals(true, TextStylePropertyName.FONT_FAMILY.isInherited());
+    }
+
+    @Test
+    public void testIsInheritedMarginLeft() {
+        this.checkEquals(false, TextStylePropertyName.MARGIN_LEFT.isInherited());
+    }
+
+    @Test
+    public void testIsInheritedBorderTopWidth() {
+        this.checkEquals(false, TextStylePropertyName.BORDER_TOP_WIDTH.isInherited());
+    }
+
+    @Test
+    public void testIsInheritedUnknown() {
+        this.checkEquals(true, TextStylePropertyName.with("unknown-property-123").isInherited());
+    }
+
+    @Test
+    public void testInheritedBitmap() {
+        for (final TextStylePropertyName<?> name : TextStylePropertyName.ORDINALS) {
+            final int ordinal = name.ordinal;
+            this.checkEquals(name.isInherited(),
+                    0 != (TextStylePropertyName.INHERITED[ordinal >> 6] & (1L << ordinal)),
+                    () -> name + " inherited");
+        }
+    }
+
+    @Test
+    public void testOrdinalUnknown() {
+        this.checkEquals(TextStylePropertyName.UNKNOWN_ORDINAL, TextStylePropertyName.with("unknown-property-123").ordinal);
+    }
+
     @Test
     public void testConstantNameBackgroundColor() {
         this.constantNameAndCheck(TextStylePropertyName.BACKGROUND_COLOR, "BACKGROUND_COLOR");
@@ -21,6 +21,9 @@ import org.junit.jupiter.api.Test;
 import walkingkooka.Cast;
 import walkingkooka.tree.json.JsonNode;
 
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
 public final class TextStylePropertyValueHandlerEnumTest extends TextStylePropertyValueHandlerTestCase2<TextStylePropertyValueHandlerEnum<TextWrapping>, TextWrapping> {
 
     @Test
@@ -29,6 +32,23 @@ public final class TextStylePropertyValueHandlerEnumTest extends TextStyleProper
         this.unmarshallAndCheck(JsonNode.string(textWrapping.name()), textWrapping);
     }
 
+    @Test
+    public void testUnmarshallUnknownFails() {
+        assertThrows(IllegalArgumentException.class, () -> this.handler().unmarshall(JsonNode.string("UNKNOWN"), this.propertyName(), this.unmarshallContext()));
+    }
+
+    @Test
+    public void testMarshall() {
+        final TextWrapping textWrapping = TextWrapping.CLIP;
+        this.marshallAndCheck(textWrapping, JsonNode.string(textWrapping.name()));
+    }
+
+    @Test
+    public void testMarshallShared() {
+        final TextStylePropertyValueHandlerEnum<TextWrapping> handler = this.handler();
+        assertSame(handler.marshall(TextWrapping.CLIP, this.marshallContext()), handler.marshall(TextWrapping.CLIP, this.marshallContext()));
+    }
+
     @Test
     public void testToString() {
         this.toStringAndCheck(this.handler(), TextWrapping.class.getSimpleName());
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.text;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TextStyleSheetTest implements ClassTesting2<TextStyleSheet>,
+        ToStringTesting<TextStyleSheet> {
+
+    private final static TextStyleName NAME1 = TextStyleName.with("name1");
+
+    private final static TextStyleName NAME2 = TextStyleName.with("name2");
+
+    @Test
+    public void testWithZeroMaxSizeFails() {
+        assertThrows(IllegalArgumentException.class, () -> TextStyleSheet.with(0));
+    }
+
+    @Test
+    public void testStyleNullNameFails() {
+        assertThrows(NullPointerException.class, () -> TextStyleSheet.with(1).style(null));
+    }
+
+    @Test
+    public void testSetNullNameFails() {
+        assertThrows(NullPointerException.class, () -> TextStyleSheet.with(1).set(null, this.style1()));
+    }
+
+    @Test
+    public void testSetNullStyleFails() {
+        assertThrows(NullPointerException.class, () -> TextStyleSheet.with(1).set(NAME1, null));
+    }
+
+    @Test
+    public void testRemoveNullNameFails() {
+        assertThrows(NullPointerException.class, () -> TextStyleSheet.with(1).remove(null));
+    }
+
+    @Test
+    public void testResolveNullFails() {
+        assertThrows(NullPointerException.class, () -> TextStyleSheet.with(1).resolve(null));
+    }
+
+    @Test
+    public void testSetStyleAndRemove() {
+        final TextStyleSheet sheet = TextStyleSheet.with(1);
+        this.checkEquals(Optional.empty(), sheet.style(NAME1));
+
+        sheet.set(NAME1, this.style1());
+        this.checkEquals(Optional.of(this.style1()), sheet.style(NAME1));
+
+        sheet.remove(NAME1);
+        this.checkEquals(Optional.empty(), sheet.style(NAME1));
+    }
+
+    @Test
+    public void testResolveLeaf() {
+        final Text text = Text.with("abc");
+        assertSame(text, TextStyleSheet.with(1).resolve(text));
+    }
+
+    @Test
+    public void testResolveWithoutStyleNames() {
+        final TextNode node = this.style1()
+                .setChildren(Lists.of(Text.with("a"), Text.with("b")));
+        assertSame(node, TextStyleSheet.with(2).resolve(node));
+    }
+
+    @Test
+    public void testResolveStyleName() {
+        final TextStyleSheet sheet = this.sheet();
+
+        this.checkEquals(this.style1().setChildren(Lists.of(Text.with("a"), Text.with("b"))),
+                sheet.resolve(TextNode.styleName(NAME1).setChildren(Lists.of(Text.with("a"), Text.with("b")))));
+    }
+
+    @Test
+    public void testResolveUndefinedStyleName() {
+        final TextNode node = TextNode.styleName(TextStyleName.with("undefined"))
+                .setChildren(Lists.of(Text.with("a")));
+        assertSame(node, this.sheet().resolve(node));
+    }
+
+    @Test
+    public void testResolveDocument() {
+        this.checkEquals(this.resolvedDocument(this.style1(), this.style2()),
+                this.sheet().resolve(this.document()));
+    }
+
+    @Test
+    public void testResolveDocumentCached() {
+        final TextStyleSheet sheet = this.sheet();
+        final TextNode document = this.document();
+
+        final TextNode resolved = sheet.resolve(document);
+        this.checkCache(sheet, 3, 0, 3);
+
+        assertSame(resolved, sheet.resolve(document));
+        this.checkCache(sheet, 3, 1, 3);
+    }
+
+    @Test
+    public void testResolveEditedDocumentOnlyResolvesChanged() {
+        final TextStyleSheet sheet = this.sheet();
+        final TextNode document = this.document();
+        sheet.resolve(document);
+
+        final TextNode edited = document.appendChild(Text.with("d"));
+        this.checkEquals(this.resolvedDocument(this.style1(), this.style2()).appendChild(Text.with("d")),
+                sheet.resolve(edited));
+        this.checkCache(sheet, 4, 2, 4);
+    }
+
+    @Test
+    public void testSetRedefinesOnlyUsingSubtrees() {
+        final TextStyleSheet sheet = this.sheet();
+        final TextNode document = this.document();
+        final TextNode resolved = sheet.resolve(document);
+
+        final TextStyle style3 = TextStyle.EMPTY
+                .set(TextStylePropertyName.COLOR, Color.parse("#123"));
+        sheet.set(NAME1, style3);
+        this.checkCache(sheet, 1, 0, 3);
+
+        final TextNode resolved2 = sheet.resolve(document);
+        this.checkEquals(this.resolvedDocument(style3, this.style2()), resolved2);
+        assertNotSame(this.child(resolved, 0), this.child(resolved2, 0), "name1 resolved again");
+        assertSame(this.child(resolved, 1), this.child(resolved2, 1), "name2 from cache");
+        this.checkCache(sheet, 3, 1, 5);
+    }
+
+    @Test
+    public void testSetSameStyleKeepsCache() {
+        final TextStyleSheet sheet = this.sheet();
+        sheet.resolve(this.document());
+
+        sheet.set(NAME1, this.style1());
+        this.checkCache(sheet, 3, 0, 3);
+    }
+
+    @Test
+    public void testRemove() {
+        final TextStyleSheet sheet = this.sheet();
+        final TextNode document = this.document();
+        sheet.resolve(document);
+
+        sheet.remove(NAME2);
+        this.checkCache(sheet, 1, 0, 3);
+
+        this.checkEquals(TextNode.style(
+                Lists.of(
+                        this.style1().setChildren(Lists.of(Text.with("a"))),
+                        TextNode.styleName(NAME2).setChildren(Lists.of(Text.with("b")))
+                )
+        ), sheet.resolve(document));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted() {
+        final TextStyleSheet sheet = this.sheet();
+        final TextStyleSheet small = TextStyleSheet.with(1);
+        small.set(NAME1, this.style1());
+        small.set(NAME2, this.style2());
+
+        this.checkEquals(sheet.resolve(this.document()), small.resolve(this.document()));
+        this.checkEquals(1, small.size(), "size");
+    }
+
+    @Test
+    public void testClearCache() {
+        final TextStyleSheet sheet = this.sheet();
+        sheet.resolve(this.document());
+        sheet.clearCache();
+
+        this.checkCache(sheet, 0, 0, 0);
+        this.checkEquals(Optional.of(this.style1()), sheet.style(NAME1));
+    }
+
+    @Test
+    public void testToString() {
+        final TextStyleSheet sheet = this.sheet();
+        final TextNode document = this.document();
+        sheet.resolve(document);
+        sheet.resolve(document);
+
+        this.toStringAndCheck(sheet, "styles: 2 size: 3/10 hits: 1 misses: 3");
+    }
+
+    private void checkCache(final TextStyleSheet sheet,
+                            final int size,
+                            final long hits,
+                            final long misses) {
+        this.checkEquals(size, sheet.size(), "size");
+        this.checkEquals(hits, sheet.hits(), "hits");
+        this.checkEquals(misses, sheet.misses(), "misses");
+    }
+
+    private TextNode child(final TextNode parent,
+                           final int index) {
+        return ((TextParentNode) parent).children.get(index);
+    }
+
+    private TextStyleSheet sheet() {
+        final TextStyleSheet sheet = TextStyleSheet.with(10);
+        sheet.set(NAME1, this.style1());
+        sheet.set(NAME2, this.style2());
+        return sheet;
+    }
+
+    private TextNode document() {
+        return TextNode.style(
+                Lists.of(
+                        TextNode.styleName(NAME1).setChildren(Lists.of(Text.with("a"))),
+                        TextNode.styleName(NAME2).setChildren(Lists.of(Text.with("b")))
+                )
+        );
+    }
+
+    private TextNode resolvedDocument(final TextStyle style1,
+                                      final TextStyle style2) {
+        return TextNode.style(
+                Lists.of(
+                        style1.setChildren(Lists.of(Text.with("a"))),
+                        style2.setChildren(Lists.of(Text.with("b")))
+                )
+        );
+    }
+
+    private TextStyle style1() {
+        return TextStyle.EMPTY
+                .set(TextStylePropertyName.WORD_WRAP, WordWrap.BREAK_WORD);
+    }
+
+    private TextStyle style2() {
+        return TextStyle.EMPTY
+                .set(TextStylePropertyName.WORD_WRAP, WordWrap.NORMAL)
+                .set(TextStylePropertyName.FONT_FAMILY, FontFamily.with("Times New Roman"));
+    }
+
+    @Override
+    public Class<TextStyleSheet> type() {
+        return TextStyleSheet.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -18,6 +18,7 @@
 package walkingkooka.tree.text;
 
 import org.junit.jupiter.api.Test;
+import walkingkooka.Cast;
 import walkingkooka.HashCodeEqualsDefinedTesting2;
 import walkingkooka.ToStringTesting;
 import walkingkooka.collect.list.Lists;
@@ -360,6 +361,376 @@ public final class TextStyleTest implements ClassTesting2<TextStyle>,
                 .marshall(value);
     }
 
+    // inherited........................................................................................................
+
+    private final static TextStylePropertyName<String> UNKNOWN_PROPERTY = Cast.to(TextStylePropertyName.with("unknown-property"));
+
+    @Test
+    public void testInheritedEmpty() {
+        assertSame(TextStyle.EMPTY, TextStyle.EMPTY.inherited());
+    }
+
+    @Test
+    public void testInheritedAllInherited() {
+        final TextStyle textStyle = TextStyle.EMPTY
+                .set(TextStylePropertyName.COLOR, Color.fromRgb(0x123456))
+                .set(UNKNOWN_PROPERTY, "unknown-value");
+        assertSame(textStyle, textStyle.inherited());
+    }
+
+    @Test
+    public void testInheritedSomeRemoved() {
+        final TextStyle textStyle = TextStyle.EMPTY
+                .set(TextStylePropertyName.COLOR, Color.fromRgb(0x123456))
+                .set(TextStylePropertyName.MARGIN_LEFT, Length.pixel(1.0))
+                .set(UNKNOWN_PROPERTY, "unknown-value");
+
+        this.checkEquals(
+                TextStyle.EMPTY
+                        .set(TextStylePropertyName.COLOR, Color.fromRgb(0x123456))
+                        .set(UNKNOWN_PROPERTY, "unknown-value"),
+                textStyle.inherited()
+        );
+    }
+
+    @Test
+    public void testInheritedNoneInherited() {
+        assertSame(
+                TextStyle.EMPTY,
+                TextStyle.EMPTY
+                        .set(TextStylePropertyName.MARGIN_LEFT, Length.pixel(1.0))
+                        .inherited()
+        );
+    }
+
+    // css..............................................................................................................
+
+    @Test
+    public void testParseCssNullTextFails() {
+        assertThrows(NullPointerException.class, () -> TextStyle.parseCss(null, this.createPatchContext()));
+    }
+
+    @Test
+    public void testParseCssNullContextFails() {
+        assertThrows(NullPointerException.class, () -> TextStyle.parseCss("color: #123", null));
+    }
+
+    @Test
+    public void testParseCssEmpty() {
+        assertSame(TextStyle.EMPTY, this.parseCss(""));
+    }
+
+    @Test
+    public void testParseCssWhitespaceAndSemiColons() {
+        assertSame(TextStyle.EMPTY, this.parseCss(" ; ;  "));
+    }
+
+    @Test
+    public void testParseCss() {
+        this.checkEquals(
+                TextStyle.EMPTY
+                        .set(TextStylePropertyName.FONT_WEIGHT, FontWeight.BOLD)
+                        .set(TextStylePropertyName.COLOR, Color.parse("#123"))
+                        .set(TextStylePropertyName.PADDING_LEFT, Length.pixel(4.0)),
+                this.parseCss("font-weight: bold; color: #123; padding-left: 4px")
+        );
+    }
+
+    @Test
+    public void testParseCssTrailingSemiColonAndWhitespace() {
+        this.checkEquals(
+                TextStyle.EMPTY
+                        .set(TextStylePropertyName.FONT_WEIGHT, FontWeight.BOLD),
+                this.parseCss("  font-weight :  bold  ; ")
+        );
+    }
+
+    @Test
+    public void testParseCssEnumFontSizeAndFontFamily() {
+        this.checkEquals(
+                TextStyle.EMPTY
+                        .set(TextStylePropertyName.FONT_FAMILY, FontFamily.with("Times New Roman"))
+                        .set(TextStylePropertyName.FONT_SIZE, FontSize.with(12))
+                        .set(TextStylePropertyName.WORD_WRAP, WordWrap.BREAK_WORD),
+                this.parseCss("font-family: Times New Roman; font-size: 12pt; word-wrap: break-word")
+        );
+    }
+
+    @Test
+    public void testParseCssNumericFontWeight() {
+        this.checkEquals(
+                TextStyle.EMPTY
+                        .set(TextStylePropertyName.FONT_WEIGHT, FontWeight.with(600)),
+                this.parseCss("font-weight: 600")
+        );
+    }
+
+    @Test
+    public void testParseCssOpacityNumber() {
+        this.checkEquals(
+                TextStyle.EMPTY
+                        .set(TextStylePropertyName.OPACITY, Opacity.with(0.25)),
+                this.parseCss("opacity: 0.25")
+        );
+    }
+
+    @Test
+    public void testParseCssOpacityPercentage() {
+        this.checkEquals(
+                TextStyle.EMPTY
+                        .set(TextStylePropertyName.OPACITY, Opacity.with(0.5)),
+                this.parseCss("opacity: 50%")
+        );
+    }
+
+    @Test
+    public void testParseCssOpacityOpaquePercentage() {
+        this.checkEquals(
+                TextStyle.EMPTY
+                        .set(TextStylePropertyName.OPACITY, Opacity.OPAQUE),
+                this.parseCss("opacity: 100%")
+        );
+    }
+
+    @Test
+    public void testParseCssTextOverflowString() {
+        this.checkEquals(
+                TextStyle.EMPTY
+                        .set(TextStylePropertyName.TEXT_OVERFLOW, TextOverflow.string("a;\"b")),
+                this.parseCss("text-overflow: \"a;\\\"b\"")
+        );
+    }
+
+    @Test
+    public void testParseCssUnknownProperty() {
+        this.checkEquals(
+                TextStyle.EMPTY
+                        .set(UNKNOWN_PROPERTY, "unknown-value"),
+                this.parseCss("unknown-property: unknown-value")
+        );
+    }
+
+    @Test
+    public void testParseCssMissingColonFails() {
+        this.parseCssFails("font-weight bold", "Invalid character 'b' at 12");
+    }
+
+    @Test
+    public void testParseCssMissingValueFails() {
+        this.parseCssFails("color: ; font-weight: bold", "Invalid character ';' at 7");
+    }
+
+    @Test
+    public void testParseCssUnexpectedEndFails() {
+        this.parseCssFails("color", "Unexpected end at 5");
+    }
+
+    @Test
+    public void testParseCssInvalidNameFails() {
+        this.parseCssFails("!color: red", "Invalid character '!' at 0");
+    }
+
+    @Test
+    public void testParseCssUnterminatedStringFails() {
+        this.parseCssFails("text-overflow: \"abc", "Unterminated string at 19");
+    }
+
+    @Test
+    public void testParseCssInvalidValueFails() {
+        this.parseCssFails("font-weight: bold; word-wrap: invalid", "Invalid value \"invalid\" for \"word-wrap\" at 30");
+    }
+
+    private void parseCssFails(final String css,
+                               final String message) {
+        final TextNodeException thrown = assertThrows(TextNodeException.class, () -> this.parseCss(css));
+        this.checkEquals(message, thrown.getMessage(), () -> "parseCss " + css);
+    }
+
+    private TextStyle parseCss(final String css) {
+        return TextStyle.parseCss(css, this.createPatchContext());
+    }
+
+    @Test
+    public void testToCssEmpty() {
+        this.checkEquals("", TextStyle.EMPTY.toCss());
+    }
+
+    @Test
+    public void testToCss() {
+        this.checkEquals("font-weight: bold; padding-left: 4px; word-wrap: break-word",
+                TextStyle.EMPTY
+                        .set(TextStylePropertyName.FONT_WEIGHT, FontWeight.BOLD)
+                        .set(TextStylePropertyName.PADDING_LEFT, Length.pixel(4.0))
+                        .set(TextStylePropertyName.WORD_WRAP, WordWrap.BREAK_WORD)
+                        .toCss());
+    }
+
+    @Test
+    public void testToCssOpacity() {
+        this.checkEquals("opacity: 0.5",
+                TextStyle.EMPTY
+                        .set(TextStylePropertyName.OPACITY, Opacity.with(0.5))
+                        .toCss());
+    }
+
+    @Test
+    public void testToCssOpacityTransparent() {
+        this.checkEquals("opacity: 0",
+                TextStyle.EMPTY
+                        .set(TextStylePropertyName.OPACITY, Opacity.TRANSPARENT)
+                        .toCss());
+    }
+
+    @Test
+    public void testToCssOpacityOpaque() {
+        this.checkEquals("opacity: 1",
+                TextStyle.EMPTY
+                        .set(TextStylePropertyName.OPACITY, Opacity.OPAQUE)
+                        .toCss());
+    }
+
+    @Test
+    public void testToCssEscapesBracesAndSemiColons() {
+        this.checkEquals("unknown-property: a\\; b: \\{c\\}",
+                TextStyle.EMPTY
+                        .set(UNKNOWN_PROPERTY, "a; b: {c}")
+                        .toCss());
+    }
+
+    @Test
+    public void testToCssEscapesUnclosedQuote() {
+        this.checkEquals("font-family: O\\'Reilly",
+                TextStyle.EMPTY
+                        .set(TextStylePropertyName.FONT_FAMILY, FontFamily.with("O'Reilly"))
+                        .toCss());
+    }
+
+    @Test
+    public void testToCssCached() {
+        final TextStyle style = TextStyle.EMPTY
+                .set(TextStylePropertyName.FONT_WEIGHT, FontWeight.BOLD);
+        assertSame(style.toCss(), style.toCss());
+    }
+
+    @Test
+    public void testToCssParseCssRoundtrip() {
+        final TextStyle style = TextStyle.EMPTY
+                .set(TextStylePropertyName.BORDER_BOTTOM_STYLE, BorderStyle.SOLID)
+                .set(TextStylePropertyName.BORDER_BOTTOM_WIDTH, Length.none())
+                .set(TextStylePropertyName.COLOR, Color.fromRgb(0x123456))
+                .set(TextStylePropertyName.FONT_FAMILY, FontFamily.with("Times New Roman"))
+                .set(TextStylePropertyName.FONT_SIZE, FontSize.with(11))
+                .set(TextStylePropertyName.FONT_WEIGHT, FontWeight.with(600))
+                .set(TextStylePropertyName.LINE_HEIGHT, Length.normal())
+                .set(TextStylePropertyName.OPACITY, Opacity.with(0.5))
+                .set(TextStylePropertyName.TEXT_OVERFLOW, TextOverflow.string("a\"b"))
+                .set(TextStylePropertyName.VERTICAL_ALIGN, VerticalAlign.MIDDLE)
+                .set(TextStylePropertyName.WORD_WRAP, WordWrap.BREAK_WORD)
+                .set(UNKNOWN_PROPERTY, "unknown-value");
+
+        this.checkEquals(style, this.parseCss(style.toCss()), style::toCss);
+    }
+
+    @Test
+    public void testToCssParseCssRoundtripEscaped() {
+        final TextStyle style = TextStyle.EMPTY
+                .set(TextStylePropertyName.FONT_FAMILY, FontFamily.with("O'Reilly"))
+                .set(TextStylePropertyName.TEXT_OVERFLOW, TextOverflow.string("a;{b}\\"))
+                .set(UNKNOWN_PROPERTY, "a; b: {c} \\ \"d;\"");
+
+        this.checkEquals(style, this.parseCss(style.toCss()), style::toCss);
+    }
+
+    // mergeAll.........................................................................................................
+
+    @Test
+    public void testMergeAllNullFails() {
+        assertThrows(NullPointerException.class, () -> TextStyle.mergeAll(null));
+    }
+
+    @Test
+    public void testMergeAllNullStyleFails() {
+        assertThrows(NullPointerException.class, () -> TextStyle.mergeAll(Lists.of(this.textStyle(), null)));
+    }
+
+    @Test
+    public void testMergeAllEmptyList() {
+        assertSame(TextStyle.EMPTY, TextStyle.mergeAll(Lists.empty()));
+    }
+
+    @Test
+    public void testMergeAllOnlyOneNonEmpty() {
+        final TextStyle textStyle = this.textStyle();
+        assertSame(textStyle, TextStyle.mergeAll(Lists.of(TextStyle.EMPTY, textStyle, TextStyle.EMPTY)));
+    }
+
+    @Test
+    public void testMergeAll() {
+        final TextStyle cell = TextStyle.EMPTY
+                .set(TextStylePropertyName.WORD_WRAP, WordWrap.NORMAL);
+        final TextStyle row = TextStyle.EMPTY
+                .set(TextStylePropertyName.WORD_WRAP, WordWrap.BREAK_WORD)
+                .set(TextStylePropertyName.TEXT_ALIGN, TextAlign.CENTER);
+        final TextStyle column = TextStyle.EMPTY
+                .set(TextStylePropertyName.TEXT_ALIGN, TextAlign.LEFT)
+                .set(TextStylePropertyName.COLOR, Color.fromRgb(0x123456));
+        final TextStyle sheet = TextStyle.with(
+                Maps.of(
+                        this.property1(), this.value1(),
+                        TextStylePropertyName.with("unknown-property"), "unknown-value"
+                )
+        );
+
+        final List<TextStyle> styles = Lists.of(cell, row, column, sheet);
+        final TextStyle merged = TextStyle.mergeAll(styles);
+
+        this.checkEquals(cell.merge(row).merge(column).merge(sheet), merged);
+        this.checkEquals(WordWrap.NORMAL, merged.getOrFail(TextStylePropertyName.WORD_WRAP), "word-wrap");
+        this.checkEquals(TextAlign.CENTER, merged.getOrFail(TextStylePropertyName.TEXT_ALIGN), "text-align");
+    }
+
+    @Test
+    public void testMergeAllUnknownProperties() {
+        final TextStylePropertyName<String> unknown1 = Cast.to(TextStylePropertyName.with("unknown-1"));
+        final TextStylePropertyName<String> unknown2 = Cast.to(TextStylePropertyName.with("unknown-2"));
+
+        final TextStyle first = TextStyle.EMPTY
+                .set(unknown2, "first-2");
+        final TextStyle second = TextStyle.EMPTY
+                .set(TextStylePropertyName.TEXT_ALIGN, TextAlign.CENTER)
+                .set(unknown1, "second-1")
+                .set(unknown2, "second-2");
+        final TextStyle third = TextStyle.EMPTY
+                .set(unknown1, "third-1");
+
+        final TextStyle merged = TextStyle.mergeAll(Lists.of(first, second, third));
+        this.checkEquals(first.merge(second).merge(third), merged);
+        this.checkEquals("first-2", merged.getOrFail(unknown2), "unknown-2");
+        this.checkEquals("second-1", merged.getOrFail(unknown1), "unknown-1");
+    }
+
+    @Test
+    public void testMergeAllSameAsFirst() {
+        final TextStyle first = TextStyle.EMPTY
+                .set(TextStylePropertyName.WORD_WRAP, WordWrap.NORMAL)
+                .set(TextStylePropertyName.TEXT_ALIGN, TextAlign.CENTER);
+        final TextStyle second = TextStyle.EMPTY
+                .set(TextStylePropertyName.WORD_WRAP, WordWrap.BREAK_WORD);
+
+        assertSame(first, TextStyle.mergeAll(Lists.of(first, second, first)));
+    }
+
+    @Test
+    public void testMergeAllSameAsLast() {
+        final TextStyle first = TextStyle.EMPTY
+                .set(TextStylePropertyName.WORD_WRAP, WordWrap.NORMAL);
+        final TextStyle last = TextStyle.EMPTY
+                .set(TextStylePropertyName.WORD_WRAP, WordWrap.NORMAL)
+                .set(TextStylePropertyName.TEXT_ALIGN, TextAlign.CENTER);
+
+        assertSame(last, TextStyle.mergeAll(Lists.of(first, TextStyle.EMPTY, last)));
+    }
+
     // toString.........................................................................................................
 
     @Test